@@ -0,0 +1,109 @@
+import java.nio.ByteBuffer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import pieces.PieceColor;
+
+/**
+ * Closes the Board hot paths over a prepared position and hands them out as plain functional interfaces.
+ * JMH will not generate harnesses for classes in the unnamed package, and classes in a named package cannot
+ * see {@link Board}, so the benchmarks in {@code benchmarks} reach this class reflectively once during setup
+ * and call the returned closures on the measured path.
+ */
+public final class BenchmarkTargets {
+
+  private BenchmarkTargets() {
+  }
+
+  /**
+   * Play {@code from}-{@code to} through {@link Board#movePiece} and take it back, so each invocation sees
+   * the same position.
+   */
+  public static Supplier<Object> movePiece(String fen, String from, String to) {
+    Board board = Board.fromFen(fen);
+    Coordinate fromCoordinate = Coordinate.from(from);
+    Coordinate toCoordinate = Coordinate.from(to);
+    return () -> {
+      Object result = board.movePiece(fromCoordinate, toCoordinate);
+      board.unmakeMove();
+      return result;
+    };
+  }
+
+  /**
+   * Generate the pseudo-legal moves of the piece on {@code square}, the per-piece step of move validation.
+   */
+  public static IntSupplier potentialMoves(String fen, String square) {
+    Board board = Board.fromFen(fen);
+    int from = Position.toSquare(Coordinate.from(square));
+    int[] moves = new int[Move.MAX_MOVES];
+    return () -> MoveGenerator.generatePseudoLegalMoves(board, from, moves, 0);
+  }
+
+  public static BooleanSupplier isInCheck(String fen) {
+    Board board = Board.fromFen(fen);
+    PieceColor side = board.getCurrentTurn();
+    return () -> board.isInCheck(side);
+  }
+
+  public static BooleanSupplier hasNoLegalMoves(String fen) {
+    Board board = Board.fromFen(fen);
+    return board::hasNoLegalMoves;
+  }
+
+  public static Supplier<String> serialize(String fen) {
+    Board board = Board.fromFen(fen);
+    return board::serialize;
+  }
+
+  /**
+   * @return a function from serialized board to the serialized form of its deserialized copy
+   */
+  public static Function<String, String> serializeRoundTrip() {
+    return serialized -> Board.deserialize(serialized).serialize();
+  }
+
+  public static Function<String, Object> deserialize() {
+    return Board::deserialize;
+  }
+
+  public static Function<String, Object> fromFen() {
+    return Board::fromFen;
+  }
+
+  /**
+   * Emit FEN records into one reused builder, as a bulk export would.
+   */
+  public static Supplier<CharSequence> appendFen(String fen) {
+    Board board = Board.fromFen(fen);
+    StringBuilder sb = new StringBuilder(128);
+    return () -> {
+      sb.setLength(0);
+      return board.appendFen(sb);
+    };
+  }
+
+  /**
+   * Write the binary encoding into one reused buffer, as a bulk export would.
+   */
+  public static Supplier<Object> encodePosition(String fen) {
+    Board board = Board.fromFen(fen);
+    ByteBuffer buffer = ByteBuffer.allocate(PositionCodec.BYTES);
+    return () -> {
+      PositionCodec.encode(board, buffer, 0);
+      return buffer;
+    };
+  }
+
+  public static Supplier<Object> decodePosition(String fen) {
+    ByteBuffer buffer = ByteBuffer.allocate(PositionCodec.BYTES);
+    PositionCodec.encode(Board.fromFen(fen), buffer, 0);
+    return () -> PositionCodec.decode(buffer, 0);
+  }
+
+  public static Function<String, Object> coordinateFrom() {
+    return Coordinate::from;
+  }
+}
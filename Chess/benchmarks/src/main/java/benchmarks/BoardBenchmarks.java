@@ -0,0 +1,85 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Move validation and game-state detection on the live board.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmarks {
+
+  @State(Scope.Thread)
+  public static class MovePieceState {
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    Fixture fixture;
+
+    Supplier<Object> movePiece;
+
+    @Setup
+    public void setup() {
+      movePiece = Targets.get("movePiece", fixture.getFen(), fixture.getFrom(), fixture.getTo());
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class CheckState {
+    @Param({"OPENING", "MIDDLEGAME", "CHECKMATE"})
+    Fixture fixture;
+
+    BooleanSupplier isInCheck;
+
+    @Setup
+    public void setup() {
+      isInCheck = Targets.get("isInCheck", fixture.getFen());
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class NoLegalMovesState {
+    @Param({"CHECKMATE", "STALEMATE", "MIDDLEGAME"})
+    Fixture fixture;
+
+    BooleanSupplier hasNoLegalMoves;
+
+    @Setup
+    public void setup() {
+      hasNoLegalMoves = Targets.get("hasNoLegalMoves", fixture.getFen());
+    }
+  }
+
+  /**
+   * A full validated move including check, checkmate and stalemate detection, followed by its undo.
+   */
+  @Benchmark
+  public Object movePiece(MovePieceState state) {
+    return state.movePiece.get();
+  }
+
+  @Benchmark
+  public boolean isInCheck(CheckState state) {
+    return state.isInCheck.getAsBoolean();
+  }
+
+  @Benchmark
+  public boolean hasNoLegalMoves(NoLegalMovesState state) {
+    return state.hasNoLegalMoves.getAsBoolean();
+  }
+}
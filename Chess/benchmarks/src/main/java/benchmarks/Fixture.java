@@ -0,0 +1,34 @@
+package benchmarks;
+
+/**
+ * Representative positions for the benchmarks, each with a legal move for the side to move where one exists.
+ */
+public enum Fixture {
+  OPENING("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", "e2", "e4"),
+  MIDDLEGAME("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", "e5", "f7"),
+  ENDGAME("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", "b4", "f4"),
+  CHECKMATE("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3", null, null),
+  STALEMATE("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1", null, null);
+
+  private final String fen;
+  private final String from;
+  private final String to;
+
+  Fixture(String fen, String from, String to) {
+    this.fen = fen;
+    this.from = from;
+    this.to = to;
+  }
+
+  public String getFen() {
+    return fen;
+  }
+
+  public String getFrom() {
+    return from;
+  }
+
+  public String getTo() {
+    return to;
+  }
+}
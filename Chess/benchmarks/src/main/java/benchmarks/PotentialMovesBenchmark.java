@@ -0,0 +1,54 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Candidate move generation for a single piece of each type, taken from the middlegame fixture where every
+ * piece has both quiet moves and captures available.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PotentialMovesBenchmark {
+
+  public enum PieceSquare {
+    PAWN("d5"), KNIGHT("e5"), BISHOP("d2"), ROOK("a1"), QUEEN("f3"), KING("e1");
+
+    private final String square;
+
+    PieceSquare(String square) {
+      this.square = square;
+    }
+  }
+
+  @Param
+  PieceSquare piece;
+
+  IntSupplier potentialMoves;
+
+  @Setup
+  public void setup() {
+    potentialMoves = Targets.get("potentialMoves", Fixture.MIDDLEGAME.getFen(), piece.square);
+  }
+
+  @Benchmark
+  public int potentialMoves() {
+    return potentialMoves.getAsInt();
+  }
+}
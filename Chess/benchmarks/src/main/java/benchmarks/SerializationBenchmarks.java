@@ -0,0 +1,108 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Save/restore of whole boards, FEN import/export, the binary codec and parsing of single coordinates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmarks {
+
+  @State(Scope.Thread)
+  public static class BoardState {
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    Fixture fixture;
+
+    Supplier<String> serialize;
+    Function<String, Object> deserialize;
+    Function<String, String> roundTrip;
+    Function<String, Object> fromFen;
+    Supplier<CharSequence> appendFen;
+    Supplier<Object> encodePosition;
+    Supplier<Object> decodePosition;
+    String serialized;
+
+    @Setup
+    public void setup() {
+      serialize = Targets.get("serialize", fixture.getFen());
+      deserialize = Targets.get("deserialize");
+      roundTrip = Targets.get("serializeRoundTrip");
+      fromFen = Targets.get("fromFen");
+      appendFen = Targets.get("appendFen", fixture.getFen());
+      encodePosition = Targets.get("encodePosition", fixture.getFen());
+      decodePosition = Targets.get("decodePosition", fixture.getFen());
+      serialized = serialize.get();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class CoordinateState {
+    @Param({"a1", "e4", "h8"})
+    String coordinate;
+
+    Function<String, Object> coordinateFrom;
+
+    @Setup
+    public void setup() {
+      coordinateFrom = Targets.get("coordinateFrom");
+    }
+  }
+
+  @Benchmark
+  public String serialize(BoardState state) {
+    return state.serialize.get();
+  }
+
+  @Benchmark
+  public Object deserialize(BoardState state) {
+    return state.deserialize.apply(state.serialized);
+  }
+
+  @Benchmark
+  public String roundTrip(BoardState state) {
+    return state.roundTrip.apply(state.serialized);
+  }
+
+  @Benchmark
+  public Object fromFen(BoardState state) {
+    return state.fromFen.apply(state.fixture.getFen());
+  }
+
+  @Benchmark
+  public CharSequence appendFen(BoardState state) {
+    return state.appendFen.get();
+  }
+
+  @Benchmark
+  public Object encodePosition(BoardState state) {
+    return state.encodePosition.get();
+  }
+
+  @Benchmark
+  public Object decodePosition(BoardState state) {
+    return state.decodePosition.get();
+  }
+
+  @Benchmark
+  public Object coordinateFrom(CoordinateState state) {
+    return state.coordinateFrom.apply(state.coordinate);
+  }
+}
@@ -0,0 +1,22 @@
+import org.immutables.value.Value.Immutable;
+
+/**
+ * A position with what analysis has learned about it, as kept by {@link PositionDatabase}.
+ */
+@Immutable
+public interface AnalysedPosition {
+  long getZobristKey();
+  /**
+   * @return a board of its own, decoded from the stored record
+   */
+  Board getBoard();
+  /**
+   * @return the evaluation in centipawns from the side to move's point of view
+   */
+  int getScore();
+  /**
+   * @return the best move found in {@link Move} encoding, or {@link Move#NONE}
+   */
+  int getBestMove();
+  long getVisits();
+}
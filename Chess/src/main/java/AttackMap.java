@@ -0,0 +1,90 @@
+import java.util.Arrays;
+
+import pieces.Piece;
+import pieces.PieceColor;
+
+/**
+ * Squares attacked by every piece of a {@link Position}, kept current as pieces are put and removed.
+ * When a square changes only the piece on it and the sliders whose rays reach it are recomputed,
+ * so asking whether a color attacks a square is a single bit test. Attack sets come from the
+ * precomputed tables in {@link pieces.Attacks}.
+ */
+class AttackMap {
+  private static final PieceColor[] COLORS = PieceColor.values();
+
+  private final long[] attacksFrom = new long[64];
+  private final long[] attackedBy = new long[2];
+
+  AttackMap() {
+  }
+
+  AttackMap(AttackMap other) {
+    System.arraycopy(other.attacksFrom, 0, attacksFrom, 0, attacksFrom.length);
+    System.arraycopy(other.attackedBy, 0, attackedBy, 0, attackedBy.length);
+  }
+
+  long getAttacks(int square) {
+    return attacksFrom[square];
+  }
+
+  boolean isAttacked(int square, PieceColor byColor) {
+    return (attackedBy[byColor.ordinal()] & (1L << square)) != 0;
+  }
+
+  long getAttacked(PieceColor byColor) {
+    return attackedBy[byColor.ordinal()];
+  }
+
+  void clear() {
+    Arrays.fill(attacksFrom, 0L);
+    attackedBy[0] = 0L;
+    attackedBy[1] = 0L;
+  }
+
+  /**
+   * Recompute the attacks of every piece in {@code position} from scratch.
+   */
+  void rebuild(Position position) {
+    Arrays.fill(attacksFrom, 0L);
+    long occupancy = position.getOccupancy();
+    long pieces = occupancy;
+    while (pieces != 0) {
+      int square = Long.numberOfTrailingZeros(pieces);
+      pieces &= pieces - 1;
+      attacksFrom[square] = position.get(square).getAttacks(square, occupancy);
+    }
+    updateAttackedBy(position);
+  }
+
+  /**
+   * Bring the map up to date after the contents of {@code changedSquare} changed in {@code position}.
+   */
+  void update(Position position, int changedSquare) {
+    long changed = 1L << changedSquare;
+    long occupancy = position.getOccupancy();
+    Piece piece = position.get(changedSquare);
+    attacksFrom[changedSquare] = piece == null ? 0L : piece.getAttacks(changedSquare, occupancy);
+
+    long sliders = position.getSliders() & ~changed;
+    while (sliders != 0) {
+      int square = Long.numberOfTrailingZeros(sliders);
+      sliders &= sliders - 1;
+      if ((attacksFrom[square] & changed) != 0) {
+        attacksFrom[square] = position.get(square).getAttacks(square, occupancy);
+      }
+    }
+    updateAttackedBy(position);
+  }
+
+  private void updateAttackedBy(Position position) {
+    for (PieceColor color : COLORS) {
+      long attacked = 0L;
+      long pieces = position.getOccupancy(color);
+      while (pieces != 0) {
+        attacked |= attacksFrom[Long.numberOfTrailingZeros(pieces)];
+        pieces &= pieces - 1;
+      }
+      attackedBy[color.ordinal()] = attacked;
+    }
+  }
+}
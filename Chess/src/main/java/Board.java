@@ -1,314 +1,366 @@
-import java.util.Collection;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.BiMap;
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.ImmutableBiMap;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Maps;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.Multimaps;
-
-import pieces.Bishop;
-import pieces.King;
-import pieces.Knight;
-import pieces.MovementOption;
-import pieces.Pawn;
+import com.google.common.collect.ImmutableList;
+
 import pieces.Piece;
 import pieces.PieceColor;
-import pieces.Queen;
-import pieces.Rook;
+import pieces.PieceType;
 
 public class Board {
-  private static final Set<Integer> ROWS = ImmutableSet.of(1, 2, 3, 4, 5, 6, 7, 8);
-  private static final BiMap<String, Integer> COLUMNS = ImmutableBiMap.<String, Integer>builder().put("a", 1).put("b", 2).put("c", 3).put("d", 4).put("e", 5).put("f", 6).put("g", 7).put("h", 8).build();
-  private static final Player WHITE_PLAYER = new Player(PieceColor.WHITE);
-  private static final Player BLACK_PLAYER = new Player(PieceColor.BLACK);
-  private static final Map<PieceColor, Player> COLOR_TO_PLAYER = ImmutableMap.of(PieceColor.WHITE, WHITE_PLAYER, PieceColor.BLACK, BLACK_PLAYER);
-  private static final Map<PieceColor, Player> COLOR_TO_OPPONENT = ImmutableMap.of(PieceColor.WHITE, BLACK_PLAYER, PieceColor.BLACK, WHITE_PLAYER);
-
-  private final Map<Coordinate, Piece> piecePositionMap = new HashMap<>();
+  // Undo record layout: bits 0-19 the move, bits 20-26 previous en passant square + 1,
+  // bits 27-30 previous castling rights
+  private static final long UNDO_MOVE_MASK = (1L << 20) - 1;
+  private static final int UNDO_EN_PASSANT_SHIFT = 20;
+  private static final int UNDO_CASTLING_SHIFT = 27;
+  private static final int INITIAL_UNDO_CAPACITY = 64;
+
+  static final int WHITE_KINGSIDE_CASTLE = 1;
+  static final int WHITE_QUEENSIDE_CASTLE = 2;
+  static final int BLACK_KINGSIDE_CASTLE = 4;
+  static final int BLACK_QUEENSIDE_CASTLE = 8;
+  static final int ALL_CASTLING_RIGHTS = 15;
+  // King and rook home squares; castling rights can only change when a move starts or ends on one
+  private static final long CASTLING_SQUARES = 1L | 1L << 4 | 1L << 7 | 1L << 56 | 1L << 60 | 1L << 63;
+  // Rights that survive a move from or to each square
+  private static final int[] CASTLING_RIGHTS_KEPT = new int[64];
+
+  static {
+    Arrays.fill(CASTLING_RIGHTS_KEPT, ALL_CASTLING_RIGHTS);
+    CASTLING_RIGHTS_KEPT[0] = ~WHITE_QUEENSIDE_CASTLE;
+    CASTLING_RIGHTS_KEPT[4] = ~(WHITE_KINGSIDE_CASTLE | WHITE_QUEENSIDE_CASTLE);
+    CASTLING_RIGHTS_KEPT[7] = ~WHITE_KINGSIDE_CASTLE;
+    CASTLING_RIGHTS_KEPT[56] = ~BLACK_QUEENSIDE_CASTLE;
+    CASTLING_RIGHTS_KEPT[60] = ~(BLACK_KINGSIDE_CASTLE | BLACK_QUEENSIDE_CASTLE);
+    CASTLING_RIGHTS_KEPT[63] = ~BLACK_KINGSIDE_CASTLE;
+  }
+
+  private final Position position;
   private PieceColor currentTurnPieceColor = PieceColor.WHITE;
-  private Coordinate enPassantTarget = null; // square behind a pawn that just double-moved
+  private int enPassantSquare = -1; // square behind a pawn that just double-moved
+  private int castlingRights; // combination of the *_CASTLE bits
+  // Allocated on first use, so boards that are only loaded and stored stay small
+  private int[] moveBuffer;
+  private long zobristKey;
+
+  private long[] undoRecords = new long[0];
+  private long[] undoKeys = new long[0];
+  private Piece[] undoMovedPieces = new Piece[0];
+  private Piece[] undoCapturedPieces = new Piece[0];
+  private int undoCount = 0;
 
 
   public Board() {
+    position = new Position();
     initializePieces();
+    castlingRights = ALL_CASTLING_RIGHTS;
+    zobristKey = computeZobristKey();
+  }
+
+  private Board(Position position) {
+    this.position = position;
+  }
+
+  /**
+   * Copy the position, side to move, castling rights and en passant target of another board into an
+   * independent board; the move history is not copied.
+   */
+  public Board(Board other) {
+    position = new Position(other.position);
+    currentTurnPieceColor = other.currentTurnPieceColor;
+    enPassantSquare = other.enPassantSquare;
+    castlingRights = other.castlingRights;
+    zobristKey = other.zobristKey;
   }
 
   public ImmutableMoveResult movePiece(Coordinate currentPosition, Coordinate targetPosition) {
     ImmutableMoveResult.Builder moveResult = ImmutableMoveResult.builder();
-    Piece piece = getPieceAtCoordinate(currentPosition);
-    Set<Coordinate> potentialMoves = getPotentialMoves(piece, currentPosition, piecePositionMap);
-    if (!potentialMoves.contains(targetPosition)) {
+    getPieceAtCoordinate(currentPosition);
+    int move = findMove(Position.toSquare(currentPosition), Position.toSquare(targetPosition));
+    if (move == Move.NONE) {
       throw new RuntimeException("Not valid move");
     }
-    Optional<Piece> takenPieceMaybe = executePieceMove(currentPosition, targetPosition, piece, piecePositionMap);
-
-    // En passant capture: remove the opponent's pawn that was passed
-    if (piece instanceof Pawn && targetPosition.equals(enPassantTarget)) {
-      Coordinate capturedPawnPos = new Coordinate(targetPosition.getColumn(), currentPosition.getRow());
-      Piece capturedPawn = piecePositionMap.remove(capturedPawnPos);
-      if (capturedPawn != null) {
-        takenPieceMaybe = Optional.of(capturedPawn);
-      }
-    }
-
-    // Track en passant target: if a pawn double-moves, record the square it skipped
-    if (piece instanceof Pawn && Math.abs(targetPosition.getRow() - currentPosition.getRow()) == 2) {
-      int skippedRow = (currentPosition.getRow() + targetPosition.getRow()) / 2;
-      enPassantTarget = new Coordinate(currentPosition.getColumn(), skippedRow);
-    } else {
-      enPassantTarget = null;
-    }
-
-    // If this was a castling move, also move the rook
-    if (piece instanceof King && Math.abs(COLUMNS.get(targetPosition.getColumn()) - COLUMNS.get(currentPosition.getColumn())) == 2) {
-      int direction = COLUMNS.get(targetPosition.getColumn()) > COLUMNS.get(currentPosition.getColumn()) ? 1 : -1;
-      int rookCol = direction == 1 ? 8 : 1;
-      Coordinate rookFrom = new Coordinate(COLUMNS.inverse().get(rookCol), currentPosition.getRow());
-      Coordinate rookTo = new Coordinate(incrementAndGetColumn(currentPosition, direction), currentPosition.getRow());
-      Piece rook = piecePositionMap.remove(rookFrom);
-      piecePositionMap.put(rookTo, rook);
-      rook.setHasMoved(true);
-    }
-
-    // Pawn promotion: replace pawn with queen when it reaches the back rank
-    if (piece instanceof Pawn) {
-      int promotionRank = piece.getColor() == PieceColor.WHITE ? 8 : 1;
-      if (targetPosition.getRow() == promotionRank) {
-        Queen promotedQueen = new Queen(piece.getColor());
-        promotedQueen.setHasMoved(true);
-        piecePositionMap.put(targetPosition, promotedQueen);
-        piece = promotedQueen;
-      }
-    }
-
-    if (moveExposesCheck(piecePositionMap)) {
-      undoPieceMove(currentPosition, targetPosition, piece, takenPieceMaybe);
+    PieceColor mover = currentTurnPieceColor;
+    makeMove(move);
+    if (isInCheck(mover)) {
+      unmakeMove();
       throw new RuntimeException("Move exposes check on the king");
     }
-    if (moveCausesCheck()) {
+    if (isInCheck(currentTurnPieceColor)) {
       moveResult.isCheck(true);
-      if (moveCausesCheckMate()) {
+      if (hasNoLegalMoves()) {
         moveResult.isCheckmate(true);
       }
-    } else if (opponentHasNoLegalMoves()) {
+    } else if (hasNoLegalMoves()) {
       moveResult.isStalemate(true);
     }
-    piece.setHasMoved(true);
-    endTurn();
 
-    return moveResult.pieceMoved(piece)
+    return moveResult.pieceMoved(position.get(Move.to(move)))
         .isSuccess(true)
         .originalPieceLocation(currentPosition)
         .newPieceLocation(targetPosition)
-        .pieceTakenMaybe(takenPieceMaybe)
+        .pieceTakenMaybe(Optional.ofNullable(undoCapturedPieces[undoCount - 1]))
         .build();
   }
 
-  private Optional<Piece> executePieceMove(Coordinate currentPosition, Coordinate targetPosition, Piece piece, Map<Coordinate, Piece> piecePositionMapToUpdate) {
-    piecePositionMapToUpdate.remove(currentPosition);
-    Optional<Piece> takenPieceMaybe = Optional.ofNullable(piecePositionMapToUpdate.remove(targetPosition));
-    piecePositionMapToUpdate.put(targetPosition, piece);
-    if (piece instanceof King) {
-      COLOR_TO_PLAYER.get(currentTurnPieceColor).setKingPosition(targetPosition);
+  /**
+   * Find the pseudo-legal move between two squares for the side to move, promoting to a queen.
+   * @return the move, or {@link Move#NONE} if the piece cannot move there
+   */
+  private int findMove(int fromSquare, int toSquare) {
+    int[] moveBuffer = getMoveBuffer();
+    int count = MoveGenerator.generatePseudoLegalMoves(this, fromSquare, moveBuffer, 0);
+    for (int i = 0; i < count; i++) {
+      int move = moveBuffer[i];
+      if (Move.to(move) == toSquare && (!Move.isPromotion(move) || Move.getPromotion(move) == PieceType.QUEEN)) {
+        return move;
+      }
     }
-    return takenPieceMaybe;
+    return Move.NONE;
   }
 
-  private void undoPieceMove(Coordinate currentPosition, Coordinate targetPosition, Piece piece, Optional<Piece> takenPieceMaybe) {
-    piecePositionMap.remove(targetPosition);
-    piecePositionMap.put(currentPosition, piece);
-    takenPieceMaybe.ifPresent(takenPiece -> piecePositionMap.put(targetPosition, takenPiece));
-    if (piece instanceof King) {
-      COLOR_TO_PLAYER.get(currentTurnPieceColor).setKingPosition(currentPosition);
+  /**
+   * Play a move in place and push what is needed to take it back onto the undo stack.
+   * The move must be pseudo-legal for the side to move, e.g. one produced by {@link MoveGenerator}.
+   * @throws IllegalArgumentException if an en passant capture has no pawn to capture; the board is unchanged
+   */
+  public void makeMove(int move) {
+    int from = Move.from(move);
+    int to = Move.to(move);
+    Piece piece = position.get(from);
+    // Checked before anything changes, so a bad en passant target cannot leave the board half moved
+    if (Move.isEnPassant(move) && position.get(Position.square(Position.file(to), Position.rank(from))) == null) {
+      throw new IllegalArgumentException("No pawn to capture en passant in " + Move.toString(move));
     }
-  }
-
-  private boolean moveExposesCheck(Map<Coordinate, Piece> currentPiecePositionMap) {
-    Player player = COLOR_TO_PLAYER.get(currentTurnPieceColor);
-    return moveResultsInCheck(player.getColor(), currentPiecePositionMap, player.getKingPosition());
-  }
-
-  private boolean moveCausesCheck() {
-    Player player = COLOR_TO_OPPONENT.get(currentTurnPieceColor);
-    return moveResultsInCheck(player.getColor(), piecePositionMap, player.getKingPosition());
-  }
-
-  private boolean moveCausesCheckMate() {
-    return opponentHasNoLegalMoves();
-  }
-
-  private boolean opponentHasNoLegalMoves() {
-    Player opponent = COLOR_TO_OPPONENT.get(currentTurnPieceColor);
-    Multimap<Entry<Coordinate, Piece>, Coordinate> opponentPotentialMovesByPiece = piecePositionMap.entrySet().stream()
-        .filter(entry -> entry.getValue().getColor() == opponent.getColor())
-        .collect(Multimaps.flatteningToMultimap(entry -> entry,
-            entry -> getPotentialMoves(entry.getValue(), entry.getKey(), piecePositionMap).stream(),
-            HashMultimap::create));
-
-    for (Entry<Entry<Coordinate, Piece>, Coordinate> entry : opponentPotentialMovesByPiece.entries()) {
-      Map<Coordinate, Piece> potentialPiecePositionMap = new HashMap<>(piecePositionMap);
-      potentialPiecePositionMap.remove(entry.getKey().getKey());
-      potentialPiecePositionMap.remove(entry.getValue());
-      potentialPiecePositionMap.put(entry.getValue(), entry.getKey().getValue());
-      Coordinate currentKingPosition = entry.getKey().getValue() instanceof King ? entry.getValue() : opponent.getKingPosition();
-      if (!moveResultsInCheck(opponent.getColor(), potentialPiecePositionMap, currentKingPosition)) {
-        return false;
-      }
+    long undoRecord = move | ((long) (enPassantSquare + 1) << UNDO_EN_PASSANT_SHIFT)
+        | ((long) castlingRights << UNDO_CASTLING_SHIFT);
+    boolean affectsCastling = ((CASTLING_SQUARES >>> from | CASTLING_SQUARES >>> to) & 1) != 0;
+    long key = zobristKey ^ Zobrist.enPassant(enPassantSquare) ^ Zobrist.piece(piece, from);
+    if (affectsCastling) {
+      key ^= Zobrist.castling(castlingRights);
+      castlingRights &= CASTLING_RIGHTS_KEPT[from] & CASTLING_RIGHTS_KEPT[to];
+      key ^= Zobrist.castling(castlingRights);
     }
-    return true;
-  }
 
-  private boolean moveResultsInCheck(PieceColor pieceColor, Map<Coordinate, Piece> currentPositionMap, Coordinate currentKingPosition) {
-    Set<Coordinate> opponentPotentialMoves = currentPositionMap.entrySet().stream()
-        .filter(entry -> entry.getValue().getColor() == COLOR_TO_OPPONENT.get(pieceColor).getColor())
-        .map(entry -> getPotentialMoves(entry.getValue(), entry.getKey(), currentPositionMap))
-        .flatMap(Collection::stream)
-        .collect(Collectors.toSet());
-    return opponentPotentialMoves.contains(currentKingPosition);
-  }
-
-  @VisibleForTesting
-  Set<Coordinate> getPotentialMoves(Piece piece, Coordinate currentPosition, Map<Coordinate, Piece> currentPiecePositionMap) {
-    Set<Coordinate> potentialMoves = new HashSet<>();
-    for (MovementOption movementOption : piece.getMovementOptions()) {
-      Coordinate startingPosition = currentPosition;
-      Coordinate potentialMove;
-      boolean potentialMoveOnBoard;
-      boolean potentialMoveOccupied;
-      do {
-        potentialMove = new Coordinate(COLUMNS.inverse().get(COLUMNS.get(startingPosition.getColumn()) + movementOption.getXMotion()), startingPosition.getRow() + movementOption.getYMotion());
-        potentialMoveOnBoard = isOnBoard(potentialMove);
-        potentialMoveOccupied = isOccupied(potentialMove, currentPiecePositionMap);
-        if (!potentialMoveOnBoard) {
-          continue;
-        }
-        if (movementOption.isRequiresTake() && (!potentialMoveOccupied || !canTake(piece, currentPiecePositionMap.get(potentialMove)))) {
-          continue;
-        }
-        if (potentialMoveOccupied && canTake(piece, currentPiecePositionMap.get(potentialMove))) {
-          potentialMoves.add(potentialMove);
-        } else if (!potentialMoveOccupied) {
-          potentialMoves.add(potentialMove);
-        }
-        startingPosition = potentialMove;
-      } while (movementOption.isRepeating() && !potentialMoveOccupied && potentialMoveOnBoard);
-    }
-    // En passant
-    if (piece instanceof Pawn && enPassantTarget != null) {
-      int colDiff = Math.abs(COLUMNS.get(enPassantTarget.getColumn()) - COLUMNS.get(currentPosition.getColumn()));
-      int expectedRow = piece.getColor() == PieceColor.WHITE ? 5 : 4; // en passant capture rank
-      if (colDiff == 1 && currentPosition.getRow() == expectedRow
-          && enPassantTarget.getRow() == (piece.getColor() == PieceColor.WHITE ? 6 : 3)) {
-        potentialMoves.add(enPassantTarget);
+    position.remove(from);
+    Piece captured;
+    if (Move.isEnPassant(move)) {
+      int capturedSquare = Position.square(Position.file(to), Position.rank(from));
+      captured = position.remove(capturedSquare);
+      key ^= Zobrist.piece(captured, capturedSquare);
+      position.put(to, piece);
+    } else {
+      captured = position.put(to, piece);
+      if (captured != null) {
+        key ^= Zobrist.piece(captured, to);
       }
     }
 
-    // Castling
-    if (canCastle(currentPosition, piece, currentPiecePositionMap, 1)) {
-      potentialMoves.add(new Coordinate(incrementAndGetColumn(currentPosition, 2), currentPosition.getRow()));
+    // Castling also moves the rook to the square the king crossed
+    if (Move.isCastle(move)) {
+      int rookFrom = castlingRookSquare(from, to);
+      Piece rook = position.remove(rookFrom);
+      position.put((from + to) / 2, rook);
+      key ^= Zobrist.piece(rook, rookFrom) ^ Zobrist.piece(rook, (from + to) / 2);
     }
-    if (canCastle(currentPosition, piece, currentPiecePositionMap, -1)) {
-      potentialMoves.add(new Coordinate(incrementAndGetColumn(currentPosition, -2), currentPosition.getRow()));
+
+    if (Move.isPromotion(move)) {
+      position.put(to, Piece.of(Move.getPromotion(move), piece.getColor()));
     }
+    enPassantSquare = Move.isDoublePush(move) ? (from + to) / 2 : -1;
 
-    return potentialMoves;
+    // XOR-ing the black-to-move key flips the side to move either way
+    key ^= Zobrist.piece(position.get(to), to) ^ Zobrist.enPassant(enPassantSquare) ^ Zobrist.sideToMove(PieceColor.BLACK);
+    pushUndo(undoRecord, zobristKey, piece, captured);
+    zobristKey = key;
+    endTurn();
   }
 
   /**
-   * Check if castling is legal in the given direction.
-   * @param direction 1 for kingside, -1 for queenside
+   * Take back the last move made with {@link #makeMove(int)}, restoring pieces, castling rights,
+   * the en passant target and the side to move.
    */
-  private boolean canCastle(Coordinate kingPos, Piece piece, Map<Coordinate, Piece> positionMap, int direction) {
-    if (!isKingAndHasNotMoved(piece)) {
-      return false;
+  public void unmakeMove() {
+    if (undoCount == 0) {
+      throw new IllegalStateException("No move to undo");
     }
+    undoCount--;
+    long undoRecord = undoRecords[undoCount];
+    Piece piece = undoMovedPieces[undoCount];
+    Piece captured = undoCapturedPieces[undoCount];
+    undoMovedPieces[undoCount] = null;
+    undoCapturedPieces[undoCount] = null;
+    zobristKey = undoKeys[undoCount];
+    int move = (int) (undoRecord & UNDO_MOVE_MASK);
+    int from = Move.from(move);
+    int to = Move.to(move);
+    endTurn();
 
-    // Find the rook position: h-file (col 8) for kingside, a-file (col 1) for queenside
-    int rookCol = direction == 1 ? 8 : 1;
-    Coordinate rookPos = new Coordinate(COLUMNS.inverse().get(rookCol), kingPos.getRow());
-    Piece rookPiece = positionMap.get(rookPos);
-    if (rookPiece == null || !isRookAndHasNotMoved(rookPiece)) {
-      return false;
+    if (Move.isCastle(move)) {
+      Piece rook = position.remove((from + to) / 2);
+      position.put(castlingRookSquare(from, to), rook);
     }
 
-    // Check all squares between king and rook are empty
-    int kingCol = COLUMNS.get(kingPos.getColumn());
-    int startCol = Math.min(kingCol, rookCol) + 1;
-    int endCol = Math.max(kingCol, rookCol);
-    for (int col = startCol; col < endCol; col++) {
-      Coordinate between = new Coordinate(COLUMNS.inverse().get(col), kingPos.getRow());
-      if (isOccupied(between, positionMap)) {
-        return false;
-      }
+    position.remove(to);
+    position.put(from, piece);
+    if (captured != null) {
+      position.put(Move.isEnPassant(move) ? Position.square(Position.file(to), Position.rank(from)) : to, captured);
     }
+    enPassantSquare = (int) (undoRecord >>> UNDO_EN_PASSANT_SHIFT & 0x7f) - 1;
+    castlingRights = (int) (undoRecord >>> UNDO_CASTLING_SHIFT & ALL_CASTLING_RIGHTS);
+  }
 
-    // King must not currently be in check
-    if (moveResultsInCheck(piece.getColor(), positionMap, kingPos)) {
-      return false;
+  /**
+   * @return the moves made since the board was set up and not taken back, oldest first, in {@link Move} encoding
+   */
+  public List<Integer> getMoveHistory() {
+    ImmutableList.Builder<Integer> moves = ImmutableList.builderWithExpectedSize(undoCount);
+    for (int i = 0; i < undoCount; i++) {
+      moves.add((int) (undoRecords[i] & UNDO_MOVE_MASK));
     }
+    return moves.build();
+  }
+
+  /**
+   * @return the last move made and not taken back, or {@link Move#NONE}
+   */
+  int getLastMove() {
+    return undoCount == 0 ? Move.NONE : (int) (undoRecords[undoCount - 1] & UNDO_MOVE_MASK);
+  }
+
+  private static int castlingRookSquare(int kingFrom, int kingTo) {
+    return Position.square(kingTo > kingFrom ? 7 : 0, Position.rank(kingFrom));
+  }
 
-    // King must not pass through check (the square it crosses)
-    Coordinate throughSquare = new Coordinate(incrementAndGetColumn(kingPos, direction), kingPos.getRow());
-    Map<Coordinate, Piece> throughMap = Maps.newHashMap(positionMap);
-    throughMap.remove(kingPos);
-    throughMap.put(throughSquare, piece);
-    if (moveResultsInCheck(piece.getColor(), throughMap, throughSquare)) {
-      return false;
+  private void pushUndo(long undoRecord, long key, Piece piece, Piece captured) {
+    if (undoCount == undoRecords.length) {
+      int capacity = Math.max(INITIAL_UNDO_CAPACITY, undoRecords.length * 2);
+      undoRecords = Arrays.copyOf(undoRecords, capacity);
+      undoKeys = Arrays.copyOf(undoKeys, capacity);
+      undoMovedPieces = Arrays.copyOf(undoMovedPieces, capacity);
+      undoCapturedPieces = Arrays.copyOf(undoCapturedPieces, capacity);
     }
+    undoRecords[undoCount] = undoRecord;
+    undoKeys[undoCount] = key;
+    undoMovedPieces[undoCount] = piece;
+    undoCapturedPieces[undoCount] = captured;
+    undoCount++;
+  }
 
-    // King must not land in check (the destination square)
-    Coordinate destSquare = new Coordinate(incrementAndGetColumn(kingPos, 2 * direction), kingPos.getRow());
-    Map<Coordinate, Piece> destMap = Maps.newHashMap(positionMap);
-    destMap.remove(kingPos);
-    destMap.put(destSquare, piece);
-    if (moveResultsInCheck(piece.getColor(), destMap, destSquare)) {
-      return false;
+  private int[] getMoveBuffer() {
+    if (moveBuffer == null) {
+      moveBuffer = new int[Move.MAX_MOVES];
     }
+    return moveBuffer;
+  }
+
+  private void clearUndoStack() {
+    Arrays.fill(undoMovedPieces, 0, undoCount, null);
+    Arrays.fill(undoCapturedPieces, 0, undoCount, null);
+    undoCount = 0;
+  }
 
-    return true;
+  /**
+   * @return a 64-bit hash of the pieces, side to move, castling rights and en passant file, equal for
+   * equal positions however they were reached; kept up to date incrementally as moves are made and unmade
+   */
+  public long getZobristKey() {
+    return zobristKey;
   }
 
-  private String incrementAndGetColumn(Coordinate coordinate, int increment) {
-    return COLUMNS.inverse().get(COLUMNS.get(coordinate.getColumn()) + increment);
+  /**
+   * @return the castling rights as a combination of the {@code *_CASTLE} bits; a right is lost once its king
+   * or rook moves or the rook is captured
+   */
+  int getCastlingRights() {
+    return castlingRights;
   }
 
-  private boolean isKingAndHasNotMoved(Piece piece) {
-    return piece instanceof King && !piece.getHasMoved();
+  /**
+   * @return the castling rights whose king and rook stand on their home squares in the position
+   */
+  static int possibleCastlingRights(Position position) {
+    int rights = 0;
+    for (PieceColor color : PieceColor.values()) {
+      int homeRank = color.getStartRow() - 1;
+      if (position.get(Position.square(4, homeRank)) != Piece.of(PieceType.KING, color)) {
+        continue;
+      }
+      boolean white = color == PieceColor.WHITE;
+      Piece rook = Piece.of(PieceType.ROOK, color);
+      if (position.get(Position.square(7, homeRank)) == rook) {
+        rights |= white ? WHITE_KINGSIDE_CASTLE : BLACK_KINGSIDE_CASTLE;
+      }
+      if (position.get(Position.square(0, homeRank)) == rook) {
+        rights |= white ? WHITE_QUEENSIDE_CASTLE : BLACK_QUEENSIDE_CASTLE;
+      }
+    }
+    return rights;
   }
 
-  private boolean isRookAndHasNotMoved(Piece piece) {
-    return piece instanceof Rook && !piece.getHasMoved();
+  /**
+   * @return whether the piece on the square may still have its first move: a pawn on its start rank, or a
+   * king or rook on a home square that a castling right refers to
+   */
+  private boolean isUnmoved(int square, Piece piece) {
+    switch (piece.getType()) {
+      case PAWN:
+        return Position.rank(square) == piece.getColor().getPawnRow() - 1;
+      case KING:
+      case ROOK:
+        return (castlingRights & ~CASTLING_RIGHTS_KEPT[square]) != 0;
+      default:
+        return false;
+    }
   }
 
-  private boolean canTake(Piece piece, Piece pieceToTake) {
-    return piece.getColor() != pieceToTake.getColor();
+  private long computeZobristKey() {
+    return Zobrist.compute(position, currentTurnPieceColor, getCastlingRights(), enPassantSquare);
   }
 
-  private boolean isOnBoard(Coordinate coordinate) {
-    return COLUMNS.containsKey(coordinate.getColumn()) && ROWS.contains(coordinate.getRow());
+  boolean isInCheck(PieceColor color) {
+    int kingSquare = position.getKingSquare(color);
+    return kingSquare >= 0 && position.isAttacked(kingSquare, color.opposite());
   }
 
-  private boolean isOccupied(Coordinate coordinate, Map<Coordinate, Piece> currentPiecePositionMap) {
-    return currentPiecePositionMap.containsKey(coordinate);
+  /**
+   * @return whether the side to move has no legal move, i.e. is checkmated or stalemated
+   */
+  boolean hasNoLegalMoves() {
+    return !MoveGenerator.hasLegalMove(this, currentTurnPieceColor, getMoveBuffer());
+  }
+
+  @VisibleForTesting
+  Set<Coordinate> getPotentialMoves(Piece piece, Coordinate currentPosition, Map<Coordinate, Piece> currentPiecePositionMap) {
+    Board scratch = new Board(Position.of(currentPiecePositionMap));
+    scratch.currentTurnPieceColor = piece.getColor();
+    scratch.enPassantSquare = enPassantSquare;
+    int square = Position.toSquare(currentPosition);
+    scratch.position.put(square, piece);
+    scratch.castlingRights = possibleCastlingRights(scratch.position);
+
+    Set<Coordinate> potentialMoves = new HashSet<>();
+    int[] moves = scratch.getMoveBuffer();
+    int count = MoveGenerator.generatePseudoLegalMoves(scratch, square, moves, 0);
+    for (int i = 0; i < count; i++) {
+      potentialMoves.add(Position.toCoordinate(Move.to(moves[i])));
+    }
+    return potentialMoves;
   }
 
   private Piece getPieceAtCoordinate(Coordinate coordinate) {
-    if (!isOccupied(coordinate, piecePositionMap)) {
+    Piece piece = position.get(Position.toSquare(coordinate));
+    if (piece == null) {
       throw new RuntimeException("No piece at coordinate");
     } else {
-      Piece piece = piecePositionMap.get(coordinate);
-      if (piecePositionMap.get(coordinate).getColor() != currentTurnPieceColor) {
+      if (piece.getColor() != currentTurnPieceColor) {
         throw new RuntimeException(String.format("Piece is not owned by %s", currentTurnPieceColor));
       }
       return piece;
@@ -327,68 +379,90 @@ public class Board {
   }
 
   private void initializePawns(PieceColor pieceColor) {
-    for (String column : COLUMNS.keySet()) {
-      piecePositionMap.put(new Coordinate(column, pieceColor.getPawnRow()), new Pawn(pieceColor));
+    for (int file = 0; file < 8; file++) {
+      position.put(Position.square(file, pieceColor.getPawnRow() - 1), Piece.of(PieceType.PAWN, pieceColor));
     }
   }
 
   private void initializeRooks(PieceColor pieceColor) {
-    piecePositionMap.put(new Coordinate("a", pieceColor.getStartRow()), new Rook(pieceColor));
-    piecePositionMap.put(new Coordinate("h", pieceColor.getStartRow()), new Rook(pieceColor));
+    position.put(Position.square(0, pieceColor.getStartRow() - 1), Piece.of(PieceType.ROOK, pieceColor));
+    position.put(Position.square(7, pieceColor.getStartRow() - 1), Piece.of(PieceType.ROOK, pieceColor));
   }
 
   private void initializeKnights(PieceColor pieceColor) {
-    piecePositionMap.put(new Coordinate("b", pieceColor.getStartRow()), new Knight(pieceColor));
-    piecePositionMap.put(new Coordinate("g", pieceColor.getStartRow()), new Knight(pieceColor));
+    position.put(Position.square(1, pieceColor.getStartRow() - 1), Piece.of(PieceType.KNIGHT, pieceColor));
+    position.put(Position.square(6, pieceColor.getStartRow() - 1), Piece.of(PieceType.KNIGHT, pieceColor));
   }
 
   private void initializeBishops(PieceColor pieceColor) {
-    piecePositionMap.put(new Coordinate("c", pieceColor.getStartRow()), new Bishop(pieceColor));
-    piecePositionMap.put(new Coordinate("f", pieceColor.getStartRow()), new Bishop(pieceColor));
+    position.put(Position.square(2, pieceColor.getStartRow() - 1), Piece.of(PieceType.BISHOP, pieceColor));
+    position.put(Position.square(5, pieceColor.getStartRow() - 1), Piece.of(PieceType.BISHOP, pieceColor));
   }
 
   private void initializeQueens(PieceColor pieceColor) {
-    piecePositionMap.put(new Coordinate("d", pieceColor.getStartRow()), new Queen(pieceColor));
+    position.put(Position.square(3, pieceColor.getStartRow() - 1), Piece.of(PieceType.QUEEN, pieceColor));
   }
 
   private void initializeKings(PieceColor pieceColor) {
-    piecePositionMap.put(new Coordinate("e", pieceColor.getStartRow()), new King(pieceColor));
+    position.put(Position.square(4, pieceColor.getStartRow() - 1), Piece.of(PieceType.KING, pieceColor));
   }
 
   private void endTurn() {
     currentTurnPieceColor = currentTurnPieceColor == PieceColor.WHITE ? PieceColor.BLACK : PieceColor.WHITE;
   }
 
+  Position getPosition() {
+    return position;
+  }
+
+  PieceColor getCurrentTurn() {
+    return currentTurnPieceColor;
+  }
+
+  /**
+   * @return the en passant target as a square index, or -1 if there is none
+   */
+  int getEnPassantSquare() {
+    return enPassantSquare;
+  }
+
   @VisibleForTesting
   Piece getPieceAt(Coordinate coordinate) {
-    return piecePositionMap.get(coordinate);
+    return position.get(Position.toSquare(coordinate));
   }
 
   @VisibleForTesting
   void clearAndSetPieces(Map<Coordinate, Piece> pieces) {
-    piecePositionMap.clear();
-    piecePositionMap.putAll(pieces);
-    // Update king positions
+    position.clear();
+    clearUndoStack();
     for (Map.Entry<Coordinate, Piece> entry : pieces.entrySet()) {
-      if (entry.getValue() instanceof King) {
-        COLOR_TO_PLAYER.get(entry.getValue().getColor()).setKingPosition(entry.getKey());
-      }
+      position.put(Position.toSquare(entry.getKey()), entry.getValue());
     }
+    castlingRights = possibleCastlingRights(position);
+    zobristKey = computeZobristKey();
+  }
+
+  @VisibleForTesting
+  void setCastlingRights(int rights) {
+    castlingRights = rights & possibleCastlingRights(position);
+    zobristKey = computeZobristKey();
   }
 
   @VisibleForTesting
   void setCurrentTurn(PieceColor color) {
     currentTurnPieceColor = color;
+    zobristKey = computeZobristKey();
   }
 
   @VisibleForTesting
   void setEnPassantTarget(Coordinate target) {
-    enPassantTarget = target;
+    enPassantSquare = target == null ? -1 : Position.toSquare(target);
+    zobristKey = computeZobristKey();
   }
 
   @VisibleForTesting
   Coordinate getEnPassantTarget() {
-    return enPassantTarget;
+    return enPassantSquare < 0 ? null : Position.toCoordinate(enPassantSquare);
   }
 
   /**
@@ -398,17 +472,20 @@ public class Board {
   public String serialize() {
     StringBuilder sb = new StringBuilder();
     sb.append("turn:").append(currentTurnPieceColor.name()).append('\n');
-    if (enPassantTarget != null) {
-      sb.append("enpassant:").append(enPassantTarget).append('\n');
+    if (enPassantSquare >= 0) {
+      sb.append("enpassant:").append(Position.toCoordinate(enPassantSquare)).append('\n');
     } else {
       sb.append("enpassant:none").append('\n');
     }
-    for (Map.Entry<Coordinate, Piece> entry : piecePositionMap.entrySet()) {
-      Piece piece = entry.getValue();
-      sb.append(entry.getKey())
+    for (int square = 0; square < 64; square++) {
+      Piece piece = position.get(square);
+      if (piece == null) {
+        continue;
+      }
+      sb.append(Position.toCoordinate(square))
           .append(':').append(piece.getClass().getSimpleName())
           .append(':').append(piece.getColor().name())
-          .append(':').append(piece.getHasMoved())
+          .append(':').append(!isUnmoved(square, piece))
           .append('\n');
     }
     return sb.toString();
@@ -418,8 +495,9 @@ public class Board {
    * Deserialize a board state from a string produced by serialize().
    */
   public static Board deserialize(String data) {
-    Board board = new Board();
+    Board board = new Board(new Position());
     Map<Coordinate, Piece> pieces = new HashMap<>();
+    long unmoved = 0L;
     PieceColor turn = PieceColor.WHITE;
     Coordinate epTarget = null;
 
@@ -437,27 +515,83 @@ public class Board {
         Coordinate coord = Coordinate.from(parts[0]);
         String pieceType = parts[1];
         PieceColor color = PieceColor.valueOf(parts[2]);
-        boolean hasMoved = Boolean.parseBoolean(parts[3]);
-        Piece piece = createPiece(pieceType, color);
-        piece.setHasMoved(hasMoved);
-        pieces.put(coord, piece);
+        if (!Boolean.parseBoolean(parts[3])) {
+          unmoved |= 1L << Position.toSquare(coord);
+        }
+        pieces.put(coord, createPiece(pieceType, color));
       }
     }
 
     board.clearAndSetPieces(pieces);
+    // A right needs both its king and its rook to be unmoved
+    int rights = ALL_CASTLING_RIGHTS;
+    for (int square = 0; square < 64; square++) {
+      if ((unmoved & 1L << square) == 0) {
+        rights &= CASTLING_RIGHTS_KEPT[square];
+      }
+    }
+    board.castlingRights &= rights;
     board.setCurrentTurn(turn);
     board.setEnPassantTarget(epTarget);
     return board;
   }
 
+  /**
+   * Build a board from a FEN record; see {@link Fen#parse(CharSequence, int, int)}.
+   */
+  public static Board fromFen(CharSequence fen) {
+    return Fen.parse(fen, 0, fen.length());
+  }
+
+  /**
+   * Build a board from the FEN record in {@code fen[start, end)}, e.g. one line of a larger text.
+   */
+  public static Board fromFen(CharSequence fen, int start, int end) {
+    return Fen.parse(fen, start, end);
+  }
+
+  /**
+   * Build a board from the ASCII FEN record in {@code length} bytes of {@code buffer} from {@code offset},
+   * reading the buffer in place without changing its position.
+   */
+  public static Board fromFen(ByteBuffer buffer, int offset, int length) {
+    return Fen.parse(buffer, offset, length);
+  }
+
+  /**
+   * @return this position as a FEN record; the move counters are always "0 1" since no move history is kept
+   */
+  public String toFen() {
+    return appendFen(new StringBuilder(90)).toString();
+  }
+
+  /**
+   * Append this position as a FEN record, to build many records without intermediate strings.
+   */
+  public StringBuilder appendFen(StringBuilder sb) {
+    return Fen.append(this, sb);
+  }
+
+  /**
+   * Wrap a fully placed position. Castling rights whose king or rook is not on its home square are dropped.
+   */
+  static Board of(Position position, PieceColor turn, int castlingRights, int enPassantSquare) {
+    Board board = new Board(position);
+    board.currentTurnPieceColor = turn;
+    board.enPassantSquare = enPassantSquare;
+    board.castlingRights = castlingRights & possibleCastlingRights(position);
+    board.zobristKey = board.computeZobristKey();
+    return board;
+  }
+
   private static Piece createPiece(String type, PieceColor color) {
     switch (type) {
-      case "King": return new King(color);
-      case "Queen": return new Queen(color);
-      case "Rook": return new Rook(color);
-      case "Bishop": return new Bishop(color);
-      case "Knight": return new Knight(color);
-      case "Pawn": return new Pawn(color);
+      case "King": return Piece.of(PieceType.KING, color);
+      case "Queen": return Piece.of(PieceType.QUEEN, color);
+      case "Rook": return Piece.of(PieceType.ROOK, color);
+      case "Bishop": return Piece.of(PieceType.BISHOP, color);
+      case "Knight": return Piece.of(PieceType.KNIGHT, color);
+      case "Pawn": return Piece.of(PieceType.PAWN, color);
       default: throw new IllegalArgumentException("Unknown piece type: " + type);
     }
   }
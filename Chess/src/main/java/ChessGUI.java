@@ -139,7 +139,7 @@ public class ChessGUI {
         final int row = chessBoardSquares[ii].length - ii;
         JButton b = new JButton();
         b.setMargin(buttonMargin);
-        b.addActionListener(e -> makeMove(new Coordinate(column, row), b));
+        b.addActionListener(e -> makeMove(Coordinate.of(column, row), b));
         // our chess pieces are 64x64 px in size, so we'll
         // 'fill this in' using a transparent icon..
         ImageIcon icon = new ImageIcon(
@@ -302,7 +302,7 @@ public class ChessGUI {
       int guiCol = COLUMNS.get(colLetter);
       for (int boardRow = 1; boardRow <= 8; boardRow++) {
         int guiRow = 8 - boardRow; // board row 8 = gui row 0, row 1 = gui row 7
-        pieces.Piece piece = board.getPieceAt(new Coordinate(colLetter, boardRow));
+        pieces.Piece piece = board.getPieceAt(Coordinate.of(colLetter, boardRow));
         if (piece != null) {
           int colorIdx = piece.getColor() == pieces.PieceColor.BLACK ? BLACK : WHITE;
           int typeIdx = getPieceImageIndex(piece);
@@ -1,46 +1,96 @@
-import java.util.Objects;
+/**
+ * A square as players name it: a column letter and a 1-based row, e.g. "e4".
+ * There is one instance per square, taken from a 64-entry table, so coordinates compare by identity and
+ * converting to and from the square indexes of {@link Position} is an array lookup.
+ */
+public final class Coordinate {
+  private static final String[] COLUMNS = {"a", "b", "c", "d", "e", "f", "g", "h"};
+  private static final Coordinate[] SQUARES = new Coordinate[64];
 
-public class Coordinate {
-  private final String column;
-  private final int row;
+  static {
+    for (int square = 0; square < 64; square++) {
+      SQUARES[square] = new Coordinate(square);
+    }
+  }
+
+  private final int index;
+  private final String name;
+
+  private Coordinate(int index) {
+    this.index = index;
+    this.name = COLUMNS[index & 7] + ((index >>> 3) + 1);
+  }
+
+  /**
+   * @param square index from 0 for a1 to 63 for h8, as used by {@link Position}
+   */
+  public static Coordinate of(int square) {
+    if (square < 0 || square >= 64) {
+      throw new IllegalArgumentException("Invalid square: " + square);
+    }
+    return SQUARES[square];
+  }
+
+  /**
+   * @param file 0-7 for columns a-h
+   * @param rank 0-7 for rows 1-8
+   */
+  public static Coordinate of(int file, int rank) {
+    if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+      throw new IllegalArgumentException("Invalid coordinate: file " + file + ", rank " + rank);
+    }
+    return SQUARES[rank * 8 + file];
+  }
 
-  public Coordinate(String column, int row) {
-    this.column = column;
-    this.row = row;
+  public static Coordinate of(String column, int row) {
+    if (column.length() != 1) {
+      throw new IllegalArgumentException("Invalid column: " + column);
+    }
+    return of(column.charAt(0) - 'a', row - 1);
   }
 
+  /**
+   * @param coordinateString a column letter and row digit such as "e4"; anything after them is ignored
+   */
   public static Coordinate from(String coordinateString) {
-    return new Coordinate(coordinateString.substring(0, 1), Integer.parseInt(coordinateString.substring(1,2)));
+    if (coordinateString.length() < 2) {
+      throw new IllegalArgumentException("Invalid coordinate: " + coordinateString);
+    }
+    int file = coordinateString.charAt(0) - 'a';
+    int rank = coordinateString.charAt(1) - '1';
+    if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+      throw new IllegalArgumentException("Invalid coordinate: " + coordinateString);
+    }
+    return SQUARES[rank * 8 + file];
+  }
+
+  /**
+   * @return the square index, from 0 for a1 to 63 for h8
+   */
+  public int getIndex() {
+    return index;
   }
 
   public String getColumn() {
-    return column;
+    return COLUMNS[index & 7];
   }
 
   public int getRow() {
-    return row;
+    return (index >>> 3) + 1;
   }
 
   @Override
   public String toString() {
-    return getColumn() + getRow();
+    return name;
   }
 
   @Override
   public boolean equals(Object obj) {
-    if (this == obj) {
-      return true;
-    }
-    if (obj instanceof Coordinate) {
-      final Coordinate that = (Coordinate) obj;
-      return Objects.equals(this.row, that.row) &&
-          Objects.equals(this.column, that.column);
-    }
-    return false;
+    return this == obj;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(column, row);
+    return index;
   }
 }
@@ -0,0 +1,173 @@
+import pieces.Attacks;
+import pieces.PieceColor;
+import pieces.PieceType;
+
+/**
+ * Static evaluation of a position in centipawns: material, piece-square tables, mobility, pawn structure
+ * and king safety.
+ *
+ * Material and piece-square sums are read from {@link Position}, which updates them as pieces are put and
+ * removed, and are blended between their middlegame and endgame values by how much material is left.
+ * Pawn structure depends on the pawns alone and is looked up in a {@link PawnHashTable}; mobility and king
+ * safety are computed from the bitboards and attack map on each call. An evaluator is not thread safe.
+ */
+public final class Evaluator {
+  static final int DEFAULT_PAWN_TABLE_ENTRIES = 16 * 1024;
+
+  private static final int[] MOBILITY_WEIGHTS = {0, 4, 4, 2, 1, 0};
+  private static final int[] KING_ATTACK_WEIGHTS = {0, 2, 2, 3, 5, 0};
+  private static final int MAX_KING_DANGER = 500;
+  private static final int PAWN_SHIELD_BONUS = 10;
+  private static final int DOUBLED_PAWN_PENALTY = 15;
+  private static final int ISOLATED_PAWN_PENALTY = 12;
+  private static final int BACKWARD_PAWN_PENALTY = 8;
+  // By rank counted from the pawn's own side, 1 being its starting rank
+  private static final int[] PASSED_PAWN_BONUS = {0, 5, 10, 20, 35, 60, 100, 0};
+
+  private static final long FILE_A = 0x0101010101010101L;
+  private static final long FILE_H = FILE_A << 7;
+  private static final long[] ADJACENT_FILES = new long[8];
+  // Squares in front of a pawn, on its file and the adjacent ones, that enemy pawns must not occupy for it to be passed
+  private static final long[][] PASSED_PAWN_MASKS = new long[2][64];
+  // Squares beside a pawn and behind it on the adjacent files, from where friendly pawns can support its advance
+  private static final long[][] SUPPORT_MASKS = new long[2][64];
+  // The two ranks in front of a king on its file and the adjacent ones
+  private static final long[][] PAWN_SHIELDS = new long[2][64];
+
+  static {
+    for (int file = 0; file < 8; file++) {
+      ADJACENT_FILES[file] = (file > 0 ? FILE_A << (file - 1) : 0) | (file < 7 ? FILE_A << (file + 1) : 0);
+    }
+    for (int square = 0; square < 64; square++) {
+      int file = Position.file(square);
+      int rank = Position.rank(square);
+      long files = ADJACENT_FILES[file] | FILE_A << file;
+      long above = rank == 7 ? 0 : -1L << ((rank + 1) * 8);
+      long below = (1L << (rank * 8)) - 1;
+      PASSED_PAWN_MASKS[PieceColor.WHITE.ordinal()][square] = files & above;
+      PASSED_PAWN_MASKS[PieceColor.BLACK.ordinal()][square] = files & below;
+      long rankBits = 0xffL << (rank * 8);
+      SUPPORT_MASKS[PieceColor.WHITE.ordinal()][square] = ADJACENT_FILES[file] & (below | rankBits);
+      SUPPORT_MASKS[PieceColor.BLACK.ordinal()][square] = ADJACENT_FILES[file] & (above | rankBits);
+      long twoAbove = rank >= 5 ? above : above & ((1L << ((rank + 3) * 8)) - 1);
+      long twoBelow = rank <= 1 ? below : below & (-1L << ((rank - 2) * 8));
+      PAWN_SHIELDS[PieceColor.WHITE.ordinal()][square] = files & twoAbove;
+      PAWN_SHIELDS[PieceColor.BLACK.ordinal()][square] = files & twoBelow;
+    }
+  }
+
+  private final PawnHashTable pawnTable;
+
+  public Evaluator() {
+    this(new PawnHashTable(DEFAULT_PAWN_TABLE_ENTRIES));
+  }
+
+  public Evaluator(PawnHashTable pawnTable) {
+    this.pawnTable = pawnTable;
+  }
+
+  public PawnHashTable getPawnTable() {
+    return pawnTable;
+  }
+
+  /**
+   * @return the score of the position for the side to move, positive if it is better off
+   */
+  public int evaluate(Board board) {
+    int score = evaluateForWhite(board);
+    return board.getCurrentTurn() == PieceColor.WHITE ? score : -score;
+  }
+
+  /**
+   * @return the score of the position for white, positive if white is better off
+   */
+  public int evaluateForWhite(Board board) {
+    Position position = board.getPosition();
+    int phase = Math.min(position.getPhase(), PieceSquareTables.MAX_PHASE);
+    // King safety only matters while there are pieces left to attack the king with
+    int midgame = position.getMidgameScore() + kingSafety(position, PieceColor.WHITE) - kingSafety(position, PieceColor.BLACK);
+    int endgame = position.getEndgameScore();
+    int score = (midgame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase)) / PieceSquareTables.MAX_PHASE;
+    return score + mobility(position, PieceColor.WHITE) - mobility(position, PieceColor.BLACK)
+        + pawnTable.get(position);
+  }
+
+  /**
+   * Squares the color's knights, bishops, rooks and queens attack that are neither its own nor attacked by an enemy pawn.
+   */
+  private static int mobility(Position position, PieceColor color) {
+    PieceColor enemy = color.opposite();
+    long available = ~position.getOccupancy(color) & ~pawnAttacks(position.getBitboard(enemy, PieceType.PAWN), enemy);
+    long pieces = position.getOccupancy(color) & ~position.getBitboard(color, PieceType.PAWN) & ~position.getBitboard(color, PieceType.KING);
+    int score = 0;
+    while (pieces != 0) {
+      int square = Long.numberOfTrailingZeros(pieces);
+      pieces &= pieces - 1;
+      score += MOBILITY_WEIGHTS[position.get(square).getType().ordinal()] * Long.bitCount(position.getAttacks(square) & available);
+    }
+    return score;
+  }
+
+  /**
+   * Pawns in front of the color's king, less a penalty growing with the square of the enemy attacks around it.
+   */
+  private static int kingSafety(Position position, PieceColor color) {
+    int king = position.getKingSquare(color);
+    if (king < 0) {
+      return 0;
+    }
+    PieceColor enemy = color.opposite();
+    long zone = Attacks.king(king) | 1L << king;
+    long attackers = position.getOccupancy(enemy) & ~position.getBitboard(enemy, PieceType.PAWN) & ~position.getBitboard(enemy, PieceType.KING);
+    int danger = 0;
+    while (attackers != 0) {
+      int square = Long.numberOfTrailingZeros(attackers);
+      attackers &= attackers - 1;
+      danger += KING_ATTACK_WEIGHTS[position.get(square).getType().ordinal()] * Long.bitCount(position.getAttacks(square) & zone);
+    }
+    int shield = Long.bitCount(position.getBitboard(color, PieceType.PAWN) & PAWN_SHIELDS[color.ordinal()][king]);
+    return shield * PAWN_SHIELD_BONUS - Math.min(danger * danger / 2, MAX_KING_DANGER);
+  }
+
+  /**
+   * Doubled, isolated, backward and passed pawns, white minus black.
+   */
+  static int pawnStructure(long whitePawns, long blackPawns) {
+    return pawnStructure(whitePawns, blackPawns, PieceColor.WHITE) - pawnStructure(blackPawns, whitePawns, PieceColor.BLACK);
+  }
+
+  private static int pawnStructure(long pawns, long enemyPawns, PieceColor color) {
+    long enemyPawnAttacks = pawnAttacks(enemyPawns, color.opposite());
+    int score = 0;
+    for (int file = 0; file < 8; file++) {
+      int count = Long.bitCount(pawns & FILE_A << file);
+      if (count > 1) {
+        score -= (count - 1) * DOUBLED_PAWN_PENALTY;
+      }
+      if (count > 0 && (pawns & ADJACENT_FILES[file]) == 0) {
+        score -= count * ISOLATED_PAWN_PENALTY;
+      }
+    }
+    long remaining = pawns;
+    while (remaining != 0) {
+      int square = Long.numberOfTrailingZeros(remaining);
+      remaining &= remaining - 1;
+      if ((enemyPawns & PASSED_PAWN_MASKS[color.ordinal()][square]) == 0) {
+        score += PASSED_PAWN_BONUS[color == PieceColor.WHITE ? Position.rank(square) : 7 - Position.rank(square)];
+      }
+      // Backward: no neighbour can come up to support it and advancing walks into an enemy pawn's capture
+      int stop = color == PieceColor.WHITE ? square + 8 : square - 8;
+      if ((pawns & SUPPORT_MASKS[color.ordinal()][square]) == 0 && (pawns & ADJACENT_FILES[Position.file(square)]) != 0
+          && (enemyPawnAttacks & 1L << stop) != 0) {
+        score -= BACKWARD_PAWN_PENALTY;
+      }
+    }
+    return score;
+  }
+
+  private static long pawnAttacks(long pawns, PieceColor color) {
+    return color == PieceColor.WHITE
+        ? (pawns & ~FILE_A) << 7 | (pawns & ~FILE_H) << 9
+        : (pawns & ~FILE_A) >>> 9 | (pawns & ~FILE_H) >>> 7;
+  }
+}
@@ -0,0 +1,221 @@
+import java.nio.ByteBuffer;
+
+import pieces.Piece;
+import pieces.PieceColor;
+import pieces.PieceType;
+
+/**
+ * Forsyth-Edwards Notation for {@link Board}. Parsing reads characters straight from the input with
+ * {@link CharSequence#charAt}, so a record can be taken from a slice of a larger text or buffer without
+ * creating strings, and pieces are placed without updating attacks until the whole position is in.
+ *
+ * The board has no move history, so parsing ignores the halfmove and fullmove counters and emitting always
+ * writes "0 1". A castling right is dropped on parsing unless its king and rook stand on their home squares,
+ * and the en passant target is dropped unless a pawn of the side not to move can just have pushed past it.
+ */
+final class Fen {
+  private static final String PIECE_LETTERS = "pnbrqk";
+  private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+  private Fen() {
+  }
+
+  static Board parse(ByteBuffer buffer, int offset, int length) {
+    return parse(new AsciiSequence(buffer, offset, length), 0, length);
+  }
+
+  /**
+   * Parse the placement, side to move, castling and en passant fields of the record in {@code fen[start, end)}.
+   * The side to move and later fields may be omitted, defaulting to white with no rights and no en passant.
+   * @throws IllegalArgumentException if the record is malformed
+   */
+  static Board parse(CharSequence fen, int start, int end) {
+    Position position = new Position();
+    int i = skipSpaces(fen, start, end);
+    int rank = 7;
+    int file = 0;
+    for (; i < end && fen.charAt(i) != ' '; i++) {
+      char c = fen.charAt(i);
+      if (c == '/') {
+        if (file != 8 || rank == 0) {
+          throw malformed(fen, start, end, "rank " + (rank + 1) + " does not cover 8 files");
+        }
+        rank--;
+        file = 0;
+      } else if (c >= '1' && c <= '8') {
+        file += c - '0';
+      } else {
+        int typeIndex = PIECE_LETTERS.indexOf(c | 0x20);
+        if (typeIndex < 0) {
+          throw malformed(fen, start, end, "unknown piece '" + c + "'");
+        }
+        if (file > 7) {
+          throw malformed(fen, start, end, "rank " + (rank + 1) + " has more than 8 files");
+        }
+        PieceColor color = c < 'a' ? PieceColor.WHITE : PieceColor.BLACK;
+        position.place(Position.square(file++, rank), Piece.of(PIECE_TYPES[typeIndex], color));
+      }
+      if (file > 8) {
+        throw malformed(fen, start, end, "rank " + (rank + 1) + " has more than 8 files");
+      }
+    }
+    if (rank != 0 || file != 8) {
+      throw malformed(fen, start, end, "placement does not cover 8 ranks");
+    }
+
+    PieceColor turn = PieceColor.WHITE;
+    i = skipSpaces(fen, i, end);
+    if (i < end) {
+      char side = fen.charAt(i++);
+      if (side != 'w' && side != 'b') {
+        throw malformed(fen, start, end, "side to move must be 'w' or 'b'");
+      }
+      turn = side == 'w' ? PieceColor.WHITE : PieceColor.BLACK;
+    }
+
+    int castlingRights = 0;
+    i = skipSpaces(fen, i, end);
+    for (; i < end && fen.charAt(i) != ' '; i++) {
+      switch (fen.charAt(i)) {
+        case 'K': castlingRights |= Board.WHITE_KINGSIDE_CASTLE; break;
+        case 'Q': castlingRights |= Board.WHITE_QUEENSIDE_CASTLE; break;
+        case 'k': castlingRights |= Board.BLACK_KINGSIDE_CASTLE; break;
+        case 'q': castlingRights |= Board.BLACK_QUEENSIDE_CASTLE; break;
+        case '-': break;
+        default: throw malformed(fen, start, end, "unknown castling right '" + fen.charAt(i) + "'");
+      }
+    }
+
+    int enPassantSquare = -1;
+    i = skipSpaces(fen, i, end);
+    if (i < end && fen.charAt(i) != '-') {
+      int epFile = i + 1 < end ? fen.charAt(i) - 'a' : -1;
+      int epRank = i + 1 < end ? fen.charAt(i + 1) - '1' : -1;
+      if (!Position.isOnBoard(epFile, epRank)) {
+        throw malformed(fen, start, end, "bad en passant square");
+      }
+      if (isEnPassantTarget(position, turn, epFile, epRank)) {
+        enPassantSquare = Position.square(epFile, epRank);
+      }
+    }
+
+    position.rebuildAttacks();
+    return Board.of(position, turn, castlingRights, enPassantSquare);
+  }
+
+  /**
+   * @return whether a pawn of the side not to move stands right past the square, and the square and the one
+   *     the pawn came from are empty, as after a double push
+   */
+  private static boolean isEnPassantTarget(Position position, PieceColor turn, int file, int rank) {
+    int forward = turn == PieceColor.WHITE ? 1 : -1;
+    if (rank != (turn == PieceColor.WHITE ? 5 : 2)) {
+      return false;
+    }
+    Piece pushed = position.get(Position.square(file, rank - forward));
+    return pushed != null && pushed.getType() == PieceType.PAWN && pushed.getColor() != turn
+        && !position.isOccupied(Position.square(file, rank)) && !position.isOccupied(Position.square(file, rank + forward));
+  }
+
+  static StringBuilder append(Board board, StringBuilder sb) {
+    Position position = board.getPosition();
+    for (int rank = 7; rank >= 0; rank--) {
+      int emptyFiles = 0;
+      for (int file = 0; file < 8; file++) {
+        Piece piece = position.get(Position.square(file, rank));
+        if (piece == null) {
+          emptyFiles++;
+          continue;
+        }
+        if (emptyFiles > 0) {
+          sb.append((char) ('0' + emptyFiles));
+          emptyFiles = 0;
+        }
+        char letter = PIECE_LETTERS.charAt(piece.getType().ordinal());
+        sb.append(piece.getColor() == PieceColor.WHITE ? Character.toUpperCase(letter) : letter);
+      }
+      if (emptyFiles > 0) {
+        sb.append((char) ('0' + emptyFiles));
+      }
+      if (rank > 0) {
+        sb.append('/');
+      }
+    }
+
+    sb.append(board.getCurrentTurn() == PieceColor.WHITE ? " w " : " b ");
+    int castlingRights = board.getCastlingRights();
+    if (castlingRights == 0) {
+      sb.append('-');
+    } else {
+      appendIf(sb, castlingRights, Board.WHITE_KINGSIDE_CASTLE, 'K');
+      appendIf(sb, castlingRights, Board.WHITE_QUEENSIDE_CASTLE, 'Q');
+      appendIf(sb, castlingRights, Board.BLACK_KINGSIDE_CASTLE, 'k');
+      appendIf(sb, castlingRights, Board.BLACK_QUEENSIDE_CASTLE, 'q');
+    }
+
+    sb.append(' ');
+    int enPassantSquare = board.getEnPassantSquare();
+    if (enPassantSquare < 0) {
+      sb.append('-');
+    } else {
+      sb.append((char) ('a' + Position.file(enPassantSquare))).append((char) ('1' + Position.rank(enPassantSquare)));
+    }
+    return sb.append(" 0 1");
+  }
+
+  private static void appendIf(StringBuilder sb, int rights, int right, char letter) {
+    if ((rights & right) != 0) {
+      sb.append(letter);
+    }
+  }
+
+  private static int skipSpaces(CharSequence fen, int i, int end) {
+    while (i < end && fen.charAt(i) == ' ') {
+      i++;
+    }
+    return i;
+  }
+
+  private static IllegalArgumentException malformed(CharSequence fen, int start, int end, String reason) {
+    return new IllegalArgumentException("Invalid FEN \"" + fen.subSequence(start, end) + "\": " + reason);
+  }
+
+  /**
+   * Read-only view of ASCII bytes in a buffer as characters, using absolute reads.
+   */
+  private static final class AsciiSequence implements CharSequence {
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    AsciiSequence(ByteBuffer buffer, int offset, int length) {
+      this.buffer = buffer;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      return (char) (buffer.get(offset + index) & 0xff);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return new AsciiSequence(buffer, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder(length);
+      for (int i = 0; i < length; i++) {
+        sb.append(charAt(i));
+      }
+      return sb.toString();
+    }
+  }
+}
@@ -0,0 +1,72 @@
+import java.util.List;
+import java.util.Map;
+
+import org.immutables.value.Value.Immutable;
+
+import pieces.PieceColor;
+
+/**
+ * A game record as read and written by {@link PgnReader} and {@link PgnWriter}.
+ */
+@Immutable
+public interface Game {
+  String UNKNOWN_RESULT = "*";
+
+  /**
+   * @return the PGN tag pairs in the order they were given
+   */
+  Map<String, String> getTags();
+  /**
+   * @return the moves of the main line in {@link Move} encoding, starting from {@link #getStartingBoard()}
+   */
+  List<Integer> getMoves();
+  /**
+   * @return "1-0", "0-1", "1/2-1/2" or {@link #UNKNOWN_RESULT}
+   */
+  String getResult();
+
+  /**
+   * @return a new board set up from the FEN tag, or the standard starting position if there is none
+   */
+  default Board getStartingBoard() {
+    String fen = getTags().get("FEN");
+    return fen == null ? new Board() : Board.fromFen(fen);
+  }
+
+  /**
+   * @return a new board with all moves played
+   */
+  default Board replay() {
+    Board board = getStartingBoard();
+    for (int move : getMoves()) {
+      board.makeMove(move);
+    }
+    return board;
+  }
+
+  /**
+   * Record the moves made on {@code board} since it was set up. The board is rewound to find the starting
+   * position and then played forward again, so it ends up as it was. The result follows from the final
+   * position: a win if the side to move is mated, a draw on stalemate, unknown otherwise.
+   */
+  static Game of(Board board) {
+    List<Integer> moves = board.getMoveHistory();
+    for (int i = 0; i < moves.size(); i++) {
+      board.unmakeMove();
+    }
+    String startingFen = board.toFen();
+    for (int move : moves) {
+      board.makeMove(move);
+    }
+
+    ImmutableGame.Builder game = ImmutableGame.builder().moves(moves);
+    if (!startingFen.equals(new Board().toFen())) {
+      game.tag("SetUp", "1").tag("FEN", startingFen);
+    }
+    if (board.hasNoLegalMoves()) {
+      boolean mated = board.isInCheck(board.getCurrentTurn());
+      game.result(!mated ? "1/2-1/2" : board.getCurrentTurn() == PieceColor.WHITE ? "0-1" : "1-0");
+    }
+    return game.build();
+  }
+}
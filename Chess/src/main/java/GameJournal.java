@@ -0,0 +1,352 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Crash recovery for hosted games: a write-ahead log of moves plus a snapshot of each game.
+ *
+ * Moves of all games go to one append-only log, a sequence of segment files {@code moves-<n>.log}, as
+ * fixed-size records of game id, ply and move with a CRC. Appending only buffers the record; a caller that
+ * needs it durable waits in {@link #awaitDurable}, where one waiter writes and fsyncs everything buffered so
+ * far while the others wait for it. A busy server thus fsyncs once per batch of moves, not once per move.
+ *
+ * A snapshot {@code game-<id>.snapshot} holds the ply it was taken at and the {@link Board#serialize()} form
+ * of the position; it is written to a temporary file and renamed over the old one, and the directory is
+ * fsynced after every rename, file creation and deletion so the change survives a crash. Recovery loads
+ * each snapshot and replays the logged moves of that game past its ply, stopping at a torn or corrupt
+ * record at the end of a segment.
+ *
+ * To keep the log bounded, {@link #rotate()} starts a new segment; once every game has a snapshot taken
+ * after that, {@link #deleteOldSegments()} drops the segments before it.
+ */
+public final class GameJournal implements AutoCloseable {
+  private static final int RECORD_BYTES = 20;
+  private static final int INITIAL_BUFFER_BYTES = 64 * 1024;
+  private static final String SEGMENT_PREFIX = "moves-";
+  private static final String SEGMENT_SUFFIX = ".log";
+  private static final String SNAPSHOT_PREFIX = "game-";
+  private static final String SNAPSHOT_SUFFIX = ".snapshot";
+  private static final String GAME_IDS_FILE = "game-ids";
+
+  private final Path directory;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition flushed = lock.newCondition();
+  private ByteBuffer pending = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+  private ByteBuffer spare = ByteBuffer.allocate(INITIAL_BUFFER_BYTES);
+  private long appendedSequence;
+  private long durableSequence;
+  private boolean flushing;
+  // Set once a write fails; the buffered moves are lost, so nothing can be made durable after that
+  private IOException failure;
+  private int segmentNumber;
+  private FileChannel segment;
+
+  private GameJournal(Path directory, int segmentNumber) throws IOException {
+    this.directory = directory;
+    this.segmentNumber = segmentNumber;
+    this.segment = openSegment(segmentNumber);
+  }
+
+  /**
+   * Open the journal in {@code directory}, creating it if needed. New moves go to a new segment, so a
+   * segment torn by a crash is never appended to.
+   */
+  public static GameJournal open(Path directory) throws IOException {
+    Files.createDirectories(directory);
+    TreeMap<Integer, Path> segments = segmentNumbers(directory);
+    return new GameJournal(directory, segments.isEmpty() ? 1 : segments.lastKey() + 1);
+  }
+
+  /**
+   * Buffer the {@code ply}th move of a game. Moves of one game must be appended in order.
+   * @return the sequence number to pass to {@link #awaitDurable}
+   */
+  public long append(long gameId, int ply, int move) {
+    lock.lock();
+    try {
+      if (pending.remaining() < RECORD_BYTES) {
+        pending = ByteBuffer.allocate(pending.capacity() * 2).put(pending.flip());
+      }
+      int start = pending.position();
+      pending.putLong(gameId).putInt(ply).putInt(move);
+      pending.putInt(crc(pending, start));
+      return ++appendedSequence;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Return once the record with the given sequence number, and all before it, are on disk.
+   */
+  public void awaitDurable(long sequence) throws IOException {
+    lock.lock();
+    try {
+      while (durableSequence < sequence) {
+        if (failure != null) {
+          throw new IOException("Move log failed earlier", failure);
+        }
+        if (flushing) {
+          flushed.awaitUninterruptibly();
+          continue;
+        }
+        // Become the leader: write everything buffered so far while later appends fill the other buffer
+        flushing = true;
+        ByteBuffer batch = pending;
+        long batchSequence = appendedSequence;
+        FileChannel channel = segment;
+        pending = spare;
+        lock.unlock();
+        try {
+          write(channel, batch.flip());
+        } catch (IOException e) {
+          failure = e;
+        } finally {
+          lock.lock();
+          batch.clear();
+          spare = batch;
+          flushing = false;
+          if (failure == null) {
+            durableSequence = Math.max(durableSequence, batchSequence);
+          }
+          flushed.signalAll();
+        }
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Make everything appended so far durable and continue the log in a new segment.
+   */
+  public void rotate() throws IOException {
+    lock.lock();
+    try {
+      while (flushing) {
+        flushed.awaitUninterruptibly();
+      }
+      write(segment, pending.flip());
+      pending.clear();
+      durableSequence = appendedSequence;
+      segment.close();
+      segment = openSegment(++segmentNumber);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Delete the segments before the current one; every game must have a snapshot taken since the last
+   * {@link #rotate()}.
+   */
+  public void deleteOldSegments() throws IOException {
+    // The snapshots that replace the segments must be durable before the segments go
+    syncDirectory();
+    for (int number : segmentNumbers(directory).headMap(currentSegment()).keySet()) {
+      Files.delete(segmentPath(directory, number));
+    }
+  }
+
+  /**
+   * Atomically replace the snapshot of a game with its position after {@code ply} moves.
+   */
+  public void writeSnapshot(long gameId, int ply, Board board) throws IOException {
+    Path snapshot = snapshotPath(gameId);
+    Path temporary = directory.resolve(snapshot.getFileName() + ".tmp");
+    byte[] content = ("ply:" + ply + "\n" + board.serialize()).getBytes(StandardCharsets.UTF_8);
+    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      write(channel, ByteBuffer.wrap(content));
+    }
+    Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    syncDirectory();
+  }
+
+  /**
+   * Durably record that game ids below {@code limit} may have been handed out.
+   */
+  public void reserveGameIds(long limit) throws IOException {
+    Path temporary = directory.resolve(GAME_IDS_FILE + ".tmp");
+    try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      write(channel, ByteBuffer.wrap(Long.toString(limit).getBytes(StandardCharsets.US_ASCII)));
+    }
+    Files.move(temporary, directory.resolve(GAME_IDS_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    syncDirectory();
+  }
+
+  /**
+   * @return the limit last passed to {@link #reserveGameIds}, or 1 if there was none; ids from there on are unused
+   */
+  public long getReservedGameIds() throws IOException {
+    Path file = directory.resolve(GAME_IDS_FILE);
+    return Files.exists(file) ? Long.parseLong(new String(Files.readAllBytes(file), StandardCharsets.US_ASCII).trim()) : 1;
+  }
+
+  /**
+   * Forget a game; its logged moves are ignored from now on and go away with their segments.
+   */
+  public void deleteGame(long gameId) throws IOException {
+    Files.deleteIfExists(snapshotPath(gameId));
+    syncDirectory();
+  }
+
+  /**
+   * Rebuild every game with a snapshot from that snapshot and the moves logged after it.
+   */
+  Map<Long, RecoveredGame> recover() throws IOException {
+    Map<Long, RecoveredGame> games = new HashMap<>();
+    try (DirectoryStream<Path> snapshots = Files.newDirectoryStream(directory, SNAPSHOT_PREFIX + "*" + SNAPSHOT_SUFFIX)) {
+      for (Path snapshot : snapshots) {
+        String name = snapshot.getFileName().toString();
+        long gameId = Long.parseLong(name.substring(SNAPSHOT_PREFIX.length(), name.length() - SNAPSHOT_SUFFIX.length()));
+        String content = new String(Files.readAllBytes(snapshot), StandardCharsets.UTF_8);
+        int lineEnd = content.indexOf('\n');
+        if (!content.startsWith("ply:") || lineEnd < 0) {
+          throw new IOException(snapshot + " is not a game snapshot");
+        }
+        int ply = Integer.parseInt(content.substring(4, lineEnd));
+        games.put(gameId, new RecoveredGame(Board.deserialize(content.substring(lineEnd + 1)), ply));
+      }
+    }
+
+    ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+    for (int number : segmentNumbers(directory).headMap(currentSegment()).keySet()) {
+      try (FileChannel channel = FileChannel.open(segmentPath(directory, number), StandardOpenOption.READ)) {
+        while (readFully(channel, record)) {
+          long gameId = record.getLong(0);
+          int ply = record.getInt(8);
+          if (record.getInt(16) != crc(record, 0)) {
+            break;
+          }
+          RecoveredGame game = games.get(gameId);
+          if (game != null && ply == game.ply + 1) {
+            game.board.makeMove(record.getInt(12));
+            game.ply = ply;
+          }
+        }
+      }
+    }
+    return games;
+  }
+
+  @Override
+  public void close() throws IOException {
+    lock.lock();
+    try {
+      while (flushing) {
+        flushed.awaitUninterruptibly();
+      }
+      write(segment, pending.flip());
+      pending.clear();
+      durableSequence = appendedSequence;
+      segment.close();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private int currentSegment() {
+    lock.lock();
+    try {
+      return segmentNumber;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private FileChannel openSegment(int number) throws IOException {
+    FileChannel channel = FileChannel.open(segmentPath(directory, number), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.APPEND);
+    syncDirectory();
+    return channel;
+  }
+
+  /**
+   * Make the creation, renaming and deletion of files in the directory durable; fsyncing a file does not
+   * persist its directory entry.
+   */
+  private void syncDirectory() throws IOException {
+    try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+      channel.force(true);
+    }
+  }
+
+  private Path snapshotPath(long gameId) {
+    return directory.resolve(SNAPSHOT_PREFIX + gameId + SNAPSHOT_SUFFIX);
+  }
+
+  private static Path segmentPath(Path directory, int number) {
+    return directory.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX);
+  }
+
+  /**
+   * @return the segment files in the directory by number
+   */
+  private static TreeMap<Integer, Path> segmentNumbers(Path directory) throws IOException {
+    TreeMap<Integer, Path> segments = new TreeMap<>();
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+      for (Path file : files) {
+        String name = file.getFileName().toString();
+        try {
+          segments.put(Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())), file);
+        } catch (NumberFormatException e) {
+          // not one of ours
+        }
+      }
+    }
+    return segments;
+  }
+
+  /**
+   * Write the buffer's remaining bytes and fsync.
+   */
+  private static void write(FileChannel channel, ByteBuffer content) throws IOException {
+    while (content.hasRemaining()) {
+      channel.write(content);
+    }
+    channel.force(false);
+  }
+
+  private static boolean readFully(FileChannel channel, ByteBuffer record) throws IOException {
+    record.clear();
+    while (record.hasRemaining()) {
+      if (channel.read(record) < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int crc(ByteBuffer buffer, int start) {
+    CRC32 crc = new CRC32();
+    crc.update(buffer.duplicate().position(start).limit(start + RECORD_BYTES - 4));
+    return (int) crc.getValue();
+  }
+
+  /**
+   * A game as rebuilt by {@link #recover()}: its board and the number of moves played in it.
+   */
+  static final class RecoveredGame {
+    final Board board;
+    int ply;
+
+    RecoveredGame(Board board, int ply) {
+      this.board = board;
+      this.ply = ply;
+    }
+  }
+}
@@ -3,8 +3,17 @@ import java.util.Scanner;
 public class GameRunner {
 
 
+  private static final int ENGINE_TABLE_MEGABYTES = 64;
+
+  /**
+   * Human vs human by default. With a millisecond budget as the first argument the engine plays black,
+   * thinking for that long per move, on as many threads as the optional second argument says.
+   */
   public static void main(String[] args) {
     Board board = new Board();
+    ParallelSearch engine = args.length > 0
+        ? new ParallelSearch(args.length > 1 ? Integer.parseInt(args[1]) : 1, ENGINE_TABLE_MEGABYTES) : null;
+    SearchLimits engineLimits = args.length > 0 ? SearchLimits.ofTime(Long.parseLong(args[0])) : null;
     while(true) {
       Scanner sc = new Scanner(System.in);
       System.out.println("Enter piece coordinate");
@@ -12,14 +21,24 @@ public class GameRunner {
       System.out.println("Enter target coordinate");
       String targetCoordinateString = sc.nextLine();
 
-      Coordinate pieceCoordinate = new Coordinate(pieceCoordinateString.substring(0, 1), Integer.parseInt(pieceCoordinateString.substring(1, 2)));
-      Coordinate targetCoordinate = new Coordinate(targetCoordinateString.substring(0, 1), Integer.parseInt(targetCoordinateString.substring(1, 2)));
-
       try {
-        board.movePiece(pieceCoordinate, targetCoordinate);
+        Coordinate pieceCoordinate = Coordinate.from(pieceCoordinateString);
+        Coordinate targetCoordinate = Coordinate.from(targetCoordinateString);
+        MoveResult moveResult = board.movePiece(pieceCoordinate, targetCoordinate);
+        if (engine != null && !moveResult.isCheckmate() && !moveResult.isStalemate()) {
+          playEngineMove(board, engine, engineLimits);
+        }
       } catch (Exception e) {
         System.out.println(e.getMessage());
       }
     }
   }
+
+  private static void playEngineMove(Board board, ParallelSearch engine, SearchLimits limits) {
+    SearchResult searchResult = engine.search(board, limits);
+    int move = searchResult.getBestMove();
+    System.out.printf("Engine plays %s (score %d, depth %d, %d nodes/s)%n", Move.toString(move),
+        searchResult.getScore(), searchResult.getDepth(), searchResult.getNodesPerSecond());
+    board.makeMove(move);
+  }
 }
@@ -0,0 +1,207 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Serves a {@link GameService} over a line-based protocol on a local TCP port, one thread per connection.
+ *
+ * Each request is one line and gets one response line, "OK" with any result or "ERR" with a reason:
+ * <pre>
+ * NEW [fen]              OK id
+ * MOVE id e2e4           OK, OK CHECK, OK CHECKMATE or OK STALEMATE
+ * MOVES id               OK followed by the legal moves, e.g. OK e2e3 e2e4 ...
+ * FEN id                 OK fen
+ * END id                 OK
+ * STATS                  OK games=.. moves=.. rejected=.. moves/s=.. p50us=.. p99us=.. maxus=.. cachehits=..
+ * QUIT                   closes the connection
+ * </pre>
+ *
+ * Connections get a virtual thread each when the runtime has them (Java 21 and later, looked up
+ * reflectively since the build targets Java 11), and a thread from a cached pool otherwise.
+ */
+public final class GameServer implements AutoCloseable {
+  private final GameService service;
+  private final ServerSocket serverSocket;
+  private final ExecutorService connections;
+  private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+  private final Thread acceptor;
+
+  private GameServer(GameService service, ServerSocket serverSocket) {
+    this.service = service;
+    this.serverSocket = serverSocket;
+    this.connections = newConnectionExecutor();
+    this.acceptor = new ThreadFactoryBuilder().setNameFormat("game-server-accept").setDaemon(true).build()
+        .newThread(this::acceptConnections);
+  }
+
+  /**
+   * Listen on the loopback interface.
+   * @param port the port, or 0 for any free one
+   */
+  public static GameServer start(GameService service, int port) throws IOException {
+    GameServer server = new GameServer(service, new ServerSocket(port, 0, InetAddress.getLoopbackAddress()));
+    server.acceptor.start();
+    return server;
+  }
+
+  /**
+   * Serve games on the port given as the first argument, 7777 by default. With a directory as the second
+   * argument, games are journaled there and recovered from it on start.
+   */
+  public static void main(String[] args) throws IOException, InterruptedException {
+    GameService service = args.length > 1 ? new GameService(GameJournal.open(Paths.get(args[1]))) : new GameService();
+    GameServer server = start(service, args.length > 0 ? Integer.parseInt(args[0]) : 7777);
+    System.out.println("Serving games on port " + server.getPort());
+    server.acceptor.join();
+  }
+
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Stop accepting connections and close the open ones; the games stay in the service.
+   */
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+    for (Socket socket : openSockets) {
+      socket.close();
+    }
+    connections.shutdownNow();
+    try {
+      connections.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void acceptConnections() {
+    try {
+      while (true) {
+        Socket socket = serverSocket.accept();
+        openSockets.add(socket);
+        connections.execute(() -> serve(socket));
+      }
+    } catch (IOException e) {
+      // the server socket was closed
+    }
+  }
+
+  private void serve(Socket socket) {
+    try (socket;
+         BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+         Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII))) {
+      for (String line = in.readLine(); line != null && !line.trim().equalsIgnoreCase("QUIT"); line = in.readLine()) {
+        out.write(respond(line.trim()));
+        out.write('\n');
+        out.flush();
+      }
+    } catch (SocketException e) {
+      // the client went away or the server is closing
+    } catch (IOException e) {
+      System.err.println("Connection failed: " + e.getMessage());
+    } finally {
+      openSockets.remove(socket);
+    }
+  }
+
+  String respond(String request) {
+    String[] parts = request.split(" +", 2);
+    String command = parts[0].toUpperCase(Locale.ROOT);
+    String arguments = parts.length > 1 ? parts[1] : "";
+    try {
+      switch (command) {
+        case "NEW":
+          return "OK " + (arguments.isEmpty() ? service.newGame() : service.newGame(arguments));
+        case "MOVE":
+          return move(arguments);
+        case "MOVES":
+          return legalMoves(arguments);
+        case "FEN":
+          return "OK " + service.getFen(parseGameId(arguments));
+        case "END":
+          return service.endGame(parseGameId(arguments)) ? "OK" : "ERR No game " + arguments;
+        case "STATS":
+          return stats();
+        default:
+          return "ERR Unknown command " + parts[0];
+      }
+    } catch (RuntimeException e) {
+      return "ERR " + e.getMessage();
+    }
+  }
+
+  private String move(String arguments) {
+    String[] parts = arguments.split(" +");
+    if (parts.length != 2 || parts[1].length() != 4 || !isSquare(parts[1], 0) || !isSquare(parts[1], 2)) {
+      return "ERR Usage: MOVE id e2e4";
+    }
+    Coordinate from = Coordinate.from(parts[1].substring(0, 2));
+    Coordinate to = Coordinate.from(parts[1].substring(2, 4));
+    MoveResult result = service.move(parseGameId(parts[0]), from, to);
+    if (result.isCheckmate()) {
+      return "OK CHECKMATE";
+    }
+    if (result.isStalemate()) {
+      return "OK STALEMATE";
+    }
+    return result.isCheck() ? "OK CHECK" : "OK";
+  }
+
+  private String legalMoves(String arguments) {
+    StringBuilder response = new StringBuilder("OK");
+    for (int move : service.getLegalMoves(parseGameId(arguments)).getMoves()) {
+      response.append(' ').append(Move.toString(move));
+    }
+    return response.toString();
+  }
+
+  private String stats() {
+    LatencyHistogram latency = service.getMoveLatency();
+    return String.format(Locale.ROOT, "OK games=%d moves=%d rejected=%d moves/s=%d p50us=%d p99us=%d maxus=%d cachehits=%.2f",
+        service.getActiveGames(), service.getMovesPlayed(), service.getMovesRejected(), service.getMovesPerSecond(),
+        TimeUnit.NANOSECONDS.toMicros(latency.getPercentileNanos(50)),
+        TimeUnit.NANOSECONDS.toMicros(latency.getPercentileNanos(99)),
+        TimeUnit.NANOSECONDS.toMicros(latency.getMaxNanos()),
+        service.getLegalMoveCache().getStats().hitRate());
+  }
+
+  private static boolean isSquare(String text, int i) {
+    return Position.isOnBoard(text.charAt(i) - 'a', text.charAt(i + 1) - '1');
+  }
+
+  private static long parseGameId(String argument) {
+    try {
+      return Long.parseLong(argument.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Bad game id " + argument);
+    }
+  }
+
+  private static ExecutorService newConnectionExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newCachedThreadPool(
+          new ThreadFactoryBuilder().setNameFormat("game-connection-%d").setDaemon(true).build());
+    }
+  }
+}
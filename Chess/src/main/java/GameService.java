@@ -0,0 +1,305 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hosts many games at once, each a {@link Board} looked up by a numeric id.
+ *
+ * Calls for different games run in parallel; calls for the same game are serialized by a lock of its own,
+ * so {@link Board#movePiece} never sees two moves at once. The lock is a {@link ReentrantLock} rather than a
+ * monitor so that virtual threads waiting on a busy game do not pin their carrier thread.
+ *
+ * With a {@link GameJournal}, games survive a restart: each game is snapshotted when created and every
+ * {@link #SNAPSHOT_INTERVAL} plies, and each move is logged and made durable before {@link #move} returns.
+ * The wait for durability happens outside the game's lock, so moves of many games share one fsync.
+ *
+ * Legal moves come from a {@link LegalMoveCache} shared by all games, so a position reached in many games,
+ * such as an opening, is generated once; moves that are not in it are rejected without touching the board.
+ *
+ * Every move attempt is timed from the call to its return, including the wait for the game's lock.
+ */
+public final class GameService {
+  public static final int SNAPSHOT_INTERVAL = 32;
+  // Game ids are reserved in the journal in blocks, so ids of ended games are not handed out again after a restart
+  private static final int GAME_ID_BLOCK = 1024;
+  private static final int LEGAL_MOVE_CACHE_POSITIONS = 16 * 1024;
+
+  private final ConcurrentHashMap<Long, Session> games = new ConcurrentHashMap<>();
+  private final AtomicLong nextGameId = new AtomicLong(1);
+  private final LongAdder movesPlayed = new LongAdder();
+  private final LongAdder movesRejected = new LongAdder();
+  private final LatencyHistogram moveLatency = new LatencyHistogram();
+  private final LegalMoveCache legalMoves = new LegalMoveCache(LEGAL_MOVE_CACHE_POSITIONS);
+  private final long startNanos = System.nanoTime();
+  private final GameJournal journal; // null when games are kept in memory only
+  private final ReentrantLock gameIdLock = new ReentrantLock();
+  private long reservedGameIds;
+
+  public GameService() {
+    this.journal = null;
+  }
+
+  /**
+   * Recover the games in the journal and keep logging to it. The log is compacted right away, so it only
+   * holds moves made since this start.
+   */
+  public GameService(GameJournal journal) throws IOException {
+    this.journal = journal;
+    for (Map.Entry<Long, GameJournal.RecoveredGame> game : journal.recover().entrySet()) {
+      Session session = new Session(game.getValue().board);
+      session.ply = game.getValue().ply;
+      games.put(game.getKey(), session);
+      nextGameId.accumulateAndGet(game.getKey() + 1, Math::max);
+    }
+    reservedGameIds = journal.getReservedGameIds();
+    nextGameId.accumulateAndGet(reservedGameIds, Math::max);
+    compactJournal();
+  }
+
+  /**
+   * @return the id of a new game from the standard starting position
+   */
+  public long newGame() {
+    return addGame(new Board());
+  }
+
+  /**
+   * @return the id of a new game from the given FEN position
+   * @throws IllegalArgumentException if the FEN record is malformed
+   */
+  public long newGame(String fen) {
+    return addGame(Board.fromFen(fen));
+  }
+
+  private long addGame(Board board) {
+    long gameId = nextGameId.getAndIncrement();
+    if (journal != null) {
+      try {
+        reserveGameId(gameId);
+        journal.writeSnapshot(gameId, 0, board);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    games.put(gameId, new Session(board));
+    return gameId;
+  }
+
+  private void reserveGameId(long gameId) throws IOException {
+    gameIdLock.lock();
+    try {
+      if (gameId >= reservedGameIds) {
+        journal.reserveGameIds(gameId + GAME_ID_BLOCK);
+        reservedGameIds = gameId + GAME_ID_BLOCK;
+      }
+    } finally {
+      gameIdLock.unlock();
+    }
+  }
+
+  /**
+   * Play a move in a game, as {@link Board#movePiece} would.
+   * @throws IllegalArgumentException if there is no such game
+   * @throws RuntimeException with the board's reason if the move is not legal
+   * @throws UncheckedIOException if the journal fails to record the move; the game is then ended, since
+   *     whether the move survives a restart is unknown
+   * @throws RuntimeException if the board fails to play a legal move; the game is then ended too, since its
+   *     position may be corrupt
+   */
+  public MoveResult move(long gameId, Coordinate from, Coordinate to) {
+    long start = System.nanoTime();
+    try {
+      Session session = getSession(gameId);
+      MoveResult result;
+      long logSequence = 0;
+      session.lock.lock();
+      try {
+        // Ended while this call waited for the lock; a snapshot written now would bring the game back
+        if (session.ended) {
+          throw new IllegalArgumentException("No game " + gameId);
+        }
+        if (!legalMoves.get(session.board).allows(Position.toSquare(from), Position.toSquare(to))) {
+          throw new RuntimeException("Not a legal move");
+        }
+      } catch (RuntimeException e) {
+        movesRejected.increment();
+        session.lock.unlock();
+        throw e;
+      }
+      try {
+        // The move is legal, so the board failing to play it means it may be left half moved
+        result = session.board.movePiece(from, to);
+        session.ply++;
+        if (journal != null) {
+          logSequence = journal.append(gameId, session.ply, session.board.getLastMove());
+          if (session.ply % SNAPSHOT_INTERVAL == 0) {
+            journal.writeSnapshot(gameId, session.ply, session.board);
+          }
+        }
+      } catch (IOException | RuntimeException e) {
+        dropFailedGame(gameId, session);
+        throw e;
+      } finally {
+        session.lock.unlock();
+      }
+      if (journal != null) {
+        try {
+          journal.awaitDurable(logSequence);
+        } catch (IOException e) {
+          dropFailedGame(gameId, session);
+          throw e;
+        }
+      }
+      movesPlayed.increment();
+      return result;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      moveLatency.record(System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * The board failed to play a legal move, or made a move the journal could not record, so the board may be
+   * corrupt or differ from the game a restart recovers. End the game rather than keep playing on it.
+   */
+  private void dropFailedGame(long gameId, Session session) {
+    movesRejected.increment();
+    session.lock.lock();
+    try {
+      session.ended = true;
+      games.remove(gameId, session);
+    } finally {
+      session.lock.unlock();
+    }
+  }
+
+  /**
+   * @throws IllegalArgumentException if there is no such game
+   */
+  public String getFen(long gameId) {
+    Session session = getSession(gameId);
+    session.lock.lock();
+    try {
+      return session.board.toFen();
+    } finally {
+      session.lock.unlock();
+    }
+  }
+
+  /**
+   * @return the legal moves in the game's current position
+   * @throws IllegalArgumentException if there is no such game
+   */
+  public LegalMoves getLegalMoves(long gameId) {
+    Session session = getSession(gameId);
+    session.lock.lock();
+    try {
+      return legalMoves.get(session.board);
+    } finally {
+      session.lock.unlock();
+    }
+  }
+
+  /**
+   * @return whether the game existed
+   */
+  public boolean endGame(long gameId) {
+    Session session = games.remove(gameId);
+    if (session == null) {
+      return false;
+    }
+    session.lock.lock();
+    try {
+      session.ended = true;
+      if (journal != null) {
+        journal.deleteGame(gameId);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      session.lock.unlock();
+    }
+    return true;
+  }
+
+  /**
+   * Snapshot every game and drop the log segments those snapshots make redundant. Moves keep being
+   * accepted meanwhile.
+   */
+  public void compactJournal() throws IOException {
+    if (journal == null) {
+      return;
+    }
+    journal.rotate();
+    for (Map.Entry<Long, Session> game : games.entrySet()) {
+      Session session = game.getValue();
+      session.lock.lock();
+      try {
+        // A game ended meanwhile must not get its snapshot back
+        if (!session.ended) {
+          journal.writeSnapshot(game.getKey(), session.ply, session.board);
+        }
+      } finally {
+        session.lock.unlock();
+      }
+    }
+    journal.deleteOldSegments();
+  }
+
+  public int getActiveGames() {
+    return games.size();
+  }
+
+  public long getMovesPlayed() {
+    return movesPlayed.sum();
+  }
+
+  public long getMovesRejected() {
+    return movesRejected.sum();
+  }
+
+  public LegalMoveCache getLegalMoveCache() {
+    return legalMoves;
+  }
+
+  /**
+   * @return the latency of every move attempt, played or rejected
+   */
+  public LatencyHistogram getMoveLatency() {
+    return moveLatency;
+  }
+
+  /**
+   * @return moves played per second since the service started
+   */
+  public long getMovesPerSecond() {
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    return elapsedMillis == 0 ? getMovesPlayed() * 1000 : getMovesPlayed() * 1000 / elapsedMillis;
+  }
+
+  private Session getSession(long gameId) {
+    Session session = games.get(gameId);
+    if (session == null) {
+      throw new IllegalArgumentException("No game " + gameId);
+    }
+    return session;
+  }
+
+  private static final class Session {
+    final Board board;
+    final ReentrantLock lock = new ReentrantLock();
+    int ply;
+    // Set under the lock once the game is removed, for calls that looked the session up before that
+    boolean ended;
+
+    Session(Board board) {
+      this.board = board;
+    }
+  }
+}
@@ -0,0 +1,39 @@
+public final class ImmutableAnalysedPosition implements AnalysedPosition {
+  private final long zobristKey;
+  private final Board board;
+  private final int score;
+  private final int bestMove;
+  private final long visits;
+
+  private ImmutableAnalysedPosition(Builder builder) {
+    this.zobristKey = builder.zobristKey;
+    this.board = builder.board;
+    this.score = builder.score;
+    this.bestMove = builder.bestMove;
+    this.visits = builder.visits;
+  }
+
+  @Override public long getZobristKey() { return zobristKey; }
+  @Override public Board getBoard() { return board; }
+  @Override public int getScore() { return score; }
+  @Override public int getBestMove() { return bestMove; }
+  @Override public long getVisits() { return visits; }
+
+  public static Builder builder() { return new Builder(); }
+
+  public static final class Builder {
+    private long zobristKey;
+    private Board board;
+    private int score;
+    private int bestMove = Move.NONE;
+    private long visits;
+
+    public Builder zobristKey(long zobristKey) { this.zobristKey = zobristKey; return this; }
+    public Builder board(Board board) { this.board = board; return this; }
+    public Builder score(int score) { this.score = score; return this; }
+    public Builder bestMove(int bestMove) { this.bestMove = bestMove; return this; }
+    public Builder visits(long visits) { this.visits = visits; return this; }
+
+    public ImmutableAnalysedPosition build() { return new ImmutableAnalysedPosition(this); }
+  }
+}
@@ -0,0 +1,37 @@
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+public final class ImmutableGame implements Game {
+  private final Map<String, String> tags;
+  private final List<Integer> moves;
+  private final String result;
+
+  private ImmutableGame(Builder builder) {
+    this.tags = ImmutableMap.copyOf(builder.tags);
+    this.moves = ImmutableList.copyOf(builder.moves);
+    this.result = builder.result;
+  }
+
+  @Override public Map<String, String> getTags() { return tags; }
+  @Override public List<Integer> getMoves() { return moves; }
+  @Override public String getResult() { return result; }
+
+  public static Builder builder() { return new Builder(); }
+
+  public static final class Builder {
+    private final Map<String, String> tags = new LinkedHashMap<>();
+    private List<Integer> moves = ImmutableList.of();
+    private String result = UNKNOWN_RESULT;
+
+    public Builder tag(String name, String value) { this.tags.put(name, value); return this; }
+    public Builder tags(Map<String, String> tags) { this.tags.putAll(tags); return this; }
+    public Builder moves(List<Integer> moves) { this.moves = moves; return this; }
+    public Builder result(String result) { this.result = result; return this; }
+
+    public ImmutableGame build() { return new ImmutableGame(this); }
+  }
+}
@@ -0,0 +1,28 @@
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+public final class ImmutableLegalMoves implements LegalMoves {
+  private final List<Integer> moves;
+  private final boolean isCheck;
+
+  private ImmutableLegalMoves(Builder builder) {
+    this.moves = ImmutableList.copyOf(builder.moves);
+    this.isCheck = builder.isCheck;
+  }
+
+  @Override public List<Integer> getMoves() { return moves; }
+  @Override public boolean isCheck() { return isCheck; }
+
+  public static Builder builder() { return new Builder(); }
+
+  public static final class Builder {
+    private List<Integer> moves = ImmutableList.of();
+    private boolean isCheck = false;
+
+    public Builder moves(List<Integer> moves) { this.moves = moves; return this; }
+    public Builder isCheck(boolean isCheck) { this.isCheck = isCheck; return this; }
+
+    public ImmutableLegalMoves build() { return new ImmutableLegalMoves(this); }
+  }
+}
@@ -0,0 +1,55 @@
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+public final class ImmutableReplayStatistics implements ReplayStatistics {
+  private final long games;
+  private final long invalidGames;
+  private final List<String> errors;
+  private final Map<String, Long> results;
+  private final long plies;
+  private final long bytes;
+  private final long elapsedMillis;
+
+  private ImmutableReplayStatistics(Builder builder) {
+    this.games = builder.games;
+    this.invalidGames = builder.invalidGames;
+    this.errors = ImmutableList.copyOf(builder.errors);
+    this.results = ImmutableMap.copyOf(builder.results);
+    this.plies = builder.plies;
+    this.bytes = builder.bytes;
+    this.elapsedMillis = builder.elapsedMillis;
+  }
+
+  @Override public long getGames() { return games; }
+  @Override public long getInvalidGames() { return invalidGames; }
+  @Override public List<String> getErrors() { return errors; }
+  @Override public Map<String, Long> getResults() { return results; }
+  @Override public long getPlies() { return plies; }
+  @Override public long getBytes() { return bytes; }
+  @Override public long getElapsedMillis() { return elapsedMillis; }
+
+  public static Builder builder() { return new Builder(); }
+
+  public static final class Builder {
+    private long games;
+    private long invalidGames;
+    private List<String> errors = ImmutableList.of();
+    private Map<String, Long> results = ImmutableMap.of();
+    private long plies;
+    private long bytes;
+    private long elapsedMillis;
+
+    public Builder games(long games) { this.games = games; return this; }
+    public Builder invalidGames(long invalidGames) { this.invalidGames = invalidGames; return this; }
+    public Builder errors(List<String> errors) { this.errors = errors; return this; }
+    public Builder results(Map<String, Long> results) { this.results = results; return this; }
+    public Builder plies(long plies) { this.plies = plies; return this; }
+    public Builder bytes(long bytes) { this.bytes = bytes; return this; }
+    public Builder elapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; return this; }
+
+    public ImmutableReplayStatistics build() { return new ImmutableReplayStatistics(this); }
+  }
+}
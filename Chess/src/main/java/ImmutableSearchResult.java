@@ -0,0 +1,48 @@
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+
+public final class ImmutableSearchResult implements SearchResult {
+  private final int bestMove;
+  private final List<Integer> principalVariation;
+  private final int score;
+  private final int depth;
+  private final long nodes;
+  private final long elapsedMillis;
+
+  private ImmutableSearchResult(Builder builder) {
+    this.bestMove = builder.bestMove;
+    this.principalVariation = ImmutableList.copyOf(builder.principalVariation);
+    this.score = builder.score;
+    this.depth = builder.depth;
+    this.nodes = builder.nodes;
+    this.elapsedMillis = builder.elapsedMillis;
+  }
+
+  @Override public int getBestMove() { return bestMove; }
+  @Override public List<Integer> getPrincipalVariation() { return principalVariation; }
+  @Override public int getScore() { return score; }
+  @Override public int getDepth() { return depth; }
+  @Override public long getNodes() { return nodes; }
+  @Override public long getElapsedMillis() { return elapsedMillis; }
+
+  public static Builder builder() { return new Builder(); }
+
+  public static final class Builder {
+    private int bestMove = Move.NONE;
+    private List<Integer> principalVariation = ImmutableList.of();
+    private int score;
+    private int depth;
+    private long nodes;
+    private long elapsedMillis;
+
+    public Builder bestMove(int bestMove) { this.bestMove = bestMove; return this; }
+    public Builder principalVariation(List<Integer> principalVariation) { this.principalVariation = principalVariation; return this; }
+    public Builder score(int score) { this.score = score; return this; }
+    public Builder depth(int depth) { this.depth = depth; return this; }
+    public Builder nodes(long nodes) { this.nodes = nodes; return this; }
+    public Builder elapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; return this; }
+
+    public ImmutableSearchResult build() { return new ImmutableSearchResult(this); }
+  }
+}
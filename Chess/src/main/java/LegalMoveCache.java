@@ -0,0 +1,47 @@
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.primitives.Ints;
+
+/**
+ * Bounded cache of {@link LegalMoves} by {@link Board#getZobristKey()}, so popular positions such as
+ * openings are generated once and then served by lookup. Least recently used positions are evicted once
+ * the size bound is reached. Safe for concurrent use; a board must not change while it is being looked up.
+ */
+public final class LegalMoveCache {
+  private final Cache<Long, LegalMoves> cache;
+
+  public LegalMoveCache(long maximumPositions) {
+    cache = CacheBuilder.newBuilder().maximumSize(maximumPositions).recordStats().build();
+  }
+
+  public LegalMoves get(Board board) {
+    try {
+      return cache.get(board.getZobristKey(), () -> generate(board));
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Move generation failed", e.getCause());
+    }
+  }
+
+  /**
+   * @return hit, miss and eviction counts since the cache was created
+   */
+  public CacheStats getStats() {
+    return cache.stats();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  private static LegalMoves generate(Board board) {
+    int[] moves = new int[Move.MAX_MOVES];
+    int count = MoveGenerator.generateLegalMoves(board, moves);
+    return ImmutableLegalMoves.builder()
+        .moves(Ints.asList(moves).subList(0, count))
+        .isCheck(board.isInCheck(board.getCurrentTurn()))
+        .build();
+  }
+}
@@ -0,0 +1,35 @@
+import java.util.List;
+
+import org.immutables.value.Value.Immutable;
+
+/**
+ * The legal moves of a position together with what they imply about it, as cached by {@link LegalMoveCache}.
+ */
+@Immutable
+public interface LegalMoves {
+  /**
+   * @return the legal moves of the side to move in {@link Move} encoding, in generation order
+   */
+  List<Integer> getMoves();
+  boolean isCheck();
+
+  default boolean isCheckmate() {
+    return isCheck() && getMoves().isEmpty();
+  }
+
+  default boolean isStalemate() {
+    return !isCheck() && getMoves().isEmpty();
+  }
+
+  /**
+   * @return whether a piece may move between the two squares, as {@link Board#movePiece} would play it
+   */
+  default boolean allows(int from, int to) {
+    for (int move : getMoves()) {
+      if (Move.from(move) == from && Move.to(move) == to) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,87 @@
+import pieces.PieceType;
+
+/**
+ * Moves packed into a single int so move lists can live in plain int arrays.
+ * Layout: bits 0-5 from square, bits 6-11 to square, bits 12-16 flags, bits 17-19 promotion piece type.
+ * Squares use the {@link Position} indexing (a1 = 0, h8 = 63).
+ */
+public final class Move {
+  public static final int NONE = 0;
+
+  public static final int CAPTURE = 1;
+  public static final int DOUBLE_PUSH = 1 << 1;
+  public static final int EN_PASSANT = 1 << 2;
+  public static final int CASTLE = 1 << 3;
+  public static final int PROMOTION = 1 << 4;
+
+  /** Upper bound on the number of moves in any reachable position (the known maximum is 218). */
+  public static final int MAX_MOVES = 256;
+
+  private static final int TO_SHIFT = 6;
+  private static final int FLAGS_SHIFT = 12;
+  private static final int PROMOTION_SHIFT = 17;
+  private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+  private Move() {
+  }
+
+  public static int encode(int from, int to, int flags) {
+    return from | (to << TO_SHIFT) | (flags << FLAGS_SHIFT);
+  }
+
+  public static int encode(int from, int to, int flags, PieceType promotion) {
+    return encode(from, to, flags | PROMOTION) | (promotion.ordinal() << PROMOTION_SHIFT);
+  }
+
+  public static int from(int move) {
+    return move & 0x3f;
+  }
+
+  public static int to(int move) {
+    return (move >>> TO_SHIFT) & 0x3f;
+  }
+
+  public static int flags(int move) {
+    return (move >>> FLAGS_SHIFT) & 0x1f;
+  }
+
+  public static boolean isCapture(int move) {
+    return (flags(move) & CAPTURE) != 0;
+  }
+
+  public static boolean isEnPassant(int move) {
+    return (flags(move) & EN_PASSANT) != 0;
+  }
+
+  public static boolean isCastle(int move) {
+    return (flags(move) & CASTLE) != 0;
+  }
+
+  public static boolean isDoublePush(int move) {
+    return (flags(move) & DOUBLE_PUSH) != 0;
+  }
+
+  public static boolean isPromotion(int move) {
+    return (flags(move) & PROMOTION) != 0;
+  }
+
+  /**
+   * @return the piece type a pawn promotes to, or null if this is not a promotion
+   */
+  public static PieceType getPromotion(int move) {
+    return isPromotion(move) ? PIECE_TYPES[(move >>> PROMOTION_SHIFT) & 0x7] : null;
+  }
+
+  /**
+   * @return the move in coordinate notation, e.g. "e2e4" or "e7e8q"
+   */
+  public static String toString(int move) {
+    StringBuilder sb = new StringBuilder(5)
+        .append(Position.toCoordinate(from(move)))
+        .append(Position.toCoordinate(to(move)));
+    if (isPromotion(move)) {
+      sb.append("pnbrqk".charAt(getPromotion(move).ordinal()));
+    }
+    return sb.toString();
+  }
+}
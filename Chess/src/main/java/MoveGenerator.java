@@ -0,0 +1,289 @@
+import pieces.Attacks;
+import pieces.Piece;
+import pieces.PieceColor;
+import pieces.PieceType;
+
+/**
+ * Generates moves for a {@link Board} into caller-supplied int arrays using the {@link Move} encoding.
+ * Nothing is allocated per move: pieces are found by scanning occupancy bitboards, their targets come from
+ * the position's attack map, and legality is checked by applying each move in place and undoing it again.
+ */
+public final class MoveGenerator {
+  /** Captures, en passant and promotions. */
+  static final int TACTICAL = 1;
+  /** Every other move, castling included. */
+  static final int QUIET = 2;
+  static final int ALL = TACTICAL | QUIET;
+
+  private static final PieceType[] PROMOTIONS = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
+
+  private MoveGenerator() {
+  }
+
+  /**
+   * Write every legal move for the side to move into {@code moves}.
+   * @param moves buffer of at least {@link Move#MAX_MOVES} entries
+   * @return the number of moves written
+   */
+  public static int generateLegalMoves(Board board, int[] moves) {
+    return generateLegalMoves(board, board.getCurrentTurn(), moves);
+  }
+
+  static int generateLegalMoves(Board board, PieceColor side, int[] moves) {
+    int count = generatePseudoLegalMoves(board, side, moves);
+    int legalCount = 0;
+    for (int i = 0; i < count; i++) {
+      if (isLegal(board.getPosition(), moves[i], side)) {
+        moves[legalCount++] = moves[i];
+      }
+    }
+    return legalCount;
+  }
+
+  /**
+   * Whether the side has any legal move, stopping at the first one found. King moves are tried first. In
+   * check, other pieces only try moves that capture the checker or block its ray, and against a double
+   * check only the king can move.
+   * @param moves scratch buffer of at least {@link Move#MAX_MOVES} entries
+   */
+  static boolean hasLegalMove(Board board, PieceColor side, int[] moves) {
+    Position position = board.getPosition();
+    long pieces = position.getOccupancy(side);
+    long evasionTargets = -1L;
+    int kingSquare = position.getKingSquare(side);
+    if (kingSquare >= 0) {
+      if (hasLegalMove(position, board, kingSquare, side, -1L, moves)) {
+        return true;
+      }
+      long checkers = position.getAttackers(kingSquare, side.opposite());
+      if (Long.bitCount(checkers) > 1) {
+        return false;
+      }
+      if (checkers != 0) {
+        evasionTargets = checkers | Attacks.between(kingSquare, Long.numberOfTrailingZeros(checkers));
+      }
+      pieces &= ~(1L << kingSquare);
+    }
+    while (pieces != 0) {
+      int from = Long.numberOfTrailingZeros(pieces);
+      pieces &= pieces - 1;
+      if (hasLegalMove(position, board, from, side, evasionTargets, moves)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Whether the piece on {@code from} has a legal move that lands on, or captures a piece on, one of the target squares.
+   */
+  private static boolean hasLegalMove(Position position, Board board, int from, PieceColor side, long targets, int[] moves) {
+    int count = generatePseudoLegalMoves(board, from, moves, 0);
+    for (int i = 0; i < count; i++) {
+      int move = moves[i];
+      int to = Move.to(move);
+      boolean reachesTarget = (targets & (1L << to)) != 0
+          || Move.isEnPassant(move) && (targets & (1L << Position.square(Position.file(to), Position.rank(from)))) != 0;
+      if (reachesTarget && isLegal(position, move, side)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Write the moves the given side's pieces can make without regard to their own king's safety.
+   * Castling moves are only produced when the king does not start on, cross or land on an attacked square.
+   */
+  static int generatePseudoLegalMoves(Board board, PieceColor side, int[] moves) {
+    return generatePseudoLegalMoves(board, side, ALL, moves, 0);
+  }
+
+  /**
+   * Append the side's pseudo-legal moves of the given kinds to {@code moves}, starting at {@code count}.
+   * @param kinds {@link #TACTICAL}, {@link #QUIET} or both
+   * @return the new number of moves in the buffer
+   */
+  static int generatePseudoLegalMoves(Board board, PieceColor side, int kinds, int[] moves, int count) {
+    long pieces = board.getPosition().getOccupancy(side);
+    while (pieces != 0) {
+      int from = Long.numberOfTrailingZeros(pieces);
+      pieces &= pieces - 1;
+      count = generatePseudoLegalMoves(board, from, kinds, moves, count);
+    }
+    return count;
+  }
+
+  /**
+   * Append the pseudo-legal moves of the piece on {@code from} to {@code moves}, starting at {@code count}.
+   * @return the new number of moves in the buffer
+   */
+  static int generatePseudoLegalMoves(Board board, int from, int[] moves, int count) {
+    return generatePseudoLegalMoves(board, from, ALL, moves, count);
+  }
+
+  private static int generatePseudoLegalMoves(Board board, int from, int kinds, int[] moves, int count) {
+    Position position = board.getPosition();
+    Piece piece = position.get(from);
+    if (piece.getType() == PieceType.PAWN) {
+      return generatePawnMoves(board, from, piece, kinds, moves, count);
+    }
+    long opponentPieces = position.getOccupancy(piece.getColor().opposite());
+    long targets = position.getAttacks(from) & ~position.getOccupancy(piece.getColor());
+    if ((kinds & TACTICAL) == 0) {
+      targets &= ~opponentPieces;
+    }
+    if ((kinds & QUIET) == 0) {
+      targets &= opponentPieces;
+    }
+    while (targets != 0) {
+      int to = Long.numberOfTrailingZeros(targets);
+      targets &= targets - 1;
+      moves[count++] = Move.encode(from, to, (opponentPieces & (1L << to)) != 0 ? Move.CAPTURE : 0);
+    }
+    if (piece.getType() == PieceType.KING && (kinds & QUIET) != 0) {
+      count = generateCastlingMoves(board, from, piece, moves, count);
+    }
+    return count;
+  }
+
+  /**
+   * Whether the move is one {@link #generatePseudoLegalMoves} would produce for the side to move, for moves
+   * remembered from other positions such as a hash move.
+   * @param moves scratch buffer of at least {@link Move#MAX_MOVES} entries
+   */
+  static boolean isPseudoLegal(Board board, int move, int[] moves) {
+    Piece piece = board.getPosition().get(Move.from(move));
+    if (piece == null || piece.getColor() != board.getCurrentTurn()) {
+      return false;
+    }
+    int count = generatePseudoLegalMoves(board, Move.from(move), ALL, moves, 0);
+    for (int i = 0; i < count; i++) {
+      if (moves[i] == move) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int generatePawnMoves(Board board, int from, Piece pawn, int kinds, int[] moves, int count) {
+    Position position = board.getPosition();
+    PieceColor color = pawn.getColor();
+    int forward = color == PieceColor.WHITE ? 1 : -1;
+    int file = Position.file(from);
+    int nextRank = Position.rank(from) + forward;
+    if (nextRank < 0 || nextRank > 7) {
+      return count;
+    }
+    boolean promotes = nextRank == (color == PieceColor.WHITE ? 7 : 0);
+
+    int oneStep = Position.square(file, nextRank);
+    if (!position.isOccupied(oneStep)) {
+      // Pushing to promote counts as tactical
+      if ((kinds & (promotes ? TACTICAL : QUIET)) != 0) {
+        count = addPawnMove(from, oneStep, 0, promotes, moves, count);
+      }
+      int twoStepRank = nextRank + forward;
+      if (Position.rank(from) == color.getPawnRow() - 1 && (kinds & QUIET) != 0) {
+        int twoStep = Position.square(file, twoStepRank);
+        if (!position.isOccupied(twoStep)) {
+          moves[count++] = Move.encode(from, twoStep, Move.DOUBLE_PUSH);
+        }
+      }
+    }
+    if ((kinds & TACTICAL) == 0) {
+      return count;
+    }
+
+    long captures = position.getAttacks(from) & position.getOccupancy(color.opposite());
+    while (captures != 0) {
+      int to = Long.numberOfTrailingZeros(captures);
+      captures &= captures - 1;
+      count = addPawnMove(from, to, Move.CAPTURE, promotes, moves, count);
+    }
+    int enPassantSquare = board.getEnPassantSquare();
+    if (enPassantSquare >= 0 && (position.getAttacks(from) & (1L << enPassantSquare)) != 0
+        && !position.isOccupied(enPassantSquare) && nextRank == (color == PieceColor.WHITE ? 5 : 2)
+        && (position.getBitboard(color.opposite(), PieceType.PAWN) & 1L << Position.square(Position.file(enPassantSquare), Position.rank(from))) != 0) {
+      moves[count++] = Move.encode(from, enPassantSquare, Move.CAPTURE | Move.EN_PASSANT);
+    }
+    return count;
+  }
+
+  private static int addPawnMove(int from, int to, int flags, boolean promotes, int[] moves, int count) {
+    if (!promotes) {
+      moves[count++] = Move.encode(from, to, flags);
+      return count;
+    }
+    for (PieceType promotion : PROMOTIONS) {
+      moves[count++] = Move.encode(from, to, flags, promotion);
+    }
+    return count;
+  }
+
+  /**
+   * Castling needs the board's castling right for that side, which also means king and rook are still on
+   * their home squares, empty squares between them, and no attacked square on the king's path.
+   */
+  private static int generateCastlingMoves(Board board, int from, Piece king, int[] moves, int count) {
+    boolean white = king.getColor() == PieceColor.WHITE;
+    int kingside = white ? Board.WHITE_KINGSIDE_CASTLE : Board.BLACK_KINGSIDE_CASTLE;
+    int queenside = white ? Board.WHITE_QUEENSIDE_CASTLE : Board.BLACK_QUEENSIDE_CASTLE;
+    int rights = board.getCastlingRights() & (kingside | queenside);
+    Position position = board.getPosition();
+    PieceColor opponent = king.getColor().opposite();
+    if (rights == 0 || position.isAttacked(from, opponent)) {
+      return count;
+    }
+    for (int direction = -1; direction <= 1; direction += 2) {
+      if ((rights & (direction == 1 ? kingside : queenside)) == 0) {
+        continue;
+      }
+      int rookSquare = Position.square(direction == 1 ? 7 : 0, Position.rank(from));
+      boolean pathClear = true;
+      for (int between = Math.min(from, rookSquare) + 1; between < Math.max(from, rookSquare); between++) {
+        if (position.isOccupied(between)) {
+          pathClear = false;
+          break;
+        }
+      }
+      if (!pathClear || position.isAttacked(from + direction, opponent) || position.isAttacked(from + 2 * direction, opponent)) {
+        continue;
+      }
+      moves[count++] = Move.encode(from, from + 2 * direction, Move.CASTLE);
+    }
+    return count;
+  }
+
+  /**
+   * Apply the move to the position, test whether the mover's king is attacked, and restore the position.
+   */
+  static boolean isLegal(Position position, int move, PieceColor side) {
+    if (Move.isCastle(move)) {
+      // attacked squares on the king's path were already excluded during generation
+      return true;
+    }
+    int from = Move.from(move);
+    int to = Move.to(move);
+    int capturedSquare = Move.isEnPassant(move) ? Position.square(Position.file(to), Position.rank(from)) : to;
+    Piece moving = position.remove(from);
+    Piece captured = capturedSquare == to ? position.put(to, moving) : position.remove(capturedSquare);
+    if (capturedSquare != to) {
+      position.put(to, moving);
+    }
+
+    int kingSquare = position.getKingSquare(side);
+    boolean legal = kingSquare < 0 || !position.isAttacked(kingSquare, side.opposite());
+
+    if (captured != null && capturedSquare == to) {
+      position.put(to, captured);
+    } else {
+      position.remove(to);
+      if (captured != null) {
+        position.put(capturedSquare, captured);
+      }
+    }
+    position.put(from, moving);
+    return legal;
+  }
+}
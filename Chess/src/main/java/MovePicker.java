@@ -0,0 +1,171 @@
+import pieces.PieceColor;
+import pieces.PieceType;
+
+/**
+ * Hands out the pseudo-legal moves of one search node best first, generating them in stages so that a
+ * cutoff on an early move saves generating the rest:
+ * <ol>
+ *   <li>the hash move from the {@link TranspositionTable}, if it is pseudo-legal here;
+ *   <li>captures and promotions, most valuable victim first, then least valuable attacker;
+ *   <li>the node's two killer moves, quiet moves that caused a cutoff in a sibling node;
+ *   <li>the other quiet moves, by how often they caused cutoffs anywhere in the search (history).
+ * </ol>
+ * Within a stage the best remaining move is selected lazily rather than sorting the stage. Moves handed out
+ * by an earlier stage are not repeated. One picker is kept per ply and reused across nodes.
+ */
+final class MovePicker {
+  private static final int HASH_MOVE = 0;
+  private static final int GENERATE_CAPTURES = 1;
+  private static final int CAPTURES = 2;
+  private static final int KILLERS = 3;
+  private static final int GENERATE_QUIETS = 4;
+  private static final int QUIETS = 5;
+  private static final int DONE = 6;
+
+  private final int[] moves = new int[Move.MAX_MOVES];
+  private final int[] scores = new int[Move.MAX_MOVES];
+  // For checking moves remembered from other positions
+  private final int[] scratch = new int[Move.MAX_MOVES];
+
+  private Board board;
+  private PieceColor side;
+  private int hashMove;
+  private int firstKiller;
+  private int secondKiller;
+  private int[] history;
+  private boolean capturesOnly;
+  private int stage;
+  private int index;
+  private int count;
+
+  /**
+   * Start picking every move of the side to move.
+   * @param killers the killer moves of this ply, {@link Move#NONE} where there is none
+   * @param history cutoff counts of the side to move's quiet moves, indexed by {@code from * 64 + to}
+   */
+  void reset(Board board, int hashMove, int[] killers, int[] history) {
+    reset(board, hashMove, false);
+    this.firstKiller = killers[0];
+    this.secondKiller = killers[1];
+    this.history = history;
+  }
+
+  /**
+   * Start picking only the captures and promotions of the side to move, as quiescence search does.
+   */
+  void resetCaptures(Board board) {
+    reset(board, Move.NONE, true);
+  }
+
+  private void reset(Board board, int hashMove, boolean capturesOnly) {
+    this.board = board;
+    this.side = board.getCurrentTurn();
+    this.hashMove = hashMove;
+    this.capturesOnly = capturesOnly;
+    this.firstKiller = Move.NONE;
+    this.secondKiller = Move.NONE;
+    this.stage = hashMove == Move.NONE ? GENERATE_CAPTURES : HASH_MOVE;
+  }
+
+  /**
+   * @return the next move, which need not be legal, or {@link Move#NONE} once all were handed out
+   */
+  int next() {
+    while (true) {
+      switch (stage) {
+        case HASH_MOVE:
+          stage = GENERATE_CAPTURES;
+          if ((!capturesOnly || isTactical(hashMove)) && MoveGenerator.isPseudoLegal(board, hashMove, scratch)) {
+            return hashMove;
+          }
+          break;
+        case GENERATE_CAPTURES:
+          count = MoveGenerator.generatePseudoLegalMoves(board, side, MoveGenerator.TACTICAL, moves, 0);
+          scoreCaptures();
+          index = 0;
+          stage = CAPTURES;
+          break;
+        case CAPTURES:
+          while (index < count) {
+            int move = pickNext();
+            if (move != hashMove) {
+              return move;
+            }
+          }
+          stage = capturesOnly ? DONE : KILLERS;
+          index = 0;
+          break;
+        case KILLERS:
+          while (index < 2) {
+            int killer = index++ == 0 ? firstKiller : secondKiller;
+            if (killer != Move.NONE && killer != hashMove && !isTactical(killer)
+                && MoveGenerator.isPseudoLegal(board, killer, scratch)) {
+              return killer;
+            }
+          }
+          stage = GENERATE_QUIETS;
+          break;
+        case GENERATE_QUIETS:
+          count = MoveGenerator.generatePseudoLegalMoves(board, side, MoveGenerator.QUIET, moves, 0);
+          for (int i = 0; i < count; i++) {
+            scores[i] = history[Move.from(moves[i]) * 64 + Move.to(moves[i])];
+          }
+          index = 0;
+          stage = QUIETS;
+          break;
+        case QUIETS:
+          while (index < count) {
+            int move = pickNext();
+            if (move != hashMove && move != firstKiller && move != secondKiller) {
+              return move;
+            }
+          }
+          stage = DONE;
+          break;
+        default:
+          return Move.NONE;
+      }
+    }
+  }
+
+  /**
+   * @return whether the move is a capture or promotion, the kind a killer or history entry never holds
+   */
+  static boolean isTactical(int move) {
+    return Move.isCapture(move) || Move.isPromotion(move);
+  }
+
+  private void scoreCaptures() {
+    Position position = board.getPosition();
+    for (int i = 0; i < count; i++) {
+      int move = moves[i];
+      int score = 0;
+      if (Move.isCapture(move)) {
+        PieceType victim = Move.isEnPassant(move) ? PieceType.PAWN : position.get(Move.to(move)).getType();
+        score = PieceSquareTables.value(victim) * 8 - position.get(Move.from(move)).getType().ordinal();
+      }
+      if (Move.isPromotion(move)) {
+        score += PieceSquareTables.value(Move.getPromotion(move));
+      }
+      scores[i] = score;
+    }
+  }
+
+  /**
+   * Swap the highest scored move among the remaining ones into {@code index} and return it.
+   */
+  private int pickNext() {
+    int best = index;
+    for (int i = index + 1; i < count; i++) {
+      if (scores[i] > scores[best]) {
+        best = i;
+      }
+    }
+    int move = moves[best];
+    moves[best] = moves[index];
+    scores[best] = scores[index];
+    moves[index] = move;
+    index++;
+    return move;
+  }
+}
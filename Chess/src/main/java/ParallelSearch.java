@@ -0,0 +1,116 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Lazy SMP: several {@link Search} workers search the same root position at once, each on its own copy of
+ * the {@link Board}, and share nothing but a {@link TranspositionTable}. Results one worker stores cut
+ * the trees of the others, so the group reaches a given depth sooner than a single thread would.
+ *
+ * The calling thread runs the main worker. Every worker honours the depth and time limits, and the node
+ * budget is split evenly between them, so the group never searches more nodes than asked; helpers also stop
+ * as soon as the main worker finishes. The reported move comes from the worker that completed the deepest
+ * iteration, the better score breaking ties, since a score backed by a deeper search is the more reliable
+ * one even against a mate found at a shallower depth. Nodes are summed over all workers.
+ */
+public final class ParallelSearch implements AutoCloseable {
+  private final int threads;
+  private final TranspositionTable table;
+  private final ExecutorService helpers;
+  private final AtomicBoolean stopSignal = new AtomicBoolean();
+
+  public ParallelSearch(int threads, int tableMegabytes) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Need at least one search thread");
+    }
+    this.threads = threads;
+    this.table = new TranspositionTable(tableMegabytes);
+    this.helpers = threads == 1 ? null : Executors.newFixedThreadPool(threads - 1,
+        new ThreadFactoryBuilder().setNameFormat("search-helper-%d").setDaemon(true).build());
+  }
+
+  /**
+   * Search the board's position; the board itself is only copied, never modified.
+   */
+  public SearchResult search(Board board, SearchLimits limits) {
+    long startNanos = System.nanoTime();
+    stopSignal.set(false);
+    table.newSearch();
+
+    List<Search> workers = new ArrayList<>(threads);
+    for (int i = 0; i < threads; i++) {
+      workers.add(new Search(new Board(board), table, stopSignal, i));
+    }
+    SearchLimits workerLimits = limits.getMaxNodes() == Long.MAX_VALUE ? limits
+        : limits.withMaxNodes(Math.max(1, limits.getMaxNodes() / threads));
+    List<Future<SearchResult>> helperResults = new ArrayList<>(threads - 1);
+    for (int i = 1; i < threads; i++) {
+      Search helper = workers.get(i);
+      helperResults.add(helpers.submit(() -> helper.run(workerLimits)));
+    }
+
+    SearchResult best;
+    try {
+      best = workers.get(0).run(workerLimits);
+    } finally {
+      stopSignal.set(true);
+    }
+    long nodes = best.getNodes();
+    for (Future<SearchResult> helperResult : helperResults) {
+      SearchResult result = getUninterruptibly(helperResult);
+      nodes += result.getNodes();
+      if (result.getDepth() <= limits.getMaxDepth() && isBetter(result, best)) {
+        best = result;
+      }
+    }
+    return ImmutableSearchResult.builder()
+        .bestMove(best.getBestMove())
+        .principalVariation(best.getPrincipalVariation())
+        .score(best.getScore())
+        .depth(best.getDepth())
+        .nodes(nodes)
+        .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos))
+        .build();
+  }
+
+  /**
+   * Ask a running search to return as soon as possible.
+   */
+  public void stop() {
+    stopSignal.set(true);
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  @Override
+  public void close() {
+    if (helpers != null) {
+      helpers.shutdownNow();
+    }
+  }
+
+  private static boolean isBetter(SearchResult candidate, SearchResult best) {
+    if (candidate.getDepth() != best.getDepth()) {
+      return candidate.getDepth() > best.getDepth();
+    }
+    return candidate.getScore() > best.getScore();
+  }
+
+  private static SearchResult getUninterruptibly(Future<SearchResult> future) {
+    try {
+      return Uninterruptibles.getUninterruptibly(future);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Search helper failed", e.getCause());
+    }
+  }
+}
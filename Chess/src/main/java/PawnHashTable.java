@@ -0,0 +1,78 @@
+import java.util.Arrays;
+
+import pieces.PieceColor;
+import pieces.PieceType;
+
+/**
+ * Fixed-size cache of pawn-structure scores keyed by the pawn key of a {@link Position}. Pawns move rarely
+ * compared to other pieces, so most positions a search evaluates share their pawns with one evaluated
+ * before, and their pawn structure is a lookup. Each key maps to one slot; a new score replaces whatever
+ * was there. Not thread safe: every search keeps its own.
+ *
+ * Empty slots hold key 0 and score 0, which is the correct entry for a position without pawns.
+ */
+public final class PawnHashTable {
+  private final long[] keys;
+  private final int[] scores;
+  private final int mask;
+  private long hits;
+  private long misses;
+
+  /**
+   * @param entries number of slots, rounded down to a power of two
+   */
+  public PawnHashTable(int entries) {
+    if (entries < 1) {
+      throw new IllegalArgumentException("Pawn hash table needs at least one entry");
+    }
+    int size = Integer.highestOneBit(entries);
+    keys = new long[size];
+    scores = new int[size];
+    mask = size - 1;
+  }
+
+  /**
+   * @return the pawn-structure score of the position, white minus black, computed on a miss and stored
+   */
+  int get(Position position) {
+    long key = position.getPawnKey();
+    int index = (int) key & mask;
+    if (keys[index] == key) {
+      hits++;
+      return scores[index];
+    }
+    misses++;
+    int score = Evaluator.pawnStructure(position.getBitboard(PieceColor.WHITE, PieceType.PAWN),
+        position.getBitboard(PieceColor.BLACK, PieceType.PAWN));
+    keys[index] = key;
+    scores[index] = score;
+    return score;
+  }
+
+  public int size() {
+    return keys.length;
+  }
+
+  public long getHits() {
+    return hits;
+  }
+
+  public long getMisses() {
+    return misses;
+  }
+
+  /**
+   * @return the fraction of lookups answered from the table, 0 before the first lookup
+   */
+  public double getHitRate() {
+    long lookups = hits + misses;
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  public void clear() {
+    Arrays.fill(keys, 0L);
+    Arrays.fill(scores, 0);
+    hits = 0;
+    misses = 0;
+  }
+}
@@ -0,0 +1,165 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft"). Node counts for well-known
+ * positions are published, so this doubles as a correctness check for move generation and make/unmake,
+ * and timing it gives a move-generation throughput benchmark.
+ *
+ * Usage:
+ *   java Perft                      run every reference position to its deepest known count
+ *   java Perft &lt;depth&gt; [fen]        print the per-move split ("divide") from a position
+ */
+public final class Perft {
+
+  /**
+   * Standard perft test positions with their published node counts, indexed by depth - 1.
+   */
+  public enum ReferencePosition {
+    STARTING("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+        20L, 400L, 8_902L, 197_281L, 4_865_609L),
+    KIWIPETE("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        48L, 2_039L, 97_862L, 4_085_603L),
+    ENDGAME("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        14L, 191L, 2_812L, 43_238L, 674_624L),
+    PROMOTIONS("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        6L, 264L, 9_467L, 422_333L),
+    TALKCHESS("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+        44L, 1_486L, 62_379L, 2_103_487L),
+    MIDDLEGAME("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+        46L, 2_079L, 89_890L, 3_894_594L);
+
+    private final String fen;
+    private final long[] nodeCounts;
+
+    ReferencePosition(String fen, long... nodeCounts) {
+      this.fen = fen;
+      this.nodeCounts = nodeCounts;
+    }
+
+    public String getFen() {
+      return fen;
+    }
+
+    public int getMaxDepth() {
+      return nodeCounts.length;
+    }
+
+    public long getNodeCount(int depth) {
+      return nodeCounts[depth - 1];
+    }
+
+    public Board toBoard() {
+      return Board.fromFen(fen);
+    }
+  }
+
+  private Perft() {
+  }
+
+  /**
+   * @return the number of legal move sequences of exactly {@code depth} plies from the board's position
+   */
+  public static long perft(Board board, int depth) {
+    if (depth <= 0) {
+      return 1;
+    }
+    return perft(board, depth, new int[depth][Move.MAX_MOVES]);
+  }
+
+  /**
+   * @return the perft count below each legal root move, keyed by the move in coordinate notation
+   * @throws IllegalArgumentException if {@code depth} is less than 1, which leaves no root moves to split by
+   */
+  public static Map<String, Long> divide(Board board, int depth) {
+    if (depth < 1) {
+      throw new IllegalArgumentException("Depth must be at least 1: " + depth);
+    }
+    Map<String, Long> split = new LinkedHashMap<>();
+    int[][] moveLists = new int[depth][Move.MAX_MOVES];
+    int[] rootMoves = moveLists[depth - 1];
+    int count = MoveGenerator.generateLegalMoves(board, rootMoves);
+    for (int i = 0; i < count; i++) {
+      board.makeMove(rootMoves[i]);
+      split.put(Move.toString(rootMoves[i]), depth == 1 ? 1L : perft(board, depth - 1, moveLists));
+      board.unmakeMove();
+    }
+    return split;
+  }
+
+  private static long perft(Board board, int depth, int[][] moveLists) {
+    int[] moves = moveLists[depth - 1];
+    int count = MoveGenerator.generateLegalMoves(board, moves);
+    if (depth == 1) {
+      return count;
+    }
+    long nodes = 0;
+    for (int i = 0; i < count; i++) {
+      board.makeMove(moves[i]);
+      nodes += perft(board, depth - 1, moveLists);
+      board.unmakeMove();
+    }
+    return nodes;
+  }
+
+  public static void main(String[] args) {
+    if (args.length == 0) {
+      runReferenceSuite();
+      return;
+    }
+    int depth = Integer.parseInt(args[0]);
+    if (depth < 1) {
+      System.err.println("Usage: java Perft [<depth> [fen]], where depth is at least 1");
+      System.exit(1);
+    }
+    String fen = args.length > 1 ? String.join(" ", Arrays.copyOfRange(args, 1, args.length))
+        : ReferencePosition.STARTING.getFen();
+    Board board = Board.fromFen(fen);
+
+    long start = System.nanoTime();
+    Map<String, Long> split = divide(board, depth);
+    long elapsed = System.nanoTime() - start;
+    long total = 0;
+    for (Map.Entry<String, Long> entry : split.entrySet()) {
+      System.out.printf("%s: %d%n", entry.getKey(), entry.getValue());
+      total += entry.getValue();
+    }
+    System.out.printf("%nMoves: %d%nNodes: %d%n", split.size(), total);
+    printTiming(total, elapsed);
+  }
+
+  private static void runReferenceSuite() {
+    boolean allPassed = true;
+    long totalNodes = 0;
+    long totalElapsed = 0;
+    System.out.printf("%-12s %5s %12s %12s %10s %14s%n", "Position", "Depth", "Nodes", "Expected", "Time(ms)", "Nodes/s");
+    for (ReferencePosition reference : ReferencePosition.values()) {
+      for (int depth = 1; depth <= reference.getMaxDepth(); depth++) {
+        Board board = reference.toBoard();
+        long start = System.nanoTime();
+        long nodes = perft(board, depth);
+        long elapsed = System.nanoTime() - start;
+        boolean passed = nodes == reference.getNodeCount(depth);
+        allPassed &= passed;
+        totalNodes += nodes;
+        totalElapsed += elapsed;
+        System.out.printf("%-12s %5d %12d %12d %10d %14d%s%n", reference, depth, nodes, reference.getNodeCount(depth),
+            elapsed / 1_000_000, nodesPerSecond(nodes, elapsed), passed ? "" : "  MISMATCH");
+      }
+    }
+    System.out.println();
+    printTiming(totalNodes, totalElapsed);
+    if (!allPassed) {
+      System.exit(1);
+    }
+  }
+
+  private static void printTiming(long nodes, long elapsedNanos) {
+    System.out.printf("Time: %d ms%nNodes/s: %d%n", elapsedNanos / 1_000_000, nodesPerSecond(nodes, elapsedNanos));
+  }
+
+  private static long nodesPerSecond(long nodes, long elapsedNanos) {
+    return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+  }
+}
@@ -0,0 +1,328 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads PGN archives one game at a time, so memory use does not depend on the size of the archive.
+ *
+ * Bytes are pulled from a channel through one fixed buffer and tokenized in place; move tokens are checked
+ * against the legal moves of a {@link Board} as the game is replayed, without building strings for them.
+ * Comments, numeric annotation glyphs and variations are skipped; only the main line is kept.
+ *
+ * Malformed input fails with an {@link IllegalArgumentException} naming the line, after skipping to the end
+ * of the offending game so iteration can go on with the next one. Read errors surface as
+ * {@link UncheckedIOException} from the iterator methods.
+ */
+public final class PgnReader implements Iterator<Game>, Closeable {
+  private static final int BUFFER_BYTES = 64 * 1024;
+  private static final int END = -1;
+
+  private final ReadableByteChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+  private final StringBuilder token = new StringBuilder(16);
+  private final int[] moveBuffer = new int[Move.MAX_MOVES];
+  private byte[] tagBytes = new byte[64];
+  private int pushedBack = END - 1;
+  private int line;
+  private int lastRead = '\n';
+  private boolean lastReadStartsLine;
+  private Game next;
+  private boolean exhausted;
+
+  public PgnReader(ReadableByteChannel channel) {
+    this(channel, 1);
+  }
+
+  /**
+   * @param firstLine the line number of the channel's first byte in error messages, for reading part of a file
+   */
+  PgnReader(ReadableByteChannel channel, int firstLine) {
+    this.channel = channel;
+    this.line = firstLine;
+    buffer.flip();
+  }
+
+  public static PgnReader open(Path path) throws IOException {
+    return new PgnReader(FileChannel.open(path, StandardOpenOption.READ));
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next == null && !exhausted) {
+      try {
+        next = readGame();
+      } catch (IllegalArgumentException e) {
+        skipRestOfGame();
+        throw e;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      exhausted = next == null;
+    }
+    return next != null;
+  }
+
+  @Override
+  public Game next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    Game game = next;
+    next = null;
+    return game;
+  }
+
+  /**
+   * @return the remaining games as a sequential stream that closes this reader when it is closed
+   */
+  public Stream<Game> stream() {
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+        .onClose(() -> {
+          try {
+            close();
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private Game readGame() throws IOException {
+    ImmutableGame.Builder game = ImmutableGame.builder();
+    List<Integer> moves = new ArrayList<>();
+    Board board = null;
+    boolean started = false;
+    while (true) {
+      int c = skipWhitespaceAndComments();
+      if (c == END) {
+        if (started) {
+          throw malformed("game ends without a result");
+        }
+        return null;
+      }
+      started = true;
+      if (c == '[') {
+        if (board != null) {
+          throw malformed("tag pair after the moves");
+        }
+        readTag(game);
+      } else if (c == '(') {
+        skipVariation();
+      } else if (c == '$') {
+        while (isDigit(peek())) {
+          read();
+        }
+      } else if (c == '.' || c == '!' || c == '?') {
+        // move number periods and separate annotations
+      } else if (c == '*') {
+        return game.moves(moves).result(Game.UNKNOWN_RESULT).build();
+      } else if (isSymbolStart(c)) {
+        readSymbol(c);
+        if (isResult(token)) {
+          return game.moves(moves).result(token.toString()).build();
+        }
+        if (isMoveNumber(token)) {
+          continue;
+        }
+        if (board == null) {
+          board = game.build().getStartingBoard();
+        }
+        int move;
+        try {
+          move = San.parse(board, token, 0, token.length(), moveBuffer);
+        } catch (IllegalArgumentException e) {
+          throw malformed(e.getMessage());
+        }
+        board.makeMove(move);
+        moves.add(move);
+      } else {
+        throw malformed("unexpected '" + (char) c + "'");
+      }
+    }
+  }
+
+  private void skipRestOfGame() {
+    try {
+      while (true) {
+        int c = skipWhitespaceAndComments();
+        if (c == END || c == '*') {
+          return;
+        }
+        if (isSymbolStart(c)) {
+          readSymbol(c);
+          if (isResult(token)) {
+            return;
+          }
+        }
+      }
+    } catch (IllegalArgumentException e) {
+      // an unterminated comment or variation runs to the end of the input; nothing is left to read
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void readTag(ImmutableGame.Builder game) throws IOException {
+    int c = skipWhitespace();
+    if (!isSymbolStart(c)) {
+      throw malformed("tag pair without a name");
+    }
+    readSymbol(c);
+    String name = token.toString();
+    if (skipWhitespace() != '"') {
+      throw malformed("tag " + name + " without a value");
+    }
+    int length = 0;
+    for (c = read(); c != '"'; c = read()) {
+      if (c == '\\') {
+        c = read();
+      }
+      if (c == END || c == '\n') {
+        throw malformed("unterminated value of tag " + name);
+      }
+      if (length == tagBytes.length) {
+        tagBytes = Arrays.copyOf(tagBytes, length * 2);
+      }
+      tagBytes[length++] = (byte) c;
+    }
+    if (skipWhitespace() != ']') {
+      throw malformed("tag " + name + " is not closed");
+    }
+    game.tag(name, new String(tagBytes, 0, length, StandardCharsets.UTF_8));
+  }
+
+  private void readSymbol(int first) throws IOException {
+    token.setLength(0);
+    token.append((char) first);
+    while (isSymbolPart(peek())) {
+      token.append((char) read());
+    }
+  }
+
+  private void skipVariation() throws IOException {
+    int depth = 1;
+    while (depth > 0) {
+      int c = skipWhitespaceAndComments();
+      if (c == END) {
+        throw malformed("unterminated variation");
+      }
+      depth += c == '(' ? 1 : c == ')' ? -1 : 0;
+    }
+  }
+
+  private int skipWhitespaceAndComments() throws IOException {
+    while (true) {
+      int c = skipWhitespace();
+      if (c == '{') {
+        do {
+          c = read();
+        } while (c != '}' && c != END);
+        if (c == END) {
+          throw malformed("unterminated comment");
+        }
+      } else if (c == ';') {
+        skipLine();
+      } else if (c == '%' && lastReadStartsLine) {
+        skipLine();
+      } else {
+        return c;
+      }
+    }
+  }
+
+  private int skipWhitespace() throws IOException {
+    int c = read();
+    while (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+      c = read();
+    }
+    return c;
+  }
+
+  private void skipLine() throws IOException {
+    int c = read();
+    while (c != '\n' && c != END) {
+      c = read();
+    }
+  }
+
+  private int read() throws IOException {
+    if (pushedBack >= END) {
+      int c = pushedBack;
+      pushedBack = END - 1;
+      return c;
+    }
+    if (!buffer.hasRemaining()) {
+      buffer.clear();
+      int count;
+      do {
+        count = channel.read(buffer);
+      } while (count == 0);
+      buffer.flip();
+      if (count < 0) {
+        return END;
+      }
+    }
+    int c = buffer.get() & 0xff;
+    if (c == '\n') {
+      line++;
+    }
+    lastReadStartsLine = lastRead == '\n';
+    lastRead = c;
+    return c;
+  }
+
+  private int peek() throws IOException {
+    if (pushedBack < END) {
+      pushedBack = read();
+    }
+    return pushedBack;
+  }
+
+  private IllegalArgumentException malformed(String reason) {
+    return new IllegalArgumentException("Invalid PGN at line " + line + ": " + reason);
+  }
+
+  private static boolean isSymbolStart(int c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c);
+  }
+
+  private static boolean isSymbolPart(int c) {
+    return isSymbolStart(c) || c == '_' || c == '+' || c == '#' || c == '=' || c == ':' || c == '-' || c == '/';
+  }
+
+  private static boolean isDigit(int c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isMoveNumber(CharSequence symbol) {
+    for (int i = 0; i < symbol.length(); i++) {
+      if (!isDigit(symbol.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isResult(CharSequence symbol) {
+    return "1-0".contentEquals(symbol) || "0-1".contentEquals(symbol) || "1/2-1/2".contentEquals(symbol);
+  }
+}
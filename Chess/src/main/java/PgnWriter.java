@@ -0,0 +1,110 @@
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableMap;
+
+import pieces.PieceColor;
+
+/**
+ * Writes games as PGN in export format: the seven tag roster first, filled with "?" where unknown, then
+ * the remaining tags, then the moves in SAN wrapped below 80 columns, each game followed by a blank line.
+ */
+public final class PgnWriter implements Closeable, Flushable {
+  private static final int MAX_LINE_LENGTH = 79;
+  private static final Map<String, String> SEVEN_TAG_ROSTER = ImmutableMap.<String, String>builder()
+      .put("Event", "?")
+      .put("Site", "?")
+      .put("Date", "????.??.??")
+      .put("Round", "?")
+      .put("White", "?")
+      .put("Black", "?")
+      .put("Result", Game.UNKNOWN_RESULT)
+      .build();
+
+  private final Writer writer;
+  private final StringBuilder sb = new StringBuilder(1024);
+  private final int[] moveBuffer = new int[Move.MAX_MOVES];
+
+  public PgnWriter(Writer writer) {
+    this.writer = writer;
+  }
+
+  public void write(Game game) throws IOException {
+    sb.setLength(0);
+    Map<String, String> tags = game.getTags();
+    for (Map.Entry<String, String> rosterTag : SEVEN_TAG_ROSTER.entrySet()) {
+      String name = rosterTag.getKey();
+      appendTag(name, name.equals("Result") ? game.getResult() : tags.getOrDefault(name, rosterTag.getValue()));
+    }
+    for (Map.Entry<String, String> tag : tags.entrySet()) {
+      if (!SEVEN_TAG_ROSTER.containsKey(tag.getKey())) {
+        appendTag(tag.getKey(), tag.getValue());
+      }
+    }
+    sb.append('\n');
+
+    Board board = game.getStartingBoard();
+    List<Integer> moves = game.getMoves();
+    int lineStart = sb.length();
+    int moveNumber = 1;
+    for (int i = 0; i < moves.size(); i++) {
+      int tokenStart = sb.length();
+      if (board.getCurrentTurn() == PieceColor.WHITE) {
+        sb.append(moveNumber).append(". ");
+      } else if (i == 0) {
+        sb.append(moveNumber).append("... ");
+      }
+      int move = moves.get(i);
+      San.append(board, move, sb, moveBuffer).append(' ');
+      if (board.getCurrentTurn() == PieceColor.BLACK) {
+        moveNumber++;
+      }
+      board.makeMove(move);
+      lineStart = wrap(lineStart, tokenStart);
+    }
+    int tokenStart = sb.length();
+    sb.append(game.getResult());
+    wrap(lineStart, tokenStart);
+    sb.append("\n\n");
+    writer.append(sb);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    writer.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+
+  /**
+   * Break the line before the token starting at {@code tokenStart} if the line got too long.
+   * @return the start of the current line
+   */
+  private int wrap(int lineStart, int tokenStart) {
+    int end = sb.charAt(sb.length() - 1) == ' ' ? sb.length() - 1 : sb.length();
+    if (end - lineStart <= MAX_LINE_LENGTH || tokenStart == lineStart) {
+      return lineStart;
+    }
+    sb.setCharAt(tokenStart - 1, '\n');
+    return tokenStart;
+  }
+
+  private void appendTag(String name, String value) {
+    sb.append('[').append(name).append(" \"");
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        sb.append('\\');
+      }
+      sb.append(c);
+    }
+    sb.append("\"]\n");
+  }
+}
@@ -0,0 +1,133 @@
+import pieces.Piece;
+import pieces.PieceColor;
+import pieces.PieceType;
+
+/**
+ * Material and piece-square values in centipawns, for the opening/middlegame and for the endgame, from the
+ * simplified evaluation function. {@link Position} sums them as pieces are put and removed, so the search
+ * reads the material and placement terms of {@link Evaluator} without a pass over the board.
+ *
+ * Values are signed: positive for white pieces, negative for black ones, so sums are white minus black.
+ */
+final class PieceSquareTables {
+  /** Phase weight of the pieces of a full starting set, which is the middlegame; 0 is a pawn ending. */
+  static final int MAX_PHASE = 24;
+
+  private static final int[] VALUES = {100, 320, 330, 500, 900, 0};
+  private static final int[] PHASE_WEIGHTS = {0, 1, 1, 2, 4, 0};
+
+  // Indexed by PieceType ordinal; each table is laid out as seen from white, rank 8 first
+  private static final int[][] MIDGAME_TABLES = {
+      {
+          0, 0, 0, 0, 0, 0, 0, 0,
+          50, 50, 50, 50, 50, 50, 50, 50,
+          10, 10, 20, 30, 30, 20, 10, 10,
+          5, 5, 10, 25, 25, 10, 5, 5,
+          0, 0, 0, 20, 20, 0, 0, 0,
+          5, -5, -10, 0, 0, -10, -5, 5,
+          5, 10, 10, -20, -20, 10, 10, 5,
+          0, 0, 0, 0, 0, 0, 0, 0,
+      },
+      {
+          -50, -40, -30, -30, -30, -30, -40, -50,
+          -40, -20, 0, 0, 0, 0, -20, -40,
+          -30, 0, 10, 15, 15, 10, 0, -30,
+          -30, 5, 15, 20, 20, 15, 5, -30,
+          -30, 0, 15, 20, 20, 15, 0, -30,
+          -30, 5, 10, 15, 15, 10, 5, -30,
+          -40, -20, 0, 5, 5, 0, -20, -40,
+          -50, -40, -30, -30, -30, -30, -40, -50,
+      },
+      {
+          -20, -10, -10, -10, -10, -10, -10, -20,
+          -10, 0, 0, 0, 0, 0, 0, -10,
+          -10, 0, 5, 10, 10, 5, 0, -10,
+          -10, 5, 5, 10, 10, 5, 5, -10,
+          -10, 0, 10, 10, 10, 10, 0, -10,
+          -10, 10, 10, 10, 10, 10, 10, -10,
+          -10, 5, 0, 0, 0, 0, 5, -10,
+          -20, -10, -10, -10, -10, -10, -10, -20,
+      },
+      {
+          0, 0, 0, 0, 0, 0, 0, 0,
+          5, 10, 10, 10, 10, 10, 10, 5,
+          -5, 0, 0, 0, 0, 0, 0, -5,
+          -5, 0, 0, 0, 0, 0, 0, -5,
+          -5, 0, 0, 0, 0, 0, 0, -5,
+          -5, 0, 0, 0, 0, 0, 0, -5,
+          -5, 0, 0, 0, 0, 0, 0, -5,
+          0, 0, 0, 5, 5, 0, 0, 0,
+      },
+      {
+          -20, -10, -10, -5, -5, -10, -10, -20,
+          -10, 0, 0, 0, 0, 0, 0, -10,
+          -10, 0, 5, 5, 5, 5, 0, -10,
+          -5, 0, 5, 5, 5, 5, 0, -5,
+          0, 0, 5, 5, 5, 5, 0, -5,
+          -10, 5, 5, 5, 5, 5, 0, -10,
+          -10, 0, 5, 0, 0, 0, 0, -10,
+          -20, -10, -10, -5, -5, -10, -10, -20,
+      },
+      {
+          -30, -40, -40, -50, -50, -40, -40, -30,
+          -30, -40, -40, -50, -50, -40, -40, -30,
+          -30, -40, -40, -50, -50, -40, -40, -30,
+          -30, -40, -40, -50, -50, -40, -40, -30,
+          -20, -30, -30, -40, -40, -30, -30, -20,
+          -10, -20, -20, -20, -20, -20, -20, -10,
+          20, 20, 0, 0, 0, 0, 20, 20,
+          20, 30, 10, 0, 0, 10, 30, 20,
+      },
+  };
+  // In the endgame the king belongs in the centre; other pieces keep their middlegame tables
+  private static final int[] KING_ENDGAME_TABLE = {
+      -50, -40, -30, -20, -20, -30, -40, -50,
+      -30, -20, -10, 0, 0, -10, -20, -30,
+      -30, -10, 20, 30, 30, 20, -10, -30,
+      -30, -10, 30, 40, 40, 30, -10, -30,
+      -30, -10, 30, 40, 40, 30, -10, -30,
+      -30, -10, 20, 30, 30, 20, -10, -30,
+      -30, -30, 0, 0, 0, 0, -30, -30,
+      -50, -30, -30, -30, -30, -30, -30, -50,
+  };
+
+  // Indexed by color ordinal * 6 + type ordinal, then square
+  private static final int[][] MIDGAME = new int[12][64];
+  private static final int[][] ENDGAME = new int[12][64];
+
+  static {
+    for (PieceColor color : PieceColor.values()) {
+      int sign = color == PieceColor.WHITE ? 1 : -1;
+      for (PieceType type : PieceType.values()) {
+        int index = color.ordinal() * 6 + type.ordinal();
+        int[] endgameTable = type == PieceType.KING ? KING_ENDGAME_TABLE : MIDGAME_TABLES[type.ordinal()];
+        for (int square = 0; square < 64; square++) {
+          // Black reads the table upside down
+          int rank = color == PieceColor.WHITE ? 7 - Position.rank(square) : Position.rank(square);
+          int tableIndex = rank * 8 + Position.file(square);
+          MIDGAME[index][square] = sign * (VALUES[type.ordinal()] + MIDGAME_TABLES[type.ordinal()][tableIndex]);
+          ENDGAME[index][square] = sign * (VALUES[type.ordinal()] + endgameTable[tableIndex]);
+        }
+      }
+    }
+  }
+
+  private PieceSquareTables() {
+  }
+
+  static int value(PieceType type) {
+    return VALUES[type.ordinal()];
+  }
+
+  static int midgame(Piece piece, int square) {
+    return MIDGAME[piece.getColor().ordinal() * 6 + piece.getType().ordinal()][square];
+  }
+
+  static int endgame(Piece piece, int square) {
+    return ENDGAME[piece.getColor().ordinal() * 6 + piece.getType().ordinal()][square];
+  }
+
+  static int phase(Piece piece) {
+    return PHASE_WEIGHTS[piece.getType().ordinal()];
+  }
+}
@@ -0,0 +1,265 @@
+import java.util.Arrays;
+import java.util.Map;
+
+import pieces.Piece;
+import pieces.PieceColor;
+import pieces.PieceType;
+
+/**
+ * Bitboard model of the pieces on a board.
+ * Squares are indexed 0-63 from a1 to h8, file first (a1 = 0, h1 = 7, a2 = 8, ..., h8 = 63).
+ * One 64-bit board is kept per piece type and color, plus occupancy masks per color and overall.
+ * The piece objects themselves are kept in a parallel 64-entry array so callers still get the same instances back.
+ * An {@link AttackMap} is updated on every change, so attacked squares can be queried without generating moves.
+ * Material and piece-square sums from {@link PieceSquareTables}, the game phase and a Zobrist key of the pawns
+ * alone are kept up to date the same way.
+ */
+public class Position {
+  private static final int PIECE_TYPES = PieceType.values().length;
+
+  private final long[] pieceBitboards = new long[PIECE_TYPES * 2];
+  private final long[] colorOccupancy = new long[2];
+  private long occupancy;
+  private final Piece[] squares = new Piece[64];
+  private final AttackMap attackMap;
+  // White minus black, in centipawns
+  private int midgameScore;
+  private int endgameScore;
+  private int phase;
+  private long pawnKey;
+
+  public Position() {
+    attackMap = new AttackMap();
+  }
+
+  public Position(Position other) {
+    System.arraycopy(other.pieceBitboards, 0, pieceBitboards, 0, pieceBitboards.length);
+    System.arraycopy(other.colorOccupancy, 0, colorOccupancy, 0, colorOccupancy.length);
+    System.arraycopy(other.squares, 0, squares, 0, squares.length);
+    occupancy = other.occupancy;
+    midgameScore = other.midgameScore;
+    endgameScore = other.endgameScore;
+    phase = other.phase;
+    pawnKey = other.pawnKey;
+    attackMap = new AttackMap(other.attackMap);
+  }
+
+  public static Position of(Map<Coordinate, Piece> pieces) {
+    Position position = new Position();
+    for (Map.Entry<Coordinate, Piece> entry : pieces.entrySet()) {
+      position.put(toSquare(entry.getKey()), entry.getValue());
+    }
+    return position;
+  }
+
+  public Piece get(int square) {
+    return squares[square];
+  }
+
+  public boolean isOccupied(int square) {
+    return (occupancy & (1L << square)) != 0;
+  }
+
+  /**
+   * Place a piece on a square, replacing whatever was there.
+   * @return the piece previously on the square, or null
+   */
+  public Piece put(int square, Piece piece) {
+    Piece previous = clearSquare(square);
+    long bit = 1L << square;
+    pieceBitboards[index(piece.getColor(), piece.getType())] |= bit;
+    colorOccupancy[piece.getColor().ordinal()] |= bit;
+    occupancy |= bit;
+    squares[square] = piece;
+    addPieceTerms(piece, square);
+    attackMap.update(this, square);
+    return previous;
+  }
+
+  /**
+   * Place a piece on an empty square without updating attacks, for filling a whole position at once.
+   * {@link #rebuildAttacks()} must be called once all pieces are placed.
+   */
+  void place(int square, Piece piece) {
+    long bit = 1L << square;
+    pieceBitboards[index(piece.getColor(), piece.getType())] |= bit;
+    colorOccupancy[piece.getColor().ordinal()] |= bit;
+    occupancy |= bit;
+    squares[square] = piece;
+    addPieceTerms(piece, square);
+  }
+
+  void rebuildAttacks() {
+    attackMap.rebuild(this);
+  }
+
+  /**
+   * @return the piece removed from the square, or null if it was empty
+   */
+  public Piece remove(int square) {
+    Piece piece = clearSquare(square);
+    if (piece != null) {
+      attackMap.update(this, square);
+    }
+    return piece;
+  }
+
+  private Piece clearSquare(int square) {
+    Piece piece = squares[square];
+    if (piece == null) {
+      return null;
+    }
+    long mask = ~(1L << square);
+    pieceBitboards[index(piece.getColor(), piece.getType())] &= mask;
+    colorOccupancy[piece.getColor().ordinal()] &= mask;
+    occupancy &= mask;
+    squares[square] = null;
+    midgameScore -= PieceSquareTables.midgame(piece, square);
+    endgameScore -= PieceSquareTables.endgame(piece, square);
+    phase -= PieceSquareTables.phase(piece);
+    if (piece.getType() == PieceType.PAWN) {
+      pawnKey ^= Zobrist.piece(piece, square);
+    }
+    return piece;
+  }
+
+  private void addPieceTerms(Piece piece, int square) {
+    midgameScore += PieceSquareTables.midgame(piece, square);
+    endgameScore += PieceSquareTables.endgame(piece, square);
+    phase += PieceSquareTables.phase(piece);
+    if (piece.getType() == PieceType.PAWN) {
+      pawnKey ^= Zobrist.piece(piece, square);
+    }
+  }
+
+  public void clear() {
+    Arrays.fill(pieceBitboards, 0L);
+    Arrays.fill(colorOccupancy, 0L);
+    Arrays.fill(squares, null);
+    occupancy = 0L;
+    midgameScore = 0;
+    endgameScore = 0;
+    phase = 0;
+    pawnKey = 0L;
+    attackMap.clear();
+  }
+
+  public long getBitboard(PieceColor color, PieceType type) {
+    return pieceBitboards[index(color, type)];
+  }
+
+  public long getOccupancy(PieceColor color) {
+    return colorOccupancy[color.ordinal()];
+  }
+
+  public long getOccupancy() {
+    return occupancy;
+  }
+
+  /**
+   * @return bishops, rooks and queens of both colors
+   */
+  public long getSliders() {
+    return getBitboard(PieceColor.WHITE, PieceType.BISHOP) | getBitboard(PieceColor.WHITE, PieceType.ROOK) | getBitboard(PieceColor.WHITE, PieceType.QUEEN)
+        | getBitboard(PieceColor.BLACK, PieceType.BISHOP) | getBitboard(PieceColor.BLACK, PieceType.ROOK) | getBitboard(PieceColor.BLACK, PieceType.QUEEN);
+  }
+
+  /**
+   * @return the squares attacked by the piece on {@code square}, or 0 if it is empty
+   */
+  public long getAttacks(int square) {
+    return attackMap.getAttacks(square);
+  }
+
+  /**
+   * @return the squares attacked by any piece of the given color
+   */
+  public long getAttacked(PieceColor byColor) {
+    return attackMap.getAttacked(byColor);
+  }
+
+  /**
+   * @return the squares of the given color's pieces that attack {@code square}
+   */
+  public long getAttackers(int square, PieceColor byColor) {
+    long attackers = 0;
+    long pieces = getOccupancy(byColor);
+    while (pieces != 0) {
+      int from = Long.numberOfTrailingZeros(pieces);
+      pieces &= pieces - 1;
+      if ((getAttacks(from) & (1L << square)) != 0) {
+        attackers |= 1L << from;
+      }
+    }
+    return attackers;
+  }
+
+  public boolean isAttacked(int square, PieceColor byColor) {
+    return attackMap.isAttacked(square, byColor);
+  }
+
+  /**
+   * @return material plus piece-square values of all pieces with middlegame tables, white minus black
+   */
+  int getMidgameScore() {
+    return midgameScore;
+  }
+
+  /**
+   * @return material plus piece-square values of all pieces with endgame tables, white minus black
+   */
+  int getEndgameScore() {
+    return endgameScore;
+  }
+
+  /**
+   * @return the phase weights of the pieces on the board, {@link PieceSquareTables#MAX_PHASE} for a full set;
+   *     more after promotions
+   */
+  int getPhase() {
+    return phase;
+  }
+
+  /**
+   * @return the XOR of the Zobrist keys of the pawns of both colors on their squares, 0 without pawns
+   */
+  long getPawnKey() {
+    return pawnKey;
+  }
+
+  /**
+   * @return the square of the given color's king, or -1 if it has none
+   */
+  public int getKingSquare(PieceColor color) {
+    long king = getBitboard(color, PieceType.KING);
+    return king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+  }
+
+  private static int index(PieceColor color, PieceType type) {
+    return color.ordinal() * PIECE_TYPES + type.ordinal();
+  }
+
+  public static int square(int file, int rank) {
+    return rank * 8 + file;
+  }
+
+  public static int file(int square) {
+    return square & 7;
+  }
+
+  public static int rank(int square) {
+    return square >>> 3;
+  }
+
+  public static boolean isOnBoard(int file, int rank) {
+    return file >= 0 && file < 8 && rank >= 0 && rank < 8;
+  }
+
+  public static int toSquare(Coordinate coordinate) {
+    return coordinate.getIndex();
+  }
+
+  public static Coordinate toCoordinate(int square) {
+    return Coordinate.of(square);
+  }
+}
@@ -0,0 +1,186 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import pieces.Piece;
+import pieces.PieceColor;
+import pieces.PieceType;
+
+/**
+ * Fixed-width binary encoding of a {@link Board} in {@link #BYTES} bytes, for storing positions in bulk.
+ *
+ * Layout: an 8-byte big-endian occupancy bitboard, then one 4-bit code per occupied square in ascending
+ * square order, two per byte with the lower square in the low nibble, zero padded to 16 bytes (a position
+ * has at most 32 pieces). Codes 0-5 are the white pawn, knight, bishop, rook, queen and king, 6-11 the
+ * black ones. Three further codes fold the rest of the state into the pieces:
+ * <ul>
+ *   <li>{@code 12}: a pawn that just moved two squares and can be captured en passant; its color follows
+ *   from its rank</li>
+ *   <li>{@code 13}/{@code 14}: a white/black rook that can still castle</li>
+ *   <li>{@code 15}: the black king when black is to move</li>
+ * </ul>
+ * So a position can only be encoded if it has at most 32 pieces and, with black to move, a black king.
+ */
+public final class PositionCodec {
+  public static final int BYTES = 24;
+
+  private static final int EN_PASSANT_PAWN = 12;
+  private static final int WHITE_CASTLING_ROOK = 13;
+  private static final int BLACK_CASTLING_ROOK = 14;
+  private static final int BLACK_KING_TO_MOVE = 15;
+  private static final int PIECE_TYPES = PieceType.values().length;
+  private static final PieceType[] TYPES = PieceType.values();
+
+  private PositionCodec() {
+  }
+
+  /**
+   * Write the board at the buffer's position and advance it by {@link #BYTES}.
+   * @throws IllegalArgumentException if the board has more than 32 pieces, or black to move and no black king
+   */
+  public static void encode(Board board, ByteBuffer buffer) {
+    encode(board, buffer, buffer.position());
+    buffer.position(buffer.position() + BYTES);
+  }
+
+  /**
+   * Write the board at {@code index} without changing the buffer's position.
+   * @throws IllegalArgumentException if the board has more than 32 pieces, or black to move and no black king
+   */
+  public static void encode(Board board, ByteBuffer buffer, int index) {
+    Position position = board.getPosition();
+    long occupancy = position.getOccupancy();
+    if (Long.bitCount(occupancy) > 32) {
+      throw new IllegalArgumentException("Position has more than 32 pieces");
+    }
+    if (board.getCurrentTurn() == PieceColor.BLACK && position.getBitboard(PieceColor.BLACK, PieceType.KING) == 0) {
+      throw new IllegalArgumentException("Position has black to move but no black king");
+    }
+    buffer.putLong(index, buffer.order() == ByteOrder.BIG_ENDIAN ? occupancy : Long.reverseBytes(occupancy));
+
+    int castlingRights = board.getCastlingRights();
+    int enPassantPawn = enPassantPawnSquare(board);
+    int nibbleIndex = 0;
+    int packed = 0;
+    long pieces = occupancy;
+    while (pieces != 0) {
+      int square = Long.numberOfTrailingZeros(pieces);
+      pieces &= pieces - 1;
+      int code = code(board, position.get(square), square, castlingRights, enPassantPawn);
+      if ((nibbleIndex & 1) == 0) {
+        packed = code;
+      } else {
+        buffer.put(index + 8 + nibbleIndex / 2, (byte) (packed | code << 4));
+      }
+      nibbleIndex++;
+    }
+    if ((nibbleIndex & 1) == 1) {
+      buffer.put(index + 8 + nibbleIndex / 2, (byte) packed);
+      nibbleIndex++;
+    }
+    for (int i = 8 + nibbleIndex / 2; i < BYTES; i++) {
+      buffer.put(index + i, (byte) 0);
+    }
+  }
+
+  /**
+   * Read a board at the buffer's position and advance it by {@link #BYTES}.
+   */
+  public static Board decode(ByteBuffer buffer) {
+    Board board = decode(buffer, buffer.position());
+    buffer.position(buffer.position() + BYTES);
+    return board;
+  }
+
+  /**
+   * Read a board at {@code index} without changing the buffer's position.
+   * @throws IllegalArgumentException if the bytes do not hold a valid encoding
+   */
+  public static Board decode(ByteBuffer buffer, int index) {
+    long occupancy = buffer.getLong(index);
+    if (buffer.order() != ByteOrder.BIG_ENDIAN) {
+      occupancy = Long.reverseBytes(occupancy);
+    }
+    if (Long.bitCount(occupancy) > 32) {
+      throw new IllegalArgumentException("Encoded position has more than 32 pieces");
+    }
+
+    Position position = new Position();
+    PieceColor turn = PieceColor.WHITE;
+    int castlingRights = 0;
+    int enPassantSquare = -1;
+    int nibbleIndex = 0;
+    long pieces = occupancy;
+    while (pieces != 0) {
+      int square = Long.numberOfTrailingZeros(pieces);
+      pieces &= pieces - 1;
+      int code = buffer.get(index + 8 + nibbleIndex / 2) >>> ((nibbleIndex & 1) * 4) & 0xf;
+      nibbleIndex++;
+
+      Piece piece;
+      if (code < 2 * PIECE_TYPES) {
+        piece = Piece.of(TYPES[code % PIECE_TYPES], code < PIECE_TYPES ? PieceColor.WHITE : PieceColor.BLACK);
+      } else if (code == EN_PASSANT_PAWN) {
+        PieceColor color = Position.rank(square) == 3 ? PieceColor.WHITE : PieceColor.BLACK;
+        piece = Piece.of(PieceType.PAWN, color);
+        enPassantSquare = square + (color == PieceColor.WHITE ? -8 : 8);
+      } else if (code == BLACK_KING_TO_MOVE) {
+        piece = Piece.of(PieceType.KING, PieceColor.BLACK);
+        turn = PieceColor.BLACK;
+      } else {
+        boolean white = code == WHITE_CASTLING_ROOK;
+        piece = Piece.of(PieceType.ROOK, white ? PieceColor.WHITE : PieceColor.BLACK);
+        if (Position.file(square) == 7) {
+          castlingRights |= white ? Board.WHITE_KINGSIDE_CASTLE : Board.BLACK_KINGSIDE_CASTLE;
+        } else if (Position.file(square) == 0) {
+          castlingRights |= white ? Board.WHITE_QUEENSIDE_CASTLE : Board.BLACK_QUEENSIDE_CASTLE;
+        }
+      }
+      position.place(square, piece);
+    }
+
+    position.rebuildAttacks();
+    return Board.of(position, turn, castlingRights, enPassantSquare);
+  }
+
+  private static int code(Board board, Piece piece, int square, int castlingRights, int enPassantPawn) {
+    PieceColor color = piece.getColor();
+    boolean white = color == PieceColor.WHITE;
+    switch (piece.getType()) {
+      case PAWN:
+        if (square == enPassantPawn) {
+          return EN_PASSANT_PAWN;
+        }
+        break;
+      case ROOK:
+        int homeRank = color.getStartRow() - 1;
+        if ((square == Position.square(7, homeRank)
+                && (castlingRights & (white ? Board.WHITE_KINGSIDE_CASTLE : Board.BLACK_KINGSIDE_CASTLE)) != 0)
+            || (square == Position.square(0, homeRank)
+                && (castlingRights & (white ? Board.WHITE_QUEENSIDE_CASTLE : Board.BLACK_QUEENSIDE_CASTLE)) != 0)) {
+          return white ? WHITE_CASTLING_ROOK : BLACK_CASTLING_ROOK;
+        }
+        break;
+      case KING:
+        if (!white && board.getCurrentTurn() == PieceColor.BLACK) {
+          return BLACK_KING_TO_MOVE;
+        }
+        break;
+      default:
+        break;
+    }
+    return (white ? 0 : PIECE_TYPES) + piece.getType().ordinal();
+  }
+
+  /**
+   * @return the square of the pawn that can be captured en passant, or -1
+   */
+  private static int enPassantPawnSquare(Board board) {
+    int target = board.getEnPassantSquare();
+    if (target < 0) {
+      return -1;
+    }
+    int pawnSquare = Position.rank(target) == 2 ? target + 8 : target - 8;
+    Piece pawn = board.getPosition().get(pawnSquare);
+    return pawn != null && pawn.getType() == PieceType.PAWN ? pawnSquare : -1;
+  }
+}
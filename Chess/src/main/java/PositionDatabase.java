@@ -0,0 +1,236 @@
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * On-disk store of analysed positions, memory mapped through a {@link FileChannel} so a lookup touches only
+ * the slots it probes rather than reading the file.
+ *
+ * The file is a 64-byte header followed by a power-of-two number of 64-byte slots, an open-addressing hash
+ * table keyed by {@link Board#getZobristKey()} with linear probing. Key 0 marks an empty slot. A slot holds
+ * an unused word, the key, the {@link PositionCodec} record, score, best move and visit count.
+ *
+ * Writes are serialized on this object; reads take no lock. Each slot is guarded by a seqlock: a writer makes
+ * its sequence number odd, writes the fields and makes it even again, and a reader retries a slot whose
+ * number was odd or changed while it read. Readers therefore never see half of an update, even of an existing
+ * entry. The sequence numbers live in memory, one per stripe of slots, not in the file, so a writer that
+ * crashed mid-update cannot leave a slot locked for later runs.
+ *
+ * The table does not grow; {@link #put} fails once three quarters of the slots are in use.
+ */
+public final class PositionDatabase implements AutoCloseable {
+  private static final long MAGIC = 0x4348455353504442L; // "CHESSPDB"
+  private static final int VERSION = 1;
+  private static final int HEADER_BYTES = 64;
+  private static final int SLOT_BYTES = 64;
+  private static final int MAX_CAPACITY = 1 << 24;
+  private static final int MAX_SEQUENCE_STRIPES = 4096;
+
+  private static final int MAGIC_OFFSET = 0;
+  private static final int VERSION_OFFSET = 8;
+  private static final int CAPACITY_OFFSET = 12;
+  private static final int SIZE_OFFSET = 16;
+
+  private static final int KEY_OFFSET = 8;
+  private static final int POSITION_OFFSET = 16;
+  private static final int SCORE_OFFSET = POSITION_OFFSET + PositionCodec.BYTES;
+  private static final int BEST_MOVE_OFFSET = SCORE_OFFSET + 4;
+  private static final int VISITS_OFFSET = BEST_MOVE_OFFSET + 4;
+
+  private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private final int capacity;
+  private final int mask;
+  private final AtomicLongArray sequences;
+  private final int stripeMask;
+  // Scratch record for the position being put, guarded by the database's monitor
+  private final ByteBuffer encoded = ByteBuffer.allocate(PositionCodec.BYTES);
+
+  private PositionDatabase(FileChannel channel, MappedByteBuffer buffer, int capacity) {
+    this.channel = channel;
+    this.buffer = buffer;
+    this.capacity = capacity;
+    this.mask = capacity - 1;
+    int stripes = Math.min(capacity, MAX_SEQUENCE_STRIPES);
+    this.sequences = new AtomicLongArray(stripes);
+    this.stripeMask = stripes - 1;
+  }
+
+  /**
+   * Open the database at {@code path}, creating it with room for {@code capacity} slots (rounded up to a
+   * power of two) if the file does not exist. The capacity of an existing file is kept.
+   */
+  public static PositionDatabase open(Path path, int capacity) throws IOException {
+    if (capacity < 1 || capacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException("Capacity must be between 1 and " + MAX_CAPACITY);
+    }
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+    try {
+      boolean created = channel.size() == 0;
+      if (created) {
+        capacity = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+      } else {
+        capacity = readCapacity(channel, path);
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + (long) capacity * SLOT_BYTES);
+      if (created) {
+        buffer.putLong(MAGIC_OFFSET, MAGIC);
+        buffer.putInt(VERSION_OFFSET, VERSION);
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+      }
+      return new PositionDatabase(channel, buffer, capacity);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private static int readCapacity(FileChannel channel, Path path) throws IOException {
+    if (channel.size() < HEADER_BYTES) {
+      throw new IOException(path + " is not a position database");
+    }
+    ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+    int capacity = header.getInt(CAPACITY_OFFSET);
+    if (header.getLong(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION
+        || capacity > MAX_CAPACITY || Integer.bitCount(capacity) != 1
+        || channel.size() < HEADER_BYTES + (long) capacity * SLOT_BYTES) {
+      throw new IOException(path + " is not a position database");
+    }
+    return capacity;
+  }
+
+  /**
+   * Store the analysis of the board's position, replacing what was stored for it before.
+   * @throws IllegalArgumentException if the position cannot be encoded, see {@link PositionCodec}
+   * @throws IllegalStateException if the position is new and the table is full
+   */
+  public synchronized void put(Board board, int score, int bestMove, long visits) {
+    // Encoded before the slot's stripe is locked, so a position the codec rejects leaves both untouched
+    PositionCodec.encode(board, encoded, 0);
+    long key = board.getZobristKey();
+    int slot = findSlotForWrite(key);
+    int offset = slotOffset(slot);
+    boolean added = buffer.getLong(offset + KEY_OFFSET) == 0;
+    if (added && size() >= capacity - capacity / 4) {
+      throw new IllegalStateException("Position database is full");
+    }
+
+    int stripe = slot & stripeMask;
+    long sequence = sequences.getPlain(stripe);
+    sequences.setOpaque(stripe, sequence + 1);
+    VarHandle.storeStoreFence();
+    buffer.putLong(offset + KEY_OFFSET, key);
+    for (int i = 0; i < PositionCodec.BYTES; i += 8) {
+      buffer.putLong(offset + POSITION_OFFSET + i, encoded.getLong(i));
+    }
+    buffer.putInt(offset + SCORE_OFFSET, score);
+    buffer.putInt(offset + BEST_MOVE_OFFSET, bestMove);
+    buffer.putLong(offset + VISITS_OFFSET, visits);
+    sequences.setRelease(stripe, sequence + 2);
+
+    if (added) {
+      LONGS.setRelease(buffer, SIZE_OFFSET, size() + 1L);
+    }
+  }
+
+  public Optional<AnalysedPosition> get(Board board) {
+    return get(board.getZobristKey());
+  }
+
+  public Optional<AnalysedPosition> get(long key) {
+    if (key == 0) {
+      return Optional.empty();
+    }
+    int slot = (int) key & mask;
+    while (true) {
+      int offset = slotOffset(slot);
+      int stripe = slot & stripeMask;
+      long sequence = sequences.getAcquire(stripe);
+      if ((sequence & 1) != 0) {
+        Thread.onSpinWait();
+        continue;
+      }
+      long storedKey = buffer.getLong(offset + KEY_OFFSET);
+      long position0 = buffer.getLong(offset + POSITION_OFFSET);
+      long position1 = buffer.getLong(offset + POSITION_OFFSET + 8);
+      long position2 = buffer.getLong(offset + POSITION_OFFSET + 16);
+      int score = buffer.getInt(offset + SCORE_OFFSET);
+      int bestMove = buffer.getInt(offset + BEST_MOVE_OFFSET);
+      long visits = buffer.getLong(offset + VISITS_OFFSET);
+      VarHandle.loadLoadFence();
+      if (sequences.getOpaque(stripe) != sequence) {
+        continue;
+      }
+
+      if (storedKey == 0) {
+        return Optional.empty();
+      }
+      if (storedKey == key) {
+        ByteBuffer record = ByteBuffer.allocate(PositionCodec.BYTES).putLong(position0).putLong(position1).putLong(position2);
+        return Optional.of(ImmutableAnalysedPosition.builder()
+            .zobristKey(key)
+            .board(PositionCodec.decode(record, 0))
+            .score(score)
+            .bestMove(bestMove)
+            .visits(visits)
+            .build());
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  /**
+   * @return the number of stored positions
+   */
+  public int size() {
+    return (int) (long) LONGS.getAcquire(buffer, SIZE_OFFSET);
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Write changes through to the storage device.
+   */
+  public synchronized void force() {
+    buffer.force();
+  }
+
+  /**
+   * Flush and close the file. The mapping itself is released when it is garbage collected.
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    buffer.force();
+    channel.close();
+  }
+
+  private int findSlotForWrite(long key) {
+    if (key == 0) {
+      throw new IllegalArgumentException("Zobrist key 0 is reserved for empty slots");
+    }
+    int slot = (int) key & mask;
+    while (true) {
+      long storedKey = buffer.getLong(slotOffset(slot) + KEY_OFFSET);
+      if (storedKey == 0 || storedKey == key) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+  }
+
+  private static int slotOffset(int slot) {
+    return HEADER_BYTES + slot * SLOT_BYTES;
+  }
+}
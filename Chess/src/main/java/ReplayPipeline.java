@@ -0,0 +1,217 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates a PGN corpus by replaying every game, in parallel.
+ *
+ * The calling thread reads the corpus in blocks and cuts each block at the last game boundary into a chunk;
+ * the rest is carried over to the next block. Every chunk becomes a task on a {@link ForkJoinPool} that
+ * replays its games with its own {@link PgnReader}, and so its own boards, and tallies what it saw. Tallies
+ * are merged in corpus order. At most two chunks per worker are in flight, so memory stays bounded however
+ * large the corpus is.
+ *
+ * A game boundary is a line starting with a tag pair or with move number "1." whose previous non-blank
+ * line is not a tag pair, which also splits corpora of bare move lists without tags.
+ */
+public final class ReplayPipeline {
+  /** How many error messages the statistics keep; the count covers all of them. */
+  public static final int MAX_REPORTED_ERRORS = 100;
+  private static final int DEFAULT_CHUNK_BYTES = 1 << 20;
+
+  private final ForkJoinPool pool;
+  private final int chunkBytes;
+
+  public ReplayPipeline() {
+    this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_BYTES);
+  }
+
+  /**
+   * @param chunkBytes the size of the blocks the corpus is read in; a chunk grows past it only to hold a
+   * game that does not fit
+   */
+  public ReplayPipeline(ForkJoinPool pool, int chunkBytes) {
+    if (chunkBytes < 1) {
+      throw new IllegalArgumentException("Chunks need at least one byte");
+    }
+    this.pool = pool;
+    this.chunkBytes = chunkBytes;
+  }
+
+  /**
+   * Replay {@code ReplayPipeline <corpus.pgn> [threads]} and print the statistics.
+   */
+  public static void main(String[] args) throws IOException {
+    ForkJoinPool pool = args.length > 1 ? new ForkJoinPool(Integer.parseInt(args[1])) : ForkJoinPool.commonPool();
+    ReplayStatistics statistics = new ReplayPipeline(pool, DEFAULT_CHUNK_BYTES).run(Paths.get(args[0]));
+    System.out.printf("%d games, %d invalid, %.1f plies on average, results %s, %d games/s%n",
+        statistics.getGames(), statistics.getInvalidGames(), statistics.getAveragePlies(), statistics.getResults(),
+        statistics.getGamesPerSecond());
+    statistics.getErrors().forEach(System.out::println);
+  }
+
+  public ReplayStatistics run(Path corpus) throws IOException {
+    try (FileChannel channel = FileChannel.open(corpus, StandardOpenOption.READ)) {
+      return run(channel);
+    }
+  }
+
+  /**
+   * Replay all games in {@code corpus}; the channel is read to the end but not closed.
+   */
+  public ReplayStatistics run(ReadableByteChannel corpus) throws IOException {
+    long startNanos = System.nanoTime();
+    Tally total = new Tally();
+    Deque<ForkJoinTask<Tally>> inFlight = new ArrayDeque<>();
+    int maxInFlight = pool.getParallelism() * 2;
+    byte[] block = new byte[chunkBytes];
+    int filled = 0;
+    int firstLine = 1;
+    long bytes = 0;
+    boolean endOfInput = false;
+    try {
+      while (!endOfInput || filled > 0) {
+        while (!endOfInput && filled < block.length) {
+          int count = corpus.read(ByteBuffer.wrap(block, filled, block.length - filled));
+          endOfInput = count < 0;
+          filled += Math.max(count, 0);
+        }
+        int split = endOfInput ? filled : lastGameStart(block, filled);
+        if (split == 0) {
+          // A single game larger than the block
+          block = Arrays.copyOf(block, block.length * 2);
+          continue;
+        }
+        byte[] chunk = Arrays.copyOf(block, split);
+        System.arraycopy(block, split, block, 0, filled - split);
+        filled -= split;
+        bytes += split;
+        int chunkFirstLine = firstLine;
+        firstLine += countLines(chunk);
+
+        if (inFlight.size() >= maxInFlight) {
+          total.merge(inFlight.removeFirst().join());
+        }
+        inFlight.addLast(pool.submit(() -> replay(chunk, chunkFirstLine)));
+      }
+      while (!inFlight.isEmpty()) {
+        total.merge(inFlight.removeFirst().join());
+      }
+    } finally {
+      inFlight.forEach(task -> task.cancel(false));
+    }
+    return total.toStatistics(bytes, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+  }
+
+  private static Tally replay(byte[] chunk, int firstLine) {
+    Tally tally = new Tally();
+    PgnReader reader = new PgnReader(Channels.newChannel(new ByteArrayInputStream(chunk)), firstLine);
+    while (true) {
+      try {
+        if (!reader.hasNext()) {
+          return tally;
+        }
+        tally.add(reader.next());
+      } catch (IllegalArgumentException e) {
+        tally.addError(e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * @return the offset of the last game boundary in {@code block[0, length)} other than the start, or 0
+   */
+  static int lastGameStart(byte[] block, int length) {
+    int last = 0;
+    boolean seenContent = false;
+    boolean previousIsTag = false;
+    for (int lineStart = 0; lineStart < length; ) {
+      byte first = block[lineStart];
+      boolean blank = first == '\n' || first == '\r';
+      if (!blank) {
+        boolean opensGame = first == '[' || (first == '1' && lineStart + 1 < length && block[lineStart + 1] == '.');
+        if (opensGame && seenContent && !previousIsTag) {
+          last = lineStart;
+        }
+        seenContent = true;
+        previousIsTag = first == '[';
+      }
+      int lineEnd = lineStart;
+      while (lineEnd < length && block[lineEnd] != '\n') {
+        lineEnd++;
+      }
+      lineStart = lineEnd + 1;
+    }
+    return last;
+  }
+
+  private static int countLines(byte[] chunk) {
+    int lines = 0;
+    for (byte b : chunk) {
+      if (b == '\n') {
+        lines++;
+      }
+    }
+    return lines;
+  }
+
+  /**
+   * Mutable statistics of one chunk, or of all chunks merged so far.
+   */
+  private static final class Tally {
+    private long games;
+    private long invalidGames;
+    private final List<String> errors = new ArrayList<>();
+    private final Map<String, Long> results = new TreeMap<>();
+    private long plies;
+
+    void add(Game game) {
+      games++;
+      plies += game.getMoves().size();
+      results.merge(game.getResult(), 1L, Long::sum);
+    }
+
+    void addError(String message) {
+      invalidGames++;
+      if (errors.size() < MAX_REPORTED_ERRORS) {
+        errors.add(message);
+      }
+    }
+
+    void merge(Tally other) {
+      games += other.games;
+      invalidGames += other.invalidGames;
+      errors.addAll(other.errors.subList(0, Math.min(other.errors.size(), MAX_REPORTED_ERRORS - errors.size())));
+      other.results.forEach((result, count) -> results.merge(result, count, Long::sum));
+      plies += other.plies;
+    }
+
+    ReplayStatistics toStatistics(long bytes, long elapsedMillis) {
+      return ImmutableReplayStatistics.builder()
+          .games(games)
+          .invalidGames(invalidGames)
+          .errors(errors)
+          .results(results)
+          .plies(plies)
+          .bytes(bytes)
+          .elapsedMillis(elapsedMillis)
+          .build();
+    }
+  }
+}
@@ -0,0 +1,42 @@
+import java.util.List;
+import java.util.Map;
+
+import org.immutables.value.Value.Immutable;
+
+/**
+ * What {@link ReplayPipeline} found in a corpus.
+ */
+@Immutable
+public interface ReplayStatistics {
+  /**
+   * @return games replayed to the end without an error
+   */
+  long getGames();
+  /**
+   * @return games abandoned on an illegal move or malformed record
+   */
+  long getInvalidGames();
+  /**
+   * @return the first error messages, at most {@link ReplayPipeline#MAX_REPORTED_ERRORS}
+   */
+  List<String> getErrors();
+  /**
+   * @return the number of valid games per result, "1-0", "0-1", "1/2-1/2" or "*"
+   */
+  Map<String, Long> getResults();
+  /**
+   * @return half-moves over all valid games
+   */
+  long getPlies();
+  long getBytes();
+  long getElapsedMillis();
+
+  default double getAveragePlies() {
+    return getGames() == 0 ? 0 : (double) getPlies() / getGames();
+  }
+
+  default long getGamesPerSecond() {
+    long games = getGames() + getInvalidGames();
+    return getElapsedMillis() == 0 ? games * 1000 : games * 1000 / getElapsedMillis();
+  }
+}
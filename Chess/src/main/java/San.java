@@ -0,0 +1,180 @@
+import pieces.Piece;
+import pieces.PieceColor;
+import pieces.PieceType;
+
+/**
+ * Standard Algebraic Notation, the move format of PGN, e.g. "Nbd7", "exd6", "e8=Q+" or "O-O-O".
+ * Both directions work against the legal moves of a {@link Board}, which is left as it was found.
+ */
+final class San {
+  private static final String PIECE_LETTERS = "PNBRQK";
+
+  private San() {
+  }
+
+  /**
+   * Find the legal move written as {@code san[start, end)}. Check and annotation suffixes are ignored, and
+   * castling may be written with zeros as well as letters.
+   * @param moves scratch space of at least {@link Move#MAX_MOVES}
+   * @throws IllegalArgumentException if the text is not a move, or matches no or several legal moves
+   */
+  static int parse(Board board, CharSequence san, int start, int end, int[] moves) {
+    int last = end;
+    while (last > start && "+#!?".indexOf(san.charAt(last - 1)) >= 0) {
+      last--;
+    }
+    int count = MoveGenerator.generateLegalMoves(board, moves);
+
+    if (last - start >= 3 && (san.charAt(start) == 'O' || san.charAt(start) == '0')) {
+      boolean queenside = last - start == 5;
+      if (!isCastling(san, start, last)) {
+        throw invalid(san, start, end, "not a move");
+      }
+      for (int i = 0; i < count; i++) {
+        if (Move.isCastle(moves[i]) && (Move.to(moves[i]) < Move.from(moves[i])) == queenside) {
+          return moves[i];
+        }
+      }
+      throw invalid(san, start, end, "castling is not legal");
+    }
+
+    int i = start;
+    PieceType type = PieceType.PAWN;
+    int typeIndex = last > start ? PIECE_LETTERS.indexOf(san.charAt(start)) : -1;
+    if (typeIndex > 0) {
+      type = PieceType.values()[typeIndex];
+      i++;
+    }
+
+    PieceType promotion = null;
+    if (type == PieceType.PAWN && last - i >= 3) {
+      int promotionIndex = PIECE_LETTERS.indexOf(san.charAt(last - 1));
+      if (promotionIndex > 0 && promotionIndex < 5) {
+        promotion = PieceType.values()[promotionIndex];
+        last -= san.charAt(last - 2) == '=' ? 2 : 1;
+      }
+    }
+
+    if (last - i < 2 || !isSquare(san, last - 2)) {
+      throw invalid(san, start, end, "no target square");
+    }
+    int to = Position.square(san.charAt(last - 2) - 'a', san.charAt(last - 1) - '1');
+    int fromFile = -1;
+    int fromRank = -1;
+    for (; i < last - 2; i++) {
+      char c = san.charAt(i);
+      if (c >= 'a' && c <= 'h') {
+        fromFile = c - 'a';
+      } else if (c >= '1' && c <= '8') {
+        fromRank = c - '1';
+      } else if (c != 'x' && c != '-') {
+        throw invalid(san, start, end, "unexpected '" + c + "'");
+      }
+    }
+
+    Position position = board.getPosition();
+    int match = Move.NONE;
+    for (int m = 0; m < count; m++) {
+      int move = moves[m];
+      int from = Move.from(move);
+      if (Move.to(move) != to || position.get(from).getType() != type || Move.getPromotion(move) != promotion
+          || (fromFile >= 0 && Position.file(from) != fromFile) || (fromRank >= 0 && Position.rank(from) != fromRank)) {
+        continue;
+      }
+      if (match != Move.NONE) {
+        throw invalid(san, start, end, "ambiguous");
+      }
+      match = move;
+    }
+    if (match == Move.NONE) {
+      throw invalid(san, start, end, "not a legal move");
+    }
+    return match;
+  }
+
+  /**
+   * Append {@code move}, which must be legal on {@code board}, with the least disambiguation needed and a
+   * check or mate suffix.
+   * @param moves scratch space of at least {@link Move#MAX_MOVES}
+   */
+  static StringBuilder append(Board board, int move, StringBuilder sb, int[] moves) {
+    int from = Move.from(move);
+    int to = Move.to(move);
+    Position position = board.getPosition();
+    Piece piece = position.get(from);
+
+    if (Move.isCastle(move)) {
+      sb.append(to < from ? "O-O-O" : "O-O");
+    } else {
+      if (piece.getType() == PieceType.PAWN) {
+        if (Move.isCapture(move)) {
+          sb.append((char) ('a' + Position.file(from)));
+        }
+      } else {
+        sb.append(PIECE_LETTERS.charAt(piece.getType().ordinal()));
+        appendDisambiguation(board, move, piece.getType(), sb, moves);
+      }
+      if (Move.isCapture(move)) {
+        sb.append('x');
+      }
+      sb.append((char) ('a' + Position.file(to))).append((char) ('1' + Position.rank(to)));
+      if (Move.isPromotion(move)) {
+        sb.append('=').append(PIECE_LETTERS.charAt(Move.getPromotion(move).ordinal()));
+      }
+    }
+
+    board.makeMove(move);
+    PieceColor opponent = board.getCurrentTurn();
+    if (board.isInCheck(opponent)) {
+      sb.append(MoveGenerator.generateLegalMoves(board, moves) == 0 ? '#' : '+');
+    }
+    board.unmakeMove();
+    return sb;
+  }
+
+  private static void appendDisambiguation(Board board, int move, PieceType type, StringBuilder sb, int[] moves) {
+    int from = Move.from(move);
+    boolean ambiguous = false;
+    boolean sameFile = false;
+    boolean sameRank = false;
+    int count = MoveGenerator.generateLegalMoves(board, moves);
+    for (int i = 0; i < count; i++) {
+      int other = Move.from(moves[i]);
+      if (Move.to(moves[i]) == Move.to(move) && other != from && board.getPosition().get(other).getType() == type) {
+        ambiguous = true;
+        sameFile |= Position.file(other) == Position.file(from);
+        sameRank |= Position.rank(other) == Position.rank(from);
+      }
+    }
+    if (ambiguous && (!sameFile || sameRank)) {
+      sb.append((char) ('a' + Position.file(from)));
+    }
+    if (sameFile) {
+      sb.append((char) ('1' + Position.rank(from)));
+    }
+  }
+
+  private static boolean isCastling(CharSequence san, int start, int end) {
+    int length = end - start;
+    if (length != 3 && length != 5) {
+      return false;
+    }
+    char o = san.charAt(start);
+    for (int i = start; i < end; i++) {
+      if (san.charAt(i) != ((i - start) % 2 == 0 ? o : '-')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isSquare(CharSequence san, int i) {
+    char file = san.charAt(i);
+    char rank = san.charAt(i + 1);
+    return file >= 'a' && file <= 'h' && rank >= '1' && rank <= '8';
+  }
+
+  private static IllegalArgumentException invalid(CharSequence san, int start, int end, String reason) {
+    return new IllegalArgumentException("Invalid SAN \"" + san.subSequence(start, end) + "\": " + reason);
+  }
+}
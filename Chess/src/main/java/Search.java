@@ -0,0 +1,337 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import pieces.PieceColor;
+
+/**
+ * Chooses a move for the side to move with an iteratively deepened alpha-beta (negamax) search followed by
+ * a capture-only quiescence search at the leaves. Moves are tried in the order of a {@link MovePicker}: hash
+ * move, captures, killer moves, then quiet moves by their history. Moves are made and unmade on the given
+ * {@link Board}, which is back in its original state when {@link #search} returns. Results are cached in a
+ * {@link TranspositionTable}, which may be shared with other searches. A search instance is not thread safe,
+ * apart from {@link #stop()}.
+ */
+public final class Search {
+  static final int MAX_PLY = 128;
+  static final int INFINITY = 32_000;
+  static final int MATE_SCORE = 30_000;
+
+  static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+  // Nodes between checks of the clock and the stop flag; a power of two
+  private static final int CHECK_INTERVAL = 1024;
+  private static final int MAX_HISTORY = 1 << 20;
+
+  private final Board board;
+  private final TranspositionTable table;
+  private final Evaluator evaluator = new Evaluator();
+  private final MovePicker[] movePickers = new MovePicker[MAX_PLY];
+  // Two quiet moves per ply that last caused a cutoff there
+  private final int[][] killers = new int[MAX_PLY][2];
+  // Per side, indexed by from * 64 + to: how much quiet moves contributed to cutoffs, weighted by depth
+  private final int[][] history = new int[2][64 * 64];
+  private final int[][] principalVariations = new int[MAX_PLY][MAX_PLY];
+  private final int[] principalVariationLengths = new int[MAX_PLY];
+
+  private final AtomicBoolean stopSignal;
+  private final int workerIndex;
+  private boolean aborted;
+  private long nodes;
+  private long maxNodes;
+  private long startNanos;
+  private long timeBudgetNanos;
+
+  public Search(Board board) {
+    this(board, new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+  }
+
+  public Search(Board board, TranspositionTable table) {
+    this(board, table, new AtomicBoolean(), 0);
+  }
+
+  /**
+   * A worker of a {@link ParallelSearch}: workers share the table and the stop signal, and each worker
+   * other than the first perturbs its root move order and starting depth so the workers diverge.
+   */
+  Search(Board board, TranspositionTable table, AtomicBoolean stopSignal, int workerIndex) {
+    this.board = board;
+    this.table = table;
+    this.stopSignal = stopSignal;
+    this.workerIndex = workerIndex;
+    for (int ply = 0; ply < MAX_PLY; ply++) {
+      movePickers[ply] = new MovePicker();
+    }
+  }
+
+  /**
+   * Ask a running search to return as soon as possible with the result of its last completed iteration.
+   */
+  public void stop() {
+    stopSignal.set(true);
+  }
+
+  /**
+   * @return whether {@code score} means a forced mate, for the side to move if positive
+   */
+  public static boolean isMateScore(int score) {
+    return Math.abs(score) >= MATE_SCORE - MAX_PLY;
+  }
+
+  /**
+   * Search until the limits are reached or {@link #stop()} is called. If the budget runs out before the first
+   * iteration completes, the first legal move is returned with depth 0.
+   */
+  public SearchResult search(SearchLimits limits) {
+    stopSignal.set(false);
+    table.newSearch();
+    return run(limits);
+  }
+
+  /**
+   * Search without resetting the stop signal or starting a new table generation, which a
+   * {@link ParallelSearch} does once for all of its workers.
+   */
+  SearchResult run(SearchLimits limits) {
+    startNanos = System.nanoTime();
+    timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(limits.getTimeMillis());
+    maxNodes = limits.getMaxNodes();
+    nodes = 0;
+    aborted = false;
+    // Killers belong to the plies of the previous search's tree; history stays useful but is made to count less
+    for (int[] plyKillers : killers) {
+      Arrays.fill(plyKillers, Move.NONE);
+    }
+    ageHistory();
+
+    int[] rootMoves = new int[Move.MAX_MOVES];
+    int rootCount = MoveGenerator.generateLegalMoves(board, rootMoves);
+    if (rootCount == 0) {
+      return ImmutableSearchResult.builder()
+          .score(board.isInCheck(board.getCurrentTurn()) ? -MATE_SCORE : 0)
+          .build();
+    }
+
+    ImmutableSearchResult.Builder result = ImmutableSearchResult.builder()
+        .bestMove(rootMoves[0])
+        .principalVariation(List.of(rootMoves[0]));
+    if (workerIndex > 0) {
+      rotate(rootMoves, rootCount, workerIndex % rootCount);
+    }
+    for (int depth = 1 + workerIndex % 2; depth <= limits.getMaxDepth(); depth++) {
+      int score = searchRoot(rootMoves, rootCount, depth);
+      if (aborted) {
+        break;
+      }
+      result.bestMove(rootMoves[0])
+          .principalVariation(principalVariation())
+          .score(score)
+          .depth(depth);
+      if (isMateScore(score)) {
+        break;
+      }
+    }
+    return result.nodes(nodes)
+        .elapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos))
+        .build();
+  }
+
+  /**
+   * Search every root move and move the best one to the front, so the next iteration tries it first.
+   */
+  private int searchRoot(int[] rootMoves, int rootCount, int depth) {
+    int alpha = -INFINITY;
+    int bestIndex = 0;
+    for (int i = 0; i < rootCount; i++) {
+      board.makeMove(rootMoves[i]);
+      countNode();
+      int score = -negamax(depth - 1, 1, -INFINITY, -alpha);
+      board.unmakeMove();
+      if (aborted) {
+        return alpha;
+      }
+      if (score > alpha) {
+        alpha = score;
+        bestIndex = i;
+        updatePrincipalVariation(0, rootMoves[i]);
+      }
+    }
+    int best = rootMoves[bestIndex];
+    System.arraycopy(rootMoves, 0, rootMoves, 1, bestIndex);
+    rootMoves[0] = best;
+    return alpha;
+  }
+
+  private int negamax(int depth, int ply, int alpha, int beta) {
+    principalVariationLengths[ply] = 0;
+    // The move leading here may have used up the budget; its score is thrown away
+    if (aborted) {
+      return 0;
+    }
+    if (depth <= 0) {
+      return quiescence(ply, alpha, beta);
+    }
+    if (ply >= MAX_PLY - 1) {
+      return evaluator.evaluate(board);
+    }
+
+    long key = board.getZobristKey();
+    long entry = table.probe(key);
+    int hashMove = Move.NONE;
+    if (entry != 0) {
+      hashMove = TranspositionTable.move(entry);
+      if (TranspositionTable.depth(entry) >= depth) {
+        int score = TranspositionTable.score(entry, ply);
+        int bound = TranspositionTable.bound(entry);
+        if (bound == TranspositionTable.EXACT
+            || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+            || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+          return score;
+        }
+      }
+    }
+
+    PieceColor side = board.getCurrentTurn();
+    MovePicker picker = movePickers[ply];
+    picker.reset(board, hashMove, killers[ply], history[side.ordinal()]);
+    int originalAlpha = alpha;
+    int bestScore = -INFINITY;
+    int bestMove = Move.NONE;
+    int legalMoves = 0;
+    for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+      if (!MoveGenerator.isLegal(board.getPosition(), move, side)) {
+        continue;
+      }
+      legalMoves++;
+      board.makeMove(move);
+      countNode();
+      int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+      board.unmakeMove();
+      if (aborted) {
+        return 0;
+      }
+      if (score > bestScore) {
+        bestScore = score;
+        bestMove = move;
+      }
+      if (score >= beta) {
+        if (!MovePicker.isTactical(move)) {
+          rememberCutoff(side, ply, move, depth);
+        }
+        break;
+      }
+      if (score > alpha) {
+        alpha = score;
+        updatePrincipalVariation(ply, move);
+      }
+    }
+    if (legalMoves == 0) {
+      // Mates found closer to the root score higher, so the shortest mate is preferred
+      bestScore = board.isInCheck(side) ? -MATE_SCORE + ply : 0;
+    }
+
+    int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND
+        : bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+    table.store(key, bestMove, bestScore, depth, bound, ply);
+    return bestScore;
+  }
+
+  /**
+   * Resolve captures and promotions until the position is quiet, so the static evaluation is not taken
+   * in the middle of an exchange. The side to move may always decline to capture ("stand pat").
+   */
+  private int quiescence(int ply, int alpha, int beta) {
+    principalVariationLengths[ply] = 0;
+    if (aborted) {
+      return 0;
+    }
+    int standPat = evaluator.evaluate(board);
+    if (standPat >= beta || ply >= MAX_PLY - 1) {
+      return standPat;
+    }
+    alpha = Math.max(alpha, standPat);
+
+    PieceColor side = board.getCurrentTurn();
+    MovePicker picker = movePickers[ply];
+    picker.resetCaptures(board);
+    for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+      if (!MoveGenerator.isLegal(board.getPosition(), move, side)) {
+        continue;
+      }
+      board.makeMove(move);
+      countNode();
+      int score = -quiescence(ply + 1, -beta, -alpha);
+      board.unmakeMove();
+      if (aborted) {
+        return 0;
+      }
+      if (score >= beta) {
+        return score;
+      }
+      alpha = Math.max(alpha, score);
+    }
+    return alpha;
+  }
+
+  /**
+   * A quiet move refuted the previous move: make it a killer of this ply and raise its history, by more the
+   * deeper the cutoff since those save more work.
+   */
+  private void rememberCutoff(PieceColor side, int ply, int move, int depth) {
+    int[] plyKillers = killers[ply];
+    if (plyKillers[0] != move) {
+      plyKillers[1] = plyKillers[0];
+      plyKillers[0] = move;
+    }
+    int[] sideHistory = history[side.ordinal()];
+    int index = Move.from(move) * 64 + Move.to(move);
+    sideHistory[index] += depth * depth;
+    if (sideHistory[index] > MAX_HISTORY) {
+      ageHistory();
+    }
+  }
+
+  /**
+   * Halve every history score, keeping their order while letting recent cutoffs outweigh old ones.
+   */
+  private void ageHistory() {
+    for (int[] sideHistory : history) {
+      for (int i = 0; i < sideHistory.length; i++) {
+        sideHistory[i] /= 2;
+      }
+    }
+  }
+
+  private void countNode() {
+    nodes++;
+    if (nodes >= maxNodes
+        || ((nodes & (CHECK_INTERVAL - 1)) == 0 && (stopSignal.get() || System.nanoTime() - startNanos >= timeBudgetNanos))) {
+      aborted = true;
+    }
+  }
+
+  private static void rotate(int[] moves, int count, int distance) {
+    int[] rotated = new int[count];
+    for (int i = 0; i < count; i++) {
+      rotated[i] = moves[(i + distance) % count];
+    }
+    System.arraycopy(rotated, 0, moves, 0, count);
+  }
+
+  private void updatePrincipalVariation(int ply, int move) {
+    principalVariations[ply][0] = move;
+    int childLength = principalVariationLengths[ply + 1];
+    System.arraycopy(principalVariations[ply + 1], 0, principalVariations[ply], 1, childLength);
+    principalVariationLengths[ply] = childLength + 1;
+  }
+
+  private List<Integer> principalVariation() {
+    List<Integer> line = new ArrayList<>(principalVariationLengths[0]);
+    for (int i = 0; i < principalVariationLengths[0]; i++) {
+      line.add(principalVariations[0][i]);
+    }
+    return line;
+  }
+}
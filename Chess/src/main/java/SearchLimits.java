@@ -0,0 +1,70 @@
+/**
+ * How far a {@link Search} may go: a maximum depth, a wall-clock budget and a node budget.
+ * The search stops at whichever is reached first; the time and node budgets are hard limits that
+ * interrupt an iteration in progress.
+ */
+public final class SearchLimits {
+  private static final SearchLimits NONE = new SearchLimits(Search.MAX_PLY - 1, Long.MAX_VALUE, Long.MAX_VALUE);
+
+  private final int maxDepth;
+  private final long timeMillis;
+  private final long maxNodes;
+
+  private SearchLimits(int maxDepth, long timeMillis, long maxNodes) {
+    this.maxDepth = maxDepth;
+    this.timeMillis = timeMillis;
+    this.maxNodes = maxNodes;
+  }
+
+  /**
+   * @return limits that only stop at the maximum search depth or on {@link Search#stop()}
+   */
+  public static SearchLimits none() {
+    return NONE;
+  }
+
+  public static SearchLimits ofTime(long timeMillis) {
+    return NONE.withTimeMillis(timeMillis);
+  }
+
+  public static SearchLimits ofDepth(int maxDepth) {
+    return NONE.withMaxDepth(maxDepth);
+  }
+
+  public static SearchLimits ofNodes(long maxNodes) {
+    return NONE.withMaxNodes(maxNodes);
+  }
+
+  public SearchLimits withMaxDepth(int maxDepth) {
+    if (maxDepth < 1 || maxDepth >= Search.MAX_PLY) {
+      throw new IllegalArgumentException("Depth must be between 1 and " + (Search.MAX_PLY - 1));
+    }
+    return new SearchLimits(maxDepth, timeMillis, maxNodes);
+  }
+
+  public SearchLimits withTimeMillis(long timeMillis) {
+    if (timeMillis <= 0) {
+      throw new IllegalArgumentException("Time budget must be positive");
+    }
+    return new SearchLimits(maxDepth, timeMillis, maxNodes);
+  }
+
+  public SearchLimits withMaxNodes(long maxNodes) {
+    if (maxNodes <= 0) {
+      throw new IllegalArgumentException("Node budget must be positive");
+    }
+    return new SearchLimits(maxDepth, timeMillis, maxNodes);
+  }
+
+  public int getMaxDepth() {
+    return maxDepth;
+  }
+
+  public long getTimeMillis() {
+    return timeMillis;
+  }
+
+  public long getMaxNodes() {
+    return maxNodes;
+  }
+}
@@ -0,0 +1,29 @@
+import java.util.List;
+
+import org.immutables.value.Value.Immutable;
+
+@Immutable
+public interface SearchResult {
+  /**
+   * @return the move to play in {@link Move} encoding, or {@link Move#NONE} if the side to move has no legal move
+   */
+  int getBestMove();
+  /**
+   * @return the expected line of play starting with the best move, in {@link Move} encoding
+   */
+  List<Integer> getPrincipalVariation();
+  /**
+   * @return the score in centipawns from the side to move's point of view; see {@link Search#isMateScore(int)}
+   */
+  int getScore();
+  /**
+   * @return the deepest fully completed iteration
+   */
+  int getDepth();
+  long getNodes();
+  long getElapsedMillis();
+
+  default long getNodesPerSecond() {
+    return getElapsedMillis() == 0 ? getNodes() * 1000 : getNodes() * 1000 / getElapsedMillis();
+  }
+}
@@ -0,0 +1,173 @@
+import java.util.Arrays;
+
+/**
+ * Fixed-size hash table of search results keyed by {@link Board#getZobristKey()}, sized in megabytes.
+ *
+ * Each entry is two longs in a plain array: the packed data, and the key XORed with the data. A reader
+ * accepts an entry only if XORing the two gives back its key, so an entry torn by a concurrent writer,
+ * or belonging to another position, reads as a miss. This lets any number of search threads share one
+ * table without locks; the cost is that a racing write may occasionally be lost.
+ *
+ * Entries are grouped in buckets of four, 64 bytes each. A store replaces the entry for the same
+ * position, otherwise an empty one, otherwise the one with the least depth once entries left over from
+ * earlier searches are discounted by their age.
+ *
+ * Data layout: bits 0-19 move, bits 20-35 score, bits 36-43 depth, bits 44-45 bound, bits 46-51 age.
+ */
+public final class TranspositionTable {
+  /** The stored score is an upper bound: every move failed low. */
+  public static final int UPPER_BOUND = 1;
+  /** The stored score is a lower bound: a move failed high. */
+  public static final int LOWER_BOUND = 2;
+  public static final int EXACT = 3;
+
+  private static final int BUCKET_SIZE = 4;
+  private static final long MAX_ENTRIES = 1L << 29;
+  private static final int BYTES_PER_ENTRY = 16;
+  private static final int MAX_DEPTH = 0xff;
+  private static final int AGE_MASK = 0x3f;
+  // Depth one age step is worth when choosing an entry to replace
+  private static final int AGE_WEIGHT = 8;
+
+  private static final long MOVE_MASK = (1L << 20) - 1;
+  private static final int SCORE_SHIFT = 20;
+  private static final int SCORE_OFFSET = 1 << 15;
+  private static final int DEPTH_SHIFT = 36;
+  private static final int BOUND_SHIFT = 44;
+  private static final int AGE_SHIFT = 46;
+
+  private final long[] entries;
+  private final long bucketMask;
+  private int age;
+
+  public TranspositionTable(int megabytes) {
+    if (megabytes < 1) {
+      throw new IllegalArgumentException("Transposition table needs at least 1 MB");
+    }
+    long requestedEntries = (long) megabytes * 1024 * 1024 / BYTES_PER_ENTRY;
+    long entryCount = Math.min(Long.highestOneBit(requestedEntries), MAX_ENTRIES);
+    entries = new long[(int) entryCount * 2];
+    bucketMask = entryCount / BUCKET_SIZE - 1;
+  }
+
+  /**
+   * Start a new search, so entries stored by earlier ones become preferred victims for replacement.
+   */
+  public void newSearch() {
+    age = (age + 1) & AGE_MASK;
+  }
+
+  public void clear() {
+    Arrays.fill(entries, 0);
+    age = 0;
+  }
+
+  /**
+   * @return the packed data stored for {@code key}, or 0 if there is none; decode it with the static accessors
+   */
+  public long probe(long key) {
+    int index = bucketIndex(key);
+    for (int i = 0; i < BUCKET_SIZE * 2; i += 2) {
+      long data = entries[index + i];
+      if ((entries[index + i + 1] ^ data) == key && data != 0) {
+        return data;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * @param ply distance from the search root, used to store mate scores relative to this position
+   */
+  public void store(long key, int move, int score, int depth, int bound, int ply) {
+    int index = bucketIndex(key);
+    int victim = -1;
+    int victimPriority = Integer.MAX_VALUE;
+    for (int i = 0; i < BUCKET_SIZE * 2; i += 2) {
+      long data = entries[index + i];
+      if (data == 0 || (entries[index + i + 1] ^ data) == key) {
+        victim = i;
+        if (data != 0 && move == Move.NONE) {
+          // Keep the best move of a previous search of this position for move ordering
+          move = move(data);
+        }
+        break;
+      }
+      int priority = depth(data) - AGE_WEIGHT * ((age - age(data)) & AGE_MASK);
+      if (priority < victimPriority) {
+        victim = i;
+        victimPriority = priority;
+      }
+    }
+    long data = (move & MOVE_MASK)
+        | (long) (toTableScore(score, ply) + SCORE_OFFSET) << SCORE_SHIFT
+        | (long) Math.min(Math.max(depth, 0), MAX_DEPTH) << DEPTH_SHIFT
+        | (long) bound << BOUND_SHIFT
+        | (long) age << AGE_SHIFT;
+    entries[index + victim] = data;
+    entries[index + victim + 1] = key ^ data;
+  }
+
+  /**
+   * @return the permille of sampled entries written during the current search
+   */
+  public int hashfull() {
+    int sample = Math.min(1000, entries.length / 2);
+    int used = 0;
+    for (int i = 0; i < sample; i++) {
+      long data = entries[i * 2];
+      if (data != 0 && age(data) == age) {
+        used++;
+      }
+    }
+    return used * 1000 / sample;
+  }
+
+  public int capacity() {
+    return entries.length / 2;
+  }
+
+  public static int move(long data) {
+    return (int) (data & MOVE_MASK);
+  }
+
+  /**
+   * @param ply distance of the probing position from the search root
+   */
+  public static int score(long data, int ply) {
+    int score = (int) (data >>> SCORE_SHIFT & 0xffff) - SCORE_OFFSET;
+    return fromTableScore(score, ply);
+  }
+
+  public static int depth(long data) {
+    return (int) (data >>> DEPTH_SHIFT & MAX_DEPTH);
+  }
+
+  public static int bound(long data) {
+    return (int) (data >>> BOUND_SHIFT & 0x3);
+  }
+
+  private static int age(long data) {
+    return (int) (data >>> AGE_SHIFT & AGE_MASK);
+  }
+
+  private int bucketIndex(long key) {
+    return (int) (key & bucketMask) * BUCKET_SIZE * 2;
+  }
+
+  // Mate scores count plies from the root; in the table they count from the stored position instead,
+  // so they stay correct when the position is reached at another distance from the root
+  private static int toTableScore(int score, int ply) {
+    if (Search.isMateScore(score)) {
+      return score > 0 ? score + ply : score - ply;
+    }
+    return score;
+  }
+
+  private static int fromTableScore(int score, int ply) {
+    if (Search.isMateScore(score)) {
+      return score > 0 ? score - ply : score + ply;
+    }
+    return score;
+  }
+}
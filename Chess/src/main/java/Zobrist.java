@@ -0,0 +1,72 @@
+import java.util.SplittableRandom;
+
+import pieces.Piece;
+import pieces.PieceColor;
+
+/**
+ * Random 64-bit keys for the parts of a position. A position's key is the XOR of the keys of its pieces
+ * on their squares, its castling rights, its en passant file and the side to move, so a move changes it
+ * with a handful of XORs. The seed is fixed so keys are stable across runs and can be stored.
+ */
+final class Zobrist {
+  private static final long SEED = 0x5DEECE66DL;
+
+  private static final long[] PIECE_SQUARE = new long[12 * 64];
+  private static final long[] CASTLING = new long[16];
+  private static final long[] EN_PASSANT_FILE = new long[8];
+  private static final long BLACK_TO_MOVE;
+
+  static {
+    SplittableRandom random = new SplittableRandom(SEED);
+    for (int i = 0; i < PIECE_SQUARE.length; i++) {
+      PIECE_SQUARE[i] = random.nextLong();
+    }
+    // No rights hashes to zero so a position without castling rights needs no castling term
+    for (int i = 1; i < CASTLING.length; i++) {
+      CASTLING[i] = random.nextLong();
+    }
+    for (int i = 0; i < EN_PASSANT_FILE.length; i++) {
+      EN_PASSANT_FILE[i] = random.nextLong();
+    }
+    BLACK_TO_MOVE = random.nextLong();
+  }
+
+  private Zobrist() {
+  }
+
+  static long piece(Piece piece, int square) {
+    return PIECE_SQUARE[(piece.getColor().ordinal() * 6 + piece.getType().ordinal()) * 64 + square];
+  }
+
+  /**
+   * @param rights castling rights as a combination of the {@code Board.*_CASTLE} bits
+   */
+  static long castling(int rights) {
+    return CASTLING[rights];
+  }
+
+  /**
+   * @return the key of the en passant file, or 0 if {@code square} is -1
+   */
+  static long enPassant(int square) {
+    return square < 0 ? 0 : EN_PASSANT_FILE[Position.file(square)];
+  }
+
+  static long sideToMove(PieceColor color) {
+    return color == PieceColor.BLACK ? BLACK_TO_MOVE : 0;
+  }
+
+  /**
+   * Compute a key from scratch, for positions that were not reached through incremental updates.
+   */
+  static long compute(Position position, PieceColor sideToMove, int castlingRights, int enPassantSquare) {
+    long key = castling(castlingRights) ^ enPassant(enPassantSquare) ^ sideToMove(sideToMove);
+    long occupied = position.getOccupancy();
+    while (occupied != 0) {
+      int square = Long.numberOfTrailingZeros(occupied);
+      occupied &= occupied - 1;
+      key ^= piece(position.get(square), square);
+    }
+    return key;
+  }
+}
@@ -0,0 +1,218 @@
+package pieces;
+
+/**
+ * Attack sets as 64-bit boards with squares indexed 0-63 from a1 to h8, file first, all precomputed when
+ * the class is loaded so that asking what a piece attacks is a table lookup.
+ *
+ * Knights, kings and pawns get one set per square. Sliders use magic bitboards: the occupied squares on a
+ * slider's lines, edges excluded, are multiplied by a per-square magic number whose top bits index a table
+ * holding the attacks for that occupancy. The magics were found offline by a random search for numbers that
+ * map every occupancy to a slot holding its attacks; searching at class load would cost a second per start.
+ */
+public final class Attacks {
+  public static final int NORTH = 0;
+  public static final int SOUTH = 1;
+  public static final int EAST = 2;
+  public static final int WEST = 3;
+  public static final int NORTH_EAST = 4;
+  public static final int NORTH_WEST = 5;
+  public static final int SOUTH_EAST = 6;
+  public static final int SOUTH_WEST = 7;
+
+  private static final int[] FILE_STEPS = {0, 0, 1, -1, 1, -1, 1, -1};
+  private static final int[] RANK_STEPS = {1, -1, 0, 0, 1, 1, -1, -1};
+  private static final int[][] KNIGHT_OFFSETS = {{1, 2}, {-1, 2}, {1, -2}, {-1, -2}, {2, 1}, {2, -1}, {-2, 1}, {-2, -1}};
+
+  private static final long[] KNIGHT = new long[64];
+  private static final long[] KING = new long[64];
+  private static final long[][] PAWN = new long[2][64];
+  private static final long[][] RAYS = new long[8][64];
+  private static final long[][] BETWEEN = new long[64][64];
+
+  private static final long[] ROOK_MAGIC_NUMBERS = {
+      0x0080008420144000L, 0x0140001000402000L, 0x8100200100081040L, 0x0580100181040800L,
+      0x0480040002480180L, 0x020002001004C108L, 0x06002600180104ACL, 0x0A00010200804024L,
+      0x1102800320814002L, 0xC000808040002000L, 0x0202802000821000L, 0x4210800800801000L,
+      0x8008808044004800L, 0x0006002418100200L, 0x0A00800200010080L, 0x0202000208804114L,
+      0x0280044002200041L, 0x3010004020004008L, 0x0010002008040022L, 0x8000210008100102L,
+      0x60A2020004110820L, 0x0222008080040002L, 0x00C0840002085110L, 0x02004A0000810454L,
+      0x0080401080008020L, 0x0040200040100048L, 0x0006041200208040L, 0x2010100100210008L,
+      0x5090080080800400L, 0x0022002200042950L, 0x011010040002E108L, 0x0000240200009041L,
+      0x0010400020800080L, 0x0040401000402000L, 0x0200200080801000L, 0x4140080080801003L,
+      0x0000800400800800L, 0x0800040080800200L, 0x1008080284002110L, 0x00A001008A001444L,
+      0x3040002040908000L, 0x1000422010024000L, 0x0040402001010010L, 0x8000100008008080L,
+      0x0084008008028004L, 0x0002000204008080L, 0x0000088210040001L, 0x0280C12080520004L,
+      0x028700800C402B00L, 0x0180200040008080L, 0x80A0008020100080L, 0x0001012010008900L,
+      0x4000040108008180L, 0x000C000402008080L, 0x004B0002002C0900L, 0x0020D42040811200L,
+      0x8844520121004082L, 0x1109150082204001L, 0x0302000820408012L, 0x2081002208041001L,
+      0x0002000804201002L, 0x5101000A28040029L, 0x0100080112489004L, 0x02000E4400288102L
+  };
+  private static final long[] BISHOP_MAGIC_NUMBERS = {
+      0x4014281015002108L, 0x0060020882029000L, 0x1104440082102120L, 0x4004410020042802L,
+      0x0011104020140040L, 0x0006074460005020L, 0x48208E0820040201L, 0x0202050401042240L,
+      0x400C401014208AA0L, 0x01C020064A424100L, 0x0012304408424000L, 0x21008808510C0004L,
+      0x0020141420000024L, 0x0004009004202009L, 0x4002008410080450L, 0x2000088280B82000L,
+      0x4040002410828602L, 0x08448030810A1410L, 0x1010032104008110L, 0x0850810802084244L,
+      0x0804000202112040L, 0x4901008610009420L, 0x31A0402411082800L, 0x8402000107620200L,
+      0x2210311041126208L, 0x0295218018020400L, 0x2092010408104400L, 0x0004040000401080L,
+      0x0020404004010041L, 0x80448A0109080618L, 0x008084110A0A0200L, 0x204C00C000A70440L,
+      0x3010106441114400L, 0x0C94115400181000L, 0x1821403000020400L, 0x2000020082480080L,
+      0x2080408020020200L, 0x0020080040068040L, 0x20089D8888190802L, 0x000F820044408408L,
+      0x2084022006089000L, 0x22510101A0401020L, 0x40000A0802009408L, 0x140483C010420200L,
+      0x0449200208811408L, 0x0002220042000100L, 0x00281000D0800201L, 0x044200A519010200L,
+      0x0300421050080002L, 0x00C0540401080004L, 0x4801010088040034L, 0x8400000210540051L,
+      0x400400404822002CL, 0x2080070448020000L, 0x1B2082100A00A000L, 0x4002021802108000L,
+      0xC000248800901000L, 0x0000024100B01100L, 0x1902103044022100L, 0x0000004404228810L,
+      0x0101000008210100L, 0x0025000820089082L, 0x0008091010008120L, 0x9120024202040010L
+  };
+  private static final Magic[] ROOK_MAGICS = new Magic[64];
+  private static final Magic[] BISHOP_MAGICS = new Magic[64];
+
+  static {
+    for (int square = 0; square < 64; square++) {
+      int file = square & 7;
+      int rank = square >>> 3;
+      for (int[] offset : KNIGHT_OFFSETS) {
+        KNIGHT[square] |= bit(file + offset[0], rank + offset[1]);
+      }
+      for (int direction = 0; direction < 8; direction++) {
+        KING[square] |= bit(file + FILE_STEPS[direction], rank + RANK_STEPS[direction]);
+        RAYS[direction][square] = slide(square, direction, 0L);
+      }
+      PAWN[PieceColor.WHITE.ordinal()][square] = bit(file - 1, rank + 1) | bit(file + 1, rank + 1);
+      PAWN[PieceColor.BLACK.ordinal()][square] = bit(file - 1, rank - 1) | bit(file + 1, rank - 1);
+    }
+    for (int from = 0; from < 64; from++) {
+      for (int direction = 0; direction < 8; direction++) {
+        long ray = RAYS[direction][from];
+        while (ray != 0) {
+          int to = Long.numberOfTrailingZeros(ray);
+          ray &= ray - 1;
+          BETWEEN[from][to] = RAYS[direction][from] & ~RAYS[direction][to] & ~(1L << to);
+        }
+      }
+    }
+    for (int square = 0; square < 64; square++) {
+      ROOK_MAGICS[square] = Magic.of(square, new int[] {NORTH, SOUTH, EAST, WEST}, ROOK_MAGIC_NUMBERS[square]);
+      BISHOP_MAGICS[square] = Magic.of(square, new int[] {NORTH_EAST, NORTH_WEST, SOUTH_EAST, SOUTH_WEST},
+          BISHOP_MAGIC_NUMBERS[square]);
+    }
+  }
+
+  private Attacks() {
+  }
+
+  public static long knight(int square) {
+    return KNIGHT[square];
+  }
+
+  public static long king(int square) {
+    return KING[square];
+  }
+
+  /**
+   * @return the two squares diagonally in front of a pawn of the given color, or fewer at the edges
+   */
+  public static long pawn(PieceColor color, int square) {
+    return PAWN[color.ordinal()][square];
+  }
+
+  public static long bishop(int square, long occupancy) {
+    return BISHOP_MAGICS[square].attacks(occupancy);
+  }
+
+  public static long rook(int square, long occupancy) {
+    return ROOK_MAGICS[square].attacks(occupancy);
+  }
+
+  public static long queen(int square, long occupancy) {
+    return bishop(square, occupancy) | rook(square, occupancy);
+  }
+
+  /**
+   * @param direction one of the direction constants of this class
+   * @return every square from {@code square}, exclusive, to the edge of the board in that direction
+   */
+  public static long ray(int square, int direction) {
+    return RAYS[direction][square];
+  }
+
+  /**
+   * @return the squares strictly between two squares on a rank, file or diagonal, or 0 if they share none
+   */
+  public static long between(int from, int to) {
+    return BETWEEN[from][to];
+  }
+
+  private static long bit(int file, int rank) {
+    return file >= 0 && file < 8 && rank >= 0 && rank < 8 ? 1L << (rank * 8 + file) : 0L;
+  }
+
+  /**
+   * @return the squares a slider on {@code square} reaches in one direction, up to and including the first occupied one
+   */
+  private static long slide(int square, int direction, long occupancy) {
+    long attacks = 0L;
+    int file = square & 7;
+    int rank = square >>> 3;
+    while (true) {
+      file += FILE_STEPS[direction];
+      rank += RANK_STEPS[direction];
+      long bit = bit(file, rank);
+      if (bit == 0) {
+        return attacks;
+      }
+      attacks |= bit;
+      if ((occupancy & bit) != 0) {
+        return attacks;
+      }
+    }
+  }
+
+  private static final class Magic {
+    final long mask;
+    final long magic;
+    final int shift;
+    final long[] attacks;
+
+    private Magic(long mask, long magic, int shift, long[] attacks) {
+      this.mask = mask;
+      this.magic = magic;
+      this.shift = shift;
+      this.attacks = attacks;
+    }
+
+    long attacks(long occupancy) {
+      return attacks[(int) (((occupancy & mask) * magic) >>> shift)];
+    }
+
+    /**
+     * Fill the attack table of a slider on {@code square} moving in the given directions.
+     */
+    static Magic of(int square, int[] directions, long magic) {
+      // Pieces on the last square of a ray never block anything, so they are left out of the index
+      long mask = 0L;
+      for (int direction : directions) {
+        long ray = RAYS[direction][square];
+        boolean increasing = direction == NORTH || direction == EAST || direction == NORTH_EAST || direction == NORTH_WEST;
+        mask |= ray & ~(increasing ? Long.highestOneBit(ray) : Long.lowestOneBit(ray));
+      }
+      int bits = Long.bitCount(mask);
+      long[] attacks = new long[1 << bits];
+      long occupancy = 0L;
+      do {
+        long reference = 0L;
+        for (int direction : directions) {
+          reference |= slide(square, direction, occupancy);
+        }
+        int index = (int) ((occupancy * magic) >>> (64 - bits));
+        if (attacks[index] != 0 && attacks[index] != reference) {
+          throw new IllegalStateException("Bad magic for square " + square);
+        }
+        attacks[index] = reference;
+        occupancy = (occupancy - mask) & mask;
+      } while (occupancy != 0);
+      return new Magic(mask, magic, 64 - bits, attacks);
+    }
+  }
+}
@@ -1,21 +1,20 @@
 package pieces;
 
-import java.util.Set;
-
-import com.google.common.collect.ImmutableSet;
-
 public class Bishop extends Piece {
-  private static final MovementOption UP_ONE_RIGHT = new MovementOption(1, 1, true);
-  private static final MovementOption UP_ONE_LEFT = new MovementOption(-1, 1, true);
-  private static final MovementOption DOWN_ONE_RIGHT = new MovementOption(1, -1, true);
-  private static final MovementOption DOWN_ONE_LEFT = new MovementOption(-1, -1, true);
+  public static final Bishop WHITE = new Bishop(PieceColor.WHITE);
+  public static final Bishop BLACK = new Bishop(PieceColor.BLACK);
 
-  public Bishop(PieceColor pieceColor) {
+  private Bishop(PieceColor pieceColor) {
     super(pieceColor);
   }
 
   @Override
-  public Set<MovementOption> getMovementOptions() {
-    return ImmutableSet.of(UP_ONE_RIGHT, UP_ONE_LEFT, DOWN_ONE_RIGHT, DOWN_ONE_LEFT);
+  public PieceType getType() {
+    return PieceType.BISHOP;
+  }
+
+  @Override
+  public long getAttacks(int square, long occupancy) {
+    return Attacks.bishop(square, occupancy);
   }
 }
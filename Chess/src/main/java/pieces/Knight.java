@@ -1,25 +1,20 @@
 package pieces;
 
-import java.util.Set;
-
-import com.google.common.collect.ImmutableSet;
-
 public class Knight extends Piece {
-  private static final MovementOption UP_TWO_RIGHT = new MovementOption(1, 2, false);
-  private static final MovementOption UP_TWO_LEFT = new MovementOption(-1, 2, false);
-  private static final MovementOption DOWN_TWO_RIGHT = new MovementOption(1, -2, false);
-  private static final MovementOption DOWN_TWO_LEFT = new MovementOption(-1, -2, false);
-  private static final MovementOption RIGHT_TWO_UP = new MovementOption(2, 1, false);
-  private static final MovementOption RIGHT_TWO_DOWN = new MovementOption(2, -1, false);
-  private static final MovementOption LEFT_TWO_UP = new MovementOption(-2, 1, false);
-  private static final MovementOption LEFT_TWO_DOWN = new MovementOption(-2, -1, false);
+  public static final Knight WHITE = new Knight(PieceColor.WHITE);
+  public static final Knight BLACK = new Knight(PieceColor.BLACK);
 
-  public Knight(PieceColor pieceColor) {
+  private Knight(PieceColor pieceColor) {
     super(pieceColor);
   }
 
   @Override
-  public Set<MovementOption> getMovementOptions() {
-    return ImmutableSet.of(UP_TWO_RIGHT, UP_TWO_LEFT, DOWN_TWO_RIGHT, DOWN_TWO_LEFT, RIGHT_TWO_UP, RIGHT_TWO_DOWN, LEFT_TWO_UP, LEFT_TWO_DOWN);
+  public PieceType getType() {
+    return PieceType.KNIGHT;
+  }
+
+  @Override
+  public long getAttacks(int square, long occupancy) {
+    return Attacks.knight(square);
   }
 }
@@ -1,27 +1,43 @@
 package pieces;
 
-import java.util.Set;
-
+/**
+ * A kind of chess piece. Pieces are immutable and shared: there is one instance per type and color, the
+ * {@code WHITE} and {@code BLACK} constants of each subclass, so positions hold references to them and
+ * copying a position allocates no pieces. What a piece's history decides, castling and the pawn's double
+ * step, is kept by the board.
+ */
 public abstract class Piece {
   final PieceColor pieceColor;
-  boolean hasMoved = false;
 
-  public Piece(PieceColor pieceColor) {
+  Piece(PieceColor pieceColor) {
     this.pieceColor = pieceColor;
   }
 
-  public abstract Set<MovementOption> getMovementOptions();
-
-  public PieceColor getColor() {
-    return pieceColor;
+  /**
+   * @return the shared piece of the given type and color
+   */
+  public static Piece of(PieceType type, PieceColor color) {
+    boolean white = color == PieceColor.WHITE;
+    switch (type) {
+      case KING: return white ? King.WHITE : King.BLACK;
+      case QUEEN: return white ? Queen.WHITE : Queen.BLACK;
+      case ROOK: return white ? Rook.WHITE : Rook.BLACK;
+      case BISHOP: return white ? Bishop.WHITE : Bishop.BLACK;
+      case KNIGHT: return white ? Knight.WHITE : Knight.BLACK;
+      case PAWN: return white ? Pawn.WHITE : Pawn.BLACK;
+      default: throw new IllegalArgumentException("Unknown piece type: " + type);
+    }
   }
 
-  public boolean getHasMoved() {
-    return hasMoved;
-  }
+  public abstract PieceType getType();
+
+  /**
+   * @return the squares this piece attacks from {@code square}, looked up in {@link Attacks}; sliders stop at
+   * the first occupied square in each direction
+   */
+  public abstract long getAttacks(int square, long occupancy);
 
-  public Piece setHasMoved(boolean hasMoved) {
-    this.hasMoved = hasMoved;
-    return this;
+  public PieceColor getColor() {
+    return pieceColor;
   }
 }
@@ -19,4 +19,8 @@ public enum PieceColor {
   public int getPawnRow() {
     return pawnRow;
   }
+
+  public PieceColor opposite() {
+    return this == WHITE ? BLACK : WHITE;
+  }
 }
@@ -1,25 +1,20 @@
 package pieces;
 
-import java.util.Set;
-
-import com.google.common.collect.ImmutableSet;
-
 public class Queen extends Piece {
-  private static final MovementOption UP = new MovementOption(0, 1, true);
-  private static final MovementOption DOWN = new MovementOption(0, -1, true);
-  private static final MovementOption LEFT = new MovementOption(-1, 0, true);
-  private static final MovementOption RIGHT = new MovementOption(1, 0, true);
-  private static final MovementOption UP_RIGHT = new MovementOption(1, 1, true);
-  private static final MovementOption UP_LEFT = new MovementOption(-1, 1, true);
-  private static final MovementOption DOWN_RIGHT = new MovementOption(1, -1, true);
-  private static final MovementOption DOWN_LEFT = new MovementOption(-1, -1, true);
+  public static final Queen WHITE = new Queen(PieceColor.WHITE);
+  public static final Queen BLACK = new Queen(PieceColor.BLACK);
 
-  public Queen(PieceColor pieceColor) {
+  private Queen(PieceColor pieceColor) {
     super(pieceColor);
   }
 
   @Override
-  public Set<MovementOption> getMovementOptions() {
-    return ImmutableSet.of(UP, DOWN, LEFT, RIGHT, UP_LEFT, UP_RIGHT, DOWN_LEFT, DOWN_RIGHT);
+  public PieceType getType() {
+    return PieceType.QUEEN;
+  }
+
+  @Override
+  public long getAttacks(int square, long occupancy) {
+    return Attacks.queen(square, occupancy);
   }
 }
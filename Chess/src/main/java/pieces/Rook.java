@@ -1,23 +1,21 @@
 package pieces;
 
-import java.util.Set;
-
-import com.google.common.collect.ImmutableSet;
-
 public class Rook extends Piece {
-  private static final MovementOption MOVEMENT_UP = new MovementOption(0, 1, true);
-  private static final MovementOption MOVEMENT_DOWN = new MovementOption(0, -1, true);
-  private static final MovementOption MOVEMENT_LEFT = new MovementOption(-1, 0, true);
-  private static final MovementOption MOVEMENT_RIGHT = new MovementOption(1, 0, true);
-  private static final Set<MovementOption> MOVEMENT_OPTIONS = ImmutableSet.of(MOVEMENT_DOWN, MOVEMENT_UP, MOVEMENT_LEFT, MOVEMENT_RIGHT);
+  public static final Rook WHITE = new Rook(PieceColor.WHITE);
+  public static final Rook BLACK = new Rook(PieceColor.BLACK);
 
-  public Rook(PieceColor pieceColor) {
+  private Rook(PieceColor pieceColor) {
     super(pieceColor);
   }
 
   @Override
-  public Set<MovementOption> getMovementOptions() {
-    return MOVEMENT_OPTIONS;
+  public PieceType getType() {
+    return PieceType.ROOK;
+  }
+
+  @Override
+  public long getAttacks(int square, long occupancy) {
+    return Attacks.rook(square, occupancy);
   }
 
 }
@@ -0,0 +1,85 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pieces.Knight;
+import pieces.Pawn;
+import pieces.Piece;
+import pieces.PieceColor;
+import pieces.Rook;
+
+public class AttackMapTest {
+  Position position;
+
+  @Before
+  public void setup() {
+    position = new Position();
+  }
+
+  @Test
+  public void rookRayIsCutAndRestoredByBlocker() {
+    position.put(square("a1"), Rook.WHITE);
+    assertTrue(position.isAttacked(square("a8"), PieceColor.WHITE));
+
+    position.put(square("a4"), Pawn.BLACK);
+    assertTrue("Blocker itself is attacked", position.isAttacked(square("a4"), PieceColor.WHITE));
+    assertFalse("Squares behind the blocker are not", position.isAttacked(square("a5"), PieceColor.WHITE));
+
+    position.remove(square("a4"));
+    assertTrue(position.isAttacked(square("a8"), PieceColor.WHITE));
+  }
+
+  @Test
+  public void pawnsAttackDiagonallyForwardOnly() {
+    position.put(square("e4"), Pawn.WHITE);
+    position.put(square("d5"), Pawn.BLACK);
+
+    assertTrue(position.isAttacked(square("d5"), PieceColor.WHITE));
+    assertTrue(position.isAttacked(square("f5"), PieceColor.WHITE));
+    assertFalse(position.isAttacked(square("e5"), PieceColor.WHITE));
+    assertTrue(position.isAttacked(square("e4"), PieceColor.BLACK));
+    assertTrue(position.isAttacked(square("c4"), PieceColor.BLACK));
+  }
+
+  @Test
+  public void incrementalUpdatesMatchAFreshlyBuiltMap() {
+    Board board = new Board();
+    board.movePiece(Coordinate.from("e2"), Coordinate.from("e4"));
+    board.movePiece(Coordinate.from("d7"), Coordinate.from("d5"));
+    board.movePiece(Coordinate.from("e4"), Coordinate.from("d5"));
+    board.movePiece(Coordinate.from("d8"), Coordinate.from("d5"));
+    board.movePiece(Coordinate.from("g1"), Coordinate.from("f3"));
+
+    Position incremental = board.getPosition();
+    Position rebuilt = new Position();
+    for (int square = 0; square < 64; square++) {
+      Piece piece = incremental.get(square);
+      if (piece != null) {
+        rebuilt.put(square, piece);
+      }
+    }
+    for (int square = 0; square < 64; square++) {
+      assertEquals("Attacks from " + Position.toCoordinate(square), rebuilt.getAttacks(square), incremental.getAttacks(square));
+    }
+    assertEquals(rebuilt.getAttacked(PieceColor.WHITE), incremental.getAttacked(PieceColor.WHITE));
+    assertEquals(rebuilt.getAttacked(PieceColor.BLACK), incremental.getAttacked(PieceColor.BLACK));
+  }
+
+  @Test
+  public void knightAttacksDoNotDependOnBlockers() {
+    position.put(square("b1"), Knight.WHITE);
+    position.put(square("b2"), Pawn.WHITE);
+    position.put(square("c2"), Pawn.WHITE);
+
+    assertTrue(position.isAttacked(square("c3"), PieceColor.WHITE));
+    assertTrue(position.isAttacked(square("a3"), PieceColor.WHITE));
+    assertTrue(position.isAttacked(square("d2"), PieceColor.WHITE));
+  }
+
+  private static int square(String coordinate) {
+    return Position.toSquare(Coordinate.from(coordinate));
+  }
+}
@@ -0,0 +1,67 @@
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import pieces.Attacks;
+import pieces.PieceColor;
+
+public class AttacksTest {
+  private static final int[][] ROOK_DIRECTIONS = {{0, 1}, {0, -1}, {-1, 0}, {1, 0}};
+  private static final int[][] BISHOP_DIRECTIONS = {{1, 1}, {-1, 1}, {1, -1}, {-1, -1}};
+
+  @Test
+  public void magicLookupsMatchSteppingAlongRays() {
+    Random random = new Random(20);
+    for (int i = 0; i < 10000; i++) {
+      int square = random.nextInt(64);
+      long occupancy = random.nextLong() & random.nextLong();
+      assertEquals(slide(square, occupancy, ROOK_DIRECTIONS), Attacks.rook(square, occupancy));
+      assertEquals(slide(square, occupancy, BISHOP_DIRECTIONS), Attacks.bishop(square, occupancy));
+    }
+  }
+
+  @Test
+  public void leaperTablesStayOnTheBoard() {
+    assertEquals(bits(10, 17), Attacks.knight(0));
+    assertEquals(8, Long.bitCount(Attacks.knight(Position.square(3, 3))));
+    assertEquals(bits(1, 8, 9), Attacks.king(0));
+    assertEquals(bits(Position.square(6, 2)), Attacks.pawn(PieceColor.WHITE, Position.square(7, 1)));
+    assertEquals(bits(Position.square(3, 5), Position.square(5, 5)), Attacks.pawn(PieceColor.BLACK, Position.square(4, 6)));
+  }
+
+  @Test
+  public void raysAndBetween() {
+    assertEquals(bits(8, 16, 24, 32, 40, 48, 56), Attacks.ray(0, Attacks.NORTH));
+    assertEquals(bits(9, 18, 27, 36, 45, 54), Attacks.between(0, 63));
+    assertEquals(bits(2, 1), Attacks.between(3, 0));
+    assertEquals(0L, Attacks.between(0, 17));
+  }
+
+  private static long slide(int square, long occupancy, int[][] directions) {
+    long attacks = 0L;
+    for (int[] direction : directions) {
+      int file = Position.file(square) + direction[0];
+      int rank = Position.rank(square) + direction[1];
+      while (Position.isOnBoard(file, rank)) {
+        long bit = 1L << Position.square(file, rank);
+        attacks |= bit;
+        if ((occupancy & bit) != 0) {
+          break;
+        }
+        file += direction[0];
+        rank += direction[1];
+      }
+    }
+    return attacks;
+  }
+
+  private static long bits(int... squares) {
+    long bits = 0L;
+    for (int square : squares) {
+      bits |= 1L << square;
+    }
+    return bits;
+  }
+}
@@ -31,8 +31,8 @@ public class CastlingTest {
   @Test
   public void whiteKingsideCastleAvailable() {
     // White King e1, White Rook h1, nothing between — g1 should be in moves
-    King king = new King(PieceColor.WHITE);
-    Rook rook = new Rook(PieceColor.WHITE);
+    King king = King.WHITE;
+    Rook rook = Rook.WHITE;
     Map<Coordinate, Piece> position = Maps.newHashMap();
     position.put(Coordinate.from("e1"), king);
     position.put(Coordinate.from("h1"), rook);
@@ -45,8 +45,8 @@ public class CastlingTest {
   @Test
   public void blackKingsideCastleAvailable() {
     // Black King e8, Black Rook h8, nothing between — g8 should be in moves
-    King king = new King(PieceColor.BLACK);
-    Rook rook = new Rook(PieceColor.BLACK);
+    King king = King.BLACK;
+    Rook rook = Rook.BLACK;
     Map<Coordinate, Piece> position = Maps.newHashMap();
     position.put(Coordinate.from("e8"), king);
     position.put(Coordinate.from("h8"), rook);
@@ -59,9 +59,9 @@ public class CastlingTest {
   @Test
   public void kingsideCastleBlockedByPieceBetween() {
     // Bishop on f1 blocks castling
-    King king = new King(PieceColor.WHITE);
-    Rook rook = new Rook(PieceColor.WHITE);
-    Bishop bishop = new Bishop(PieceColor.WHITE);
+    King king = King.WHITE;
+    Rook rook = Rook.WHITE;
+    Bishop bishop = Bishop.WHITE;
     Map<Coordinate, Piece> position = Maps.newHashMap();
     position.put(Coordinate.from("e1"), king);
     position.put(Coordinate.from("h1"), rook);
@@ -74,30 +74,34 @@ public class CastlingTest {
 
   @Test
   public void kingsideCastleBlockedWhenKingHasMoved() {
-    King king = new King(PieceColor.WHITE);
-    king.setHasMoved(true);
-    Rook rook = new Rook(PieceColor.WHITE);
-    Map<Coordinate, Piece> position = Maps.newHashMap();
-    position.put(Coordinate.from("e1"), king);
-    position.put(Coordinate.from("h1"), rook);
-
-    Set<Coordinate> moves = board.getPotentialMoves(king, Coordinate.from("e1"), position);
-    assertFalse("Kingside castle should not be available when king has moved",
-        moves.contains(Coordinate.from("g1")));
+    board = Board.fromFen("4k3/8/8/8/8/8/8/4K2R w K - 0 1");
+    board.movePiece(Coordinate.from("e1"), Coordinate.from("f1"));
+    board.movePiece(Coordinate.from("e8"), Coordinate.from("d8"));
+    board.movePiece(Coordinate.from("f1"), Coordinate.from("e1"));
+    board.movePiece(Coordinate.from("d8"), Coordinate.from("e8"));
+
+    try {
+      board.movePiece(Coordinate.from("e1"), Coordinate.from("g1"));
+      assertTrue("Kingside castle should not be available when king has moved", false);
+    } catch (RuntimeException e) {
+      assertEquals("Not valid move", e.getMessage());
+    }
   }
 
   @Test
   public void kingsideCastleBlockedWhenRookHasMoved() {
-    King king = new King(PieceColor.WHITE);
-    Rook rook = new Rook(PieceColor.WHITE);
-    rook.setHasMoved(true);
-    Map<Coordinate, Piece> position = Maps.newHashMap();
-    position.put(Coordinate.from("e1"), king);
-    position.put(Coordinate.from("h1"), rook);
-
-    Set<Coordinate> moves = board.getPotentialMoves(king, Coordinate.from("e1"), position);
-    assertFalse("Kingside castle should not be available when rook has moved",
-        moves.contains(Coordinate.from("g1")));
+    board = Board.fromFen("4k3/8/8/8/8/8/8/4K2R w K - 0 1");
+    board.movePiece(Coordinate.from("h1"), Coordinate.from("h2"));
+    board.movePiece(Coordinate.from("e8"), Coordinate.from("d8"));
+    board.movePiece(Coordinate.from("h2"), Coordinate.from("h1"));
+    board.movePiece(Coordinate.from("d8"), Coordinate.from("e8"));
+
+    try {
+      board.movePiece(Coordinate.from("e1"), Coordinate.from("g1"));
+      assertTrue("Kingside castle should not be available when rook has moved", false);
+    } catch (RuntimeException e) {
+      assertEquals("Not valid move", e.getMessage());
+    }
   }
 
   // === QUEENSIDE CASTLING (O-O-O) ===
@@ -105,8 +109,8 @@ public class CastlingTest {
   @Test
   public void whiteQueensideCastleAvailable() {
     // White King e1, White Rook a1, nothing between — c1 should be in moves
-    King king = new King(PieceColor.WHITE);
-    Rook rook = new Rook(PieceColor.WHITE);
+    King king = King.WHITE;
+    Rook rook = Rook.WHITE;
     Map<Coordinate, Piece> position = Maps.newHashMap();
     position.put(Coordinate.from("e1"), king);
     position.put(Coordinate.from("a1"), rook);
@@ -118,8 +122,8 @@ public class CastlingTest {
 
   @Test
   public void blackQueensideCastleAvailable() {
-    King king = new King(PieceColor.BLACK);
-    Rook rook = new Rook(PieceColor.BLACK);
+    King king = King.BLACK;
+    Rook rook = Rook.BLACK;
     Map<Coordinate, Piece> position = Maps.newHashMap();
     position.put(Coordinate.from("e8"), king);
     position.put(Coordinate.from("a8"), rook);
@@ -132,9 +136,9 @@ public class CastlingTest {
   @Test
   public void queensideCastleBlockedByPieceBetween() {
     // Queen on d1 blocks queenside castling
-    King king = new King(PieceColor.WHITE);
-    Rook rook = new Rook(PieceColor.WHITE);
-    Queen queen = new Queen(PieceColor.WHITE);
+    King king = King.WHITE;
+    Rook rook = Rook.WHITE;
+    Queen queen = Queen.WHITE;
     Map<Coordinate, Piece> position = Maps.newHashMap();
     position.put(Coordinate.from("e1"), king);
     position.put(Coordinate.from("a1"), rook);
@@ -150,9 +154,9 @@ public class CastlingTest {
   @Test
   public void kingsideCastleBlockedWhenPassingThroughCheck() {
     // Enemy rook attacks f1 — king would pass through check
-    King king = new King(PieceColor.WHITE);
-    Rook friendlyRook = new Rook(PieceColor.WHITE);
-    Rook enemyRook = new Rook(PieceColor.BLACK);
+    King king = King.WHITE;
+    Rook friendlyRook = Rook.WHITE;
+    Rook enemyRook = Rook.BLACK;
     Map<Coordinate, Piece> position = Maps.newHashMap();
     position.put(Coordinate.from("e1"), king);
     position.put(Coordinate.from("h1"), friendlyRook);
@@ -166,9 +170,9 @@ public class CastlingTest {
   @Test
   public void queensideCastleBlockedWhenPassingThroughCheck() {
     // Enemy rook attacks d1 — king would pass through check
-    King king = new King(PieceColor.WHITE);
-    Rook friendlyRook = new Rook(PieceColor.WHITE);
-    Rook enemyRook = new Rook(PieceColor.BLACK);
+    King king = King.WHITE;
+    Rook friendlyRook = Rook.WHITE;
+    Rook enemyRook = Rook.BLACK;
     Map<Coordinate, Piece> position = Maps.newHashMap();
     position.put(Coordinate.from("e1"), king);
     position.put(Coordinate.from("a1"), friendlyRook);
@@ -183,9 +187,9 @@ public class CastlingTest {
 
   @Test
   public void bothCastlesAvailableSimultaneously() {
-    King king = new King(PieceColor.WHITE);
-    Rook kingsideRook = new Rook(PieceColor.WHITE);
-    Rook queensideRook = new Rook(PieceColor.WHITE);
+    King king = King.WHITE;
+    Rook kingsideRook = Rook.WHITE;
+    Rook queensideRook = Rook.WHITE;
     Map<Coordinate, Piece> position = Maps.newHashMap();
     position.put(Coordinate.from("e1"), king);
     position.put(Coordinate.from("h1"), kingsideRook);
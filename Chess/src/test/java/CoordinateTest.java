@@ -0,0 +1,36 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CoordinateTest {
+  @Test
+  public void everyWayToNameASquareGivesTheSameInstance() {
+    Coordinate e4 = Coordinate.from("e4");
+
+    assertSame(e4, Coordinate.of(4, 3));
+    assertSame(e4, Coordinate.of("e", 4));
+    assertSame(e4, Coordinate.of(28));
+    assertSame(e4, Position.toCoordinate(Position.toSquare(e4)));
+    assertEquals(28, e4.getIndex());
+  }
+
+  @Test
+  public void namesAreAlgebraic() {
+    assertEquals("a1", Coordinate.of(0).toString());
+    assertEquals("h8", Coordinate.of(63).toString());
+    assertEquals("h", Coordinate.of(63).getColumn());
+    assertEquals(8, Coordinate.of(63).getRow());
+  }
+
+  @Test
+  public void squaresOffTheBoardAreRejected() {
+    try {
+      Coordinate.from("i9");
+      assertTrue("Expected an invalid coordinate to be rejected", false);
+    } catch (IllegalArgumentException e) {
+      assertEquals("Invalid coordinate: i9", e.getMessage());
+    }
+  }
+}
@@ -29,14 +29,12 @@ public class EnPassantTest {
   public void whiteCanCaptureEnPassantRight() {
     // White pawn on e5, black pawn just double-moved to f5
     Map<Coordinate, Piece> pieces = new HashMap<>();
-    Pawn whitePawn = new Pawn(PieceColor.WHITE);
-    whitePawn.setHasMoved(true);
-    Pawn blackPawn = new Pawn(PieceColor.BLACK);
-    blackPawn.setHasMoved(true);
+    Pawn whitePawn = Pawn.WHITE;
+    Pawn blackPawn = Pawn.BLACK;
     pieces.put(Coordinate.from("e5"), whitePawn);
     pieces.put(Coordinate.from("f5"), blackPawn);
-    pieces.put(Coordinate.from("e1"), new King(PieceColor.WHITE));
-    pieces.put(Coordinate.from("e8"), new King(PieceColor.BLACK));
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("e8"), King.BLACK);
 
     board.clearAndSetPieces(pieces);
     board.setCurrentTurn(PieceColor.WHITE);
@@ -51,14 +49,12 @@ public class EnPassantTest {
   @Test
   public void whiteCanCaptureEnPassantLeft() {
     Map<Coordinate, Piece> pieces = new HashMap<>();
-    Pawn whitePawn = new Pawn(PieceColor.WHITE);
-    whitePawn.setHasMoved(true);
-    Pawn blackPawn = new Pawn(PieceColor.BLACK);
-    blackPawn.setHasMoved(true);
+    Pawn whitePawn = Pawn.WHITE;
+    Pawn blackPawn = Pawn.BLACK;
     pieces.put(Coordinate.from("e5"), whitePawn);
     pieces.put(Coordinate.from("d5"), blackPawn);
-    pieces.put(Coordinate.from("e1"), new King(PieceColor.WHITE));
-    pieces.put(Coordinate.from("e8"), new King(PieceColor.BLACK));
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("e8"), King.BLACK);
 
     board.clearAndSetPieces(pieces);
     board.setCurrentTurn(PieceColor.WHITE);
@@ -72,14 +68,12 @@ public class EnPassantTest {
   @Test
   public void blackCanCaptureEnPassant() {
     Map<Coordinate, Piece> pieces = new HashMap<>();
-    Pawn blackPawn = new Pawn(PieceColor.BLACK);
-    blackPawn.setHasMoved(true);
-    Pawn whitePawn = new Pawn(PieceColor.WHITE);
-    whitePawn.setHasMoved(true);
+    Pawn blackPawn = Pawn.BLACK;
+    Pawn whitePawn = Pawn.WHITE;
     pieces.put(Coordinate.from("d4"), blackPawn);
     pieces.put(Coordinate.from("e4"), whitePawn);
-    pieces.put(Coordinate.from("e1"), new King(PieceColor.WHITE));
-    pieces.put(Coordinate.from("e8"), new King(PieceColor.BLACK));
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("e8"), King.BLACK);
 
     board.clearAndSetPieces(pieces);
     board.setCurrentTurn(PieceColor.BLACK);
@@ -94,14 +88,12 @@ public class EnPassantTest {
   public void enPassantCaptureRemovesCapturedPawn() {
     // Integration test: execute the en passant move and verify captured pawn is removed
     Map<Coordinate, Piece> pieces = new HashMap<>();
-    Pawn whitePawn = new Pawn(PieceColor.WHITE);
-    whitePawn.setHasMoved(true);
-    Pawn blackPawn = new Pawn(PieceColor.BLACK);
-    blackPawn.setHasMoved(true);
+    Pawn whitePawn = Pawn.WHITE;
+    Pawn blackPawn = Pawn.BLACK;
     pieces.put(Coordinate.from("e5"), whitePawn);
     pieces.put(Coordinate.from("f5"), blackPawn);
-    pieces.put(Coordinate.from("e1"), new King(PieceColor.WHITE));
-    pieces.put(Coordinate.from("e8"), new King(PieceColor.BLACK));
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("e8"), King.BLACK);
 
     board.clearAndSetPieces(pieces);
     board.setCurrentTurn(PieceColor.WHITE);
@@ -123,14 +115,12 @@ public class EnPassantTest {
   public void enPassantNotAvailableAfterOtherMove() {
     // En passant is only available immediately after the double move
     Map<Coordinate, Piece> pieces = new HashMap<>();
-    Pawn whitePawn = new Pawn(PieceColor.WHITE);
-    whitePawn.setHasMoved(true);
-    Pawn blackPawn = new Pawn(PieceColor.BLACK);
-    blackPawn.setHasMoved(true);
+    Pawn whitePawn = Pawn.WHITE;
+    Pawn blackPawn = Pawn.BLACK;
     pieces.put(Coordinate.from("e5"), whitePawn);
     pieces.put(Coordinate.from("f5"), blackPawn);
-    pieces.put(Coordinate.from("e1"), new King(PieceColor.WHITE));
-    pieces.put(Coordinate.from("e8"), new King(PieceColor.BLACK));
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("e8"), King.BLACK);
 
     board.clearAndSetPieces(pieces);
     board.setCurrentTurn(PieceColor.WHITE);
@@ -145,10 +135,10 @@ public class EnPassantTest {
   public void doubleMoveSetsEnPassantTarget() {
     // When a pawn makes a double move, the en passant target should be set
     Map<Coordinate, Piece> pieces = new HashMap<>();
-    Pawn whitePawn = new Pawn(PieceColor.WHITE);
+    Pawn whitePawn = Pawn.WHITE;
     pieces.put(Coordinate.from("e2"), whitePawn);
-    pieces.put(Coordinate.from("e1"), new King(PieceColor.WHITE));
-    pieces.put(Coordinate.from("e8"), new King(PieceColor.BLACK));
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("e8"), King.BLACK);
 
     board.clearAndSetPieces(pieces);
     board.setCurrentTurn(PieceColor.WHITE);
@@ -158,4 +148,26 @@ public class EnPassantTest {
     assertEquals("En passant target should be set to e3 after double pawn move",
         Coordinate.from("e3"), board.getEnPassantTarget());
   }
+
+  @Test
+  public void targetWithoutAPawnToCaptureGivesNoMove() {
+    Map<Coordinate, Piece> pieces = new HashMap<>();
+    pieces.put(Coordinate.from("d5"), Pawn.WHITE);
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("e8"), King.BLACK);
+    board.clearAndSetPieces(pieces);
+    board.setCurrentTurn(PieceColor.WHITE);
+    board.setEnPassantTarget(Coordinate.from("e6"));
+    String fen = board.toFen();
+    long key = board.getZobristKey();
+
+    assertFalse(board.getPotentialMoves(Pawn.WHITE, Coordinate.from("d5"), pieces).contains(Coordinate.from("e6")));
+    try {
+      board.makeMove(Move.encode(Position.square(3, 4), Position.square(4, 5), Move.CAPTURE | Move.EN_PASSANT));
+      assertTrue("Captured a pawn that is not there", false);
+    } catch (IllegalArgumentException e) {
+      assertEquals(fen, board.toFen());
+      assertEquals(key, board.getZobristKey());
+    }
+  }
 }
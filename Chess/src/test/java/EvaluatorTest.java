@@ -0,0 +1,136 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pieces.Piece;
+import pieces.PieceType;
+
+public class EvaluatorTest {
+  Evaluator evaluator;
+
+  @Before
+  public void setup() {
+    evaluator = new Evaluator();
+  }
+
+  @Test
+  public void startingPositionIsEven() {
+    assertEquals(0, evaluator.evaluate(new Board()));
+  }
+
+  @Test
+  public void mirroredPositionScoresTheSameForTheSideToMove() {
+    for (Perft.ReferencePosition reference : Perft.ReferencePosition.values()) {
+      Board board = reference.toBoard();
+      Board mirrored = Board.fromFen(mirror(board.toFen()));
+
+      assertEquals(reference.toString(), evaluator.evaluate(board), evaluator.evaluate(mirrored));
+      assertEquals(reference.toString(), evaluator.evaluateForWhite(board), -evaluator.evaluateForWhite(mirrored));
+    }
+  }
+
+  @Test
+  public void extraQueenIsWinning() {
+    assertTrue(evaluator.evaluate(Board.fromFen("4k3/8/8/8/8/8/8/3QK3 w - - 0 1")) > 800);
+    assertTrue(evaluator.evaluate(Board.fromFen("4k3/8/8/8/8/8/8/3QK3 b - - 0 1")) < -800);
+  }
+
+  @Test
+  public void pawnStructureRewardsPassedAndPenalizesDoubledIsolatedAndBackwardPawns() {
+    long e5 = 1L << Position.square(4, 4);
+    long e6 = 1L << Position.square(4, 5);
+    long d6 = 1L << Position.square(3, 5);
+    long e4 = 1L << Position.square(4, 3);
+
+    assertTrue(Evaluator.pawnStructure(e5, 0) > Evaluator.pawnStructure(e5, e6));
+    assertTrue(Evaluator.pawnStructure(e5, d6) < Evaluator.pawnStructure(e5, 0));
+    assertTrue(Evaluator.pawnStructure(e5 | e4, 0) < 2 * Evaluator.pawnStructure(e5, 0));
+
+    // d3 cannot be supported by the pawn on e4 and d4 is covered by the pawn on c5
+    long d3 = 1L << Position.square(3, 2);
+    long d2 = 1L << Position.square(3, 1);
+    long c5 = 1L << Position.square(2, 4);
+    long c7 = 1L << Position.square(2, 6);
+    assertTrue(Evaluator.pawnStructure(d3 | e4, c5) < Evaluator.pawnStructure(d2 | e4, c7));
+  }
+
+  @Test
+  public void incrementalScoresMatchRecomputedScoresThroughCastlingPromotionAndEnPassant() {
+    for (Perft.ReferencePosition reference : Perft.ReferencePosition.values()) {
+      Board board = reference.toBoard();
+      assertScoresMatch(board, 3);
+    }
+  }
+
+  private void assertScoresMatch(Board board, int depth) {
+    int[] moves = new int[Move.MAX_MOVES];
+    int count = MoveGenerator.generateLegalMoves(board, moves);
+    for (int i = 0; i < count; i++) {
+      int before = evaluator.evaluateForWhite(board);
+      board.makeMove(moves[i]);
+      assertScoresMatch("After " + Move.toString(moves[i]), board.getPosition());
+      if (depth > 1) {
+        assertScoresMatch(board, depth - 1);
+      }
+      board.unmakeMove();
+      assertEquals(before, evaluator.evaluateForWhite(board));
+    }
+  }
+
+  private static void assertScoresMatch(String message, Position position) {
+    int midgame = 0;
+    int endgame = 0;
+    int phase = 0;
+    long pawnKey = 0;
+    for (int square = 0; square < 64; square++) {
+      Piece piece = position.get(square);
+      if (piece != null) {
+        midgame += PieceSquareTables.midgame(piece, square);
+        endgame += PieceSquareTables.endgame(piece, square);
+        phase += PieceSquareTables.phase(piece);
+        if (piece.getType() == PieceType.PAWN) {
+          pawnKey ^= Zobrist.piece(piece, square);
+        }
+      }
+    }
+    assertEquals(message, midgame, position.getMidgameScore());
+    assertEquals(message, endgame, position.getEndgameScore());
+    assertEquals(message, phase, position.getPhase());
+    assertEquals(message, pawnKey, position.getPawnKey());
+  }
+
+  /**
+   * @return the FEN with ranks flipped, colors swapped and the other side to move
+   */
+  private static String mirror(String fen) {
+    String[] fields = fen.split(" ");
+    String[] ranks = fields[0].split("/");
+    StringBuilder placement = new StringBuilder();
+    for (int i = ranks.length - 1; i >= 0; i--) {
+      placement.append(swapCase(ranks[i])).append(i > 0 ? "/" : "");
+    }
+    String castling = fields[2].equals("-") ? "-" : sortCastling(swapCase(fields[2]));
+    String enPassant = fields[3].equals("-") ? "-" : fields[3].charAt(0) + String.valueOf(9 - (fields[3].charAt(1) - '0'));
+    return placement + " " + (fields[1].equals("w") ? "b" : "w") + " " + castling + " " + enPassant + " " + fields[4] + " " + fields[5];
+  }
+
+  private static String swapCase(String text) {
+    StringBuilder swapped = new StringBuilder();
+    for (char c : text.toCharArray()) {
+      swapped.append(Character.isUpperCase(c) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+    }
+    return swapped.toString();
+  }
+
+  private static String sortCastling(String rights) {
+    StringBuilder sorted = new StringBuilder();
+    for (char c : "KQkq".toCharArray()) {
+      if (rights.indexOf(c) >= 0) {
+        sorted.append(c);
+      }
+    }
+    return sorted.toString();
+  }
+}
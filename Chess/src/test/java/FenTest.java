@@ -0,0 +1,103 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import pieces.PieceColor;
+
+public class FenTest {
+
+  @Test
+  public void referencePositionsRoundTrip() {
+    for (Perft.ReferencePosition reference : Perft.ReferencePosition.values()) {
+      String fen = reference.getFen();
+      String withoutCounters = fen.substring(0, fen.lastIndexOf(' ', fen.lastIndexOf(' ') - 1));
+
+      assertEquals(withoutCounters + " 0 1", Board.fromFen(fen).toFen());
+    }
+  }
+
+  @Test
+  public void startingBoardMatchesStandardFen() {
+    assertEquals("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", new Board().toFen());
+    assertEquals(new Board().getZobristKey(), Board.fromFen(new Board().toFen()).getZobristKey());
+  }
+
+  @Test
+  public void castlingRightsAreLostWhenKingOrRookMoves() {
+    Board board = new Board();
+    play(board, "e2", "e4", "e7", "e5", "e1", "e2", "h7", "h6", "e2", "e1", "h8", "h7");
+
+    assertEquals("rnbqkbn1/pppp1ppr/7p/4p3/4P3/8/PPPP1PPP/RNBQKBNR w q - 0 1", board.toFen());
+  }
+
+  @Test
+  public void enPassantSquareIsWrittenAndRead() {
+    Board board = new Board();
+    play(board, "e2", "e4");
+
+    assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", board.toFen());
+    assertEquals(board.getZobristKey(), Board.fromFen(board.toFen()).getZobristKey());
+  }
+
+  @Test
+  public void enPassantSquareWithoutAPawnThatJustPushedIsDropped() {
+    assertEquals("4k3/8/8/3P4/8/8/8/4K3 w - - 0 1", Board.fromFen("4k3/8/8/3P4/8/8/8/4K3 w - e6 0 1").toFen());
+    assertEquals("4k3/8/8/3Pp3/8/8/8/4K3 b - - 0 1", Board.fromFen("4k3/8/8/3Pp3/8/8/8/4K3 b - e6 0 1").toFen());
+    assertEquals("4k3/4p3/8/3Pp3/8/8/8/4K3 w - - 0 1", Board.fromFen("4k3/4p3/8/3Pp3/8/8/8/4K3 w - e6 0 1").toFen());
+    assertEquals("4k3/8/8/3PP3/8/8/8/4K3 w - - 0 1", Board.fromFen("4k3/8/8/3PP3/8/8/8/4K3 w - e6 0 1").toFen());
+
+    Board board = Board.fromFen("4k3/8/8/3Pp3/8/8/8/4K3 w - e6 0 1");
+    assertEquals("4k3/8/8/3Pp3/8/8/8/4K3 w - e6 0 1", board.toFen());
+    assertEquals(7, Perft.perft(board, 1));
+  }
+
+  @Test
+  public void parsesASliceOfABufferInPlace() {
+    String corpus = "8/8/8/8/8/8/8/K6k w - - 0 1\n" + Perft.ReferencePosition.KIWIPETE.getFen() + "\n";
+    ByteBuffer buffer = ByteBuffer.wrap(corpus.getBytes(StandardCharsets.US_ASCII));
+    int start = corpus.indexOf('\n') + 1;
+
+    Board board = Board.fromFen(buffer, start, corpus.length() - 1 - start);
+
+    assertEquals(Perft.ReferencePosition.KIWIPETE.toBoard().getZobristKey(), board.getZobristKey());
+    assertEquals(0, buffer.position());
+    assertEquals("8/8/8/8/8/8/8/K6k w - - 0 1", Board.fromFen(corpus, 0, start - 1).toFen());
+  }
+
+  @Test
+  public void sideToMoveAndLaterFieldsAreOptional() {
+    Board board = Board.fromFen("4k3/8/8/8/8/8/8/4K2R");
+
+    assertEquals(PieceColor.WHITE, board.getCurrentTurn());
+    assertEquals("No castling right, so the rook counts as moved", 0, board.getCastlingRights());
+  }
+
+  @Test
+  public void malformedRecordsAreRejected() {
+    assertRejected("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1");
+    assertRejected("rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+    assertRejected("rnbqkbnr/ppppxppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+    assertRejected("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1");
+    assertRejected("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq z9 0 1");
+  }
+
+  private static void assertRejected(String fen) {
+    try {
+      Board.fromFen(fen);
+      assertTrue("Accepted " + fen, false);
+    } catch (IllegalArgumentException e) {
+      assertFalse(e.getMessage().isEmpty());
+    }
+  }
+
+  private static void play(Board board, String... squares) {
+    for (int i = 0; i < squares.length; i += 2) {
+      board.movePiece(Coordinate.from(squares[i]), Coordinate.from(squares[i + 1]));
+    }
+  }
+}
@@ -0,0 +1,152 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GameJournalTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  Path directory;
+
+  @Before
+  public void setup() {
+    directory = folder.getRoot().toPath().resolve("journal");
+  }
+
+  @Test
+  public void gamesAreRecoveredFromSnapshotAndLogTail() throws IOException {
+    GameJournal journal = GameJournal.open(directory);
+    GameService service = new GameService(journal);
+    long game = service.newGame();
+    long ended = service.newGame();
+    String[] moves = {"g1f3", "g8f6", "f3g1", "f6g8"};
+    for (int i = 0; i < GameService.SNAPSHOT_INTERVAL + 3; i++) {
+      String move = moves[i % moves.length];
+      service.move(game, Coordinate.from(move.substring(0, 2)), Coordinate.from(move.substring(2)));
+    }
+    service.move(ended, Coordinate.from("e2"), Coordinate.from("e4"));
+    service.endGame(ended);
+    String fen = service.getFen(game);
+    // No close: the service stops as if the process died after its last acknowledged move
+
+    GameJournal reopened = GameJournal.open(directory);
+    GameService recovered = new GameService(reopened);
+
+    assertEquals(1, recovered.getActiveGames());
+    assertEquals(fen, recovered.getFen(game));
+    assertTrue("Ids are not reused", recovered.newGame() > ended);
+    recovered.move(game, Coordinate.from("f6"), Coordinate.from("g8"));
+    reopened.close();
+    journal.close();
+  }
+
+  @Test
+  public void gameWhoseMoveCannotBeLoggedIsEnded() throws IOException {
+    GameJournal journal = GameJournal.open(directory);
+    GameService service = new GameService(journal);
+    long game = service.newGame();
+    // Writes to a closed journal fail
+    journal.close();
+
+    try {
+      service.move(game, Coordinate.from("e2"), Coordinate.from("e4"));
+      assertTrue("Acknowledged a move that was not logged", false);
+    } catch (UncheckedIOException e) {
+      assertEquals(0, service.getActiveGames());
+      assertEquals(0, service.getMovesPlayed());
+      assertEquals(1, service.getMovesRejected());
+    }
+  }
+
+  @Test
+  public void recoveryCompactsTheLog() throws IOException {
+    try (GameJournal journal = GameJournal.open(directory)) {
+      GameService service = new GameService(journal);
+      service.move(service.newGame(), Coordinate.from("e2"), Coordinate.from("e4"));
+    }
+    try (GameJournal journal = GameJournal.open(directory)) {
+      new GameService(journal);
+
+      assertEquals("Only the segment started by the last compaction is left", 1, segments().size());
+    }
+  }
+
+  @Test
+  public void tornRecordAtTheEndIsIgnored() throws IOException {
+    try (GameJournal journal = GameJournal.open(directory)) {
+      GameService service = new GameService(journal);
+      long game = service.newGame();
+      service.move(game, Coordinate.from("e2"), Coordinate.from("e4"));
+      service.move(game, Coordinate.from("e7"), Coordinate.from("e5"));
+    }
+    try (FileChannel segment = FileChannel.open(directory.resolve(segments().get(0)), StandardOpenOption.WRITE)) {
+      segment.truncate(segment.size() - 3);
+    }
+
+    try (GameJournal journal = GameJournal.open(directory)) {
+      GameService service = new GameService(journal);
+
+      assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", service.getFen(1));
+    }
+  }
+
+  @Test
+  public void concurrentMovesShareCommits() throws Exception {
+    try (GameJournal journal = GameJournal.open(directory)) {
+      GameService service = new GameService(journal);
+      int games = 16;
+      ExecutorService players = Executors.newFixedThreadPool(games);
+      try {
+        List<Future<Long>> ids = new ArrayList<>();
+        for (int i = 0; i < games; i++) {
+          ids.add(players.submit(() -> {
+            long game = service.newGame();
+            service.move(game, Coordinate.from("e2"), Coordinate.from("e4"));
+            service.move(game, Coordinate.from("e7"), Coordinate.from("e5"));
+            return game;
+          }));
+        }
+        for (Future<Long> id : ids) {
+          id.get();
+        }
+      } finally {
+        players.shutdownNow();
+      }
+      assertEquals(2 * games, service.getMovesPlayed());
+    }
+
+    try (GameJournal journal = GameJournal.open(directory)) {
+      GameService service = new GameService(journal);
+      for (long game = 1; game <= 16; game++) {
+        assertEquals("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 1", service.getFen(game));
+      }
+      assertFalse(service.endGame(17));
+    }
+  }
+
+  private List<String> segments() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.map(file -> file.getFileName().toString()).filter(name -> name.endsWith(".log")).sorted()
+          .collect(Collectors.toList());
+    }
+  }
+}
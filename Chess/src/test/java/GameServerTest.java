@@ -0,0 +1,56 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GameServerTest {
+  GameServer server;
+
+  @Before
+  public void setup() throws IOException {
+    server = GameServer.start(new GameService(), 0);
+  }
+
+  @After
+  public void teardown() throws IOException {
+    server.close();
+  }
+
+  @Test
+  public void foolsMateOverTheWire() throws IOException {
+    try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+         BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+         PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+      out.println("NEW");
+      String game = in.readLine().substring(3);
+
+      assertEquals("OK", request(in, out, "MOVE " + game + " f2f3"));
+      assertEquals(21, request(in, out, "MOVES " + game).split(" ").length);
+      assertEquals("OK", request(in, out, "MOVE " + game + " e7e5"));
+      assertTrue(request(in, out, "MOVE " + game + " e5e4").startsWith("ERR "));
+      assertEquals("OK", request(in, out, "MOVE " + game + " g2g4"));
+      assertEquals("OK CHECKMATE", request(in, out, "move " + game + " d8h4"));
+      assertEquals("OK rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 0 1", request(in, out, "FEN " + game));
+      assertTrue(request(in, out, "STATS").startsWith("OK games=1 moves=4 rejected=1 "));
+      assertEquals("ERR Usage: MOVE id e2e4", request(in, out, "MOVE " + game + " z9a1"));
+      assertEquals("OK", request(in, out, "END " + game));
+      assertEquals("ERR No game " + game, request(in, out, "FEN " + game));
+      assertEquals("ERR Unknown command JUMP", request(in, out, "JUMP"));
+    }
+  }
+
+  private static String request(BufferedReader in, PrintWriter out, String line) throws IOException {
+    out.println(line);
+    return in.readLine();
+  }
+}
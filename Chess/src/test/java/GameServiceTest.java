@@ -0,0 +1,93 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class GameServiceTest {
+  GameService service;
+
+  @Before
+  public void setup() {
+    service = new GameService();
+  }
+
+  @Test
+  public void gamesAreIndependent() {
+    long first = service.newGame();
+    long second = service.newGame("4k3/8/8/8/8/8/8/4K2R w K - 0 1");
+
+    service.move(first, Coordinate.from("e2"), Coordinate.from("e4"));
+    MoveResult result = service.move(second, Coordinate.from("h1"), Coordinate.from("h8"));
+
+    assertTrue(result.isCheck());
+    assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", service.getFen(first));
+    assertEquals(2, service.getActiveGames());
+    assertTrue(service.endGame(first));
+    assertEquals(1, service.getActiveGames());
+  }
+
+  @Test
+  public void racingMovesInOneGameAreSerialized() throws Exception {
+    long game = service.newGame();
+    int threads = 8;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Boolean>> attempts = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        attempts.add(executor.submit(() -> {
+          start.await();
+          try {
+            service.move(game, Coordinate.from("e2"), Coordinate.from("e4"));
+            return true;
+          } catch (RuntimeException e) {
+            return false;
+          }
+        }));
+      }
+      start.countDown();
+      int played = 0;
+      for (Future<Boolean> attempt : attempts) {
+        played += attempt.get() ? 1 : 0;
+      }
+
+      assertEquals(1, played);
+      assertEquals(1, service.getMovesPlayed());
+      assertEquals(threads - 1, service.getMovesRejected());
+      assertEquals(threads, service.getMoveLatency().getCount());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void unknownGameIsRejected() {
+    try {
+      service.getFen(42);
+      assertTrue("Found a game that was never created", false);
+    } catch (IllegalArgumentException e) {
+      assertEquals("No game 42", e.getMessage());
+    }
+  }
+
+  @Test
+  public void latencyPercentilesAreWithinABucket() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+
+    long median = histogram.getPercentileNanos(50);
+    assertTrue(String.valueOf(median), median >= 500_000 && median <= 625_000);
+    assertEquals(1_000_000, histogram.getPercentileNanos(100));
+    assertEquals(1000, histogram.getCount());
+  }
+}
@@ -23,7 +23,7 @@ public class KingTest {
 
   @Test
   public void itAllowsAllKingMoves() {
-    King king = new King(PieceColor.WHITE);
+    King king = King.WHITE;
     Set<Coordinate> possibleMoveCoordinates = board.getPotentialMoves(king, Coordinate.from("d4"), Maps.newHashMap());
 
     Set<Coordinate> expected = new HashSet<>(Arrays.asList(
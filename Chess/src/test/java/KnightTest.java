@@ -20,7 +20,7 @@ public class KnightTest {
 
   @Test
   public void itAllowsAllKnightMoves() {
-    Knight knight = new Knight(PieceColor.WHITE);
+    Knight knight = Knight.WHITE;
     Set<Coordinate> possibleMoveCoordinates =  board.getPotentialMoves(knight, Coordinate.from("d4"), Maps.newHashMap());
     assertThat(possibleMoveCoordinates.size()).isEqualTo(8);
     assertThat(possibleMoveCoordinates).containsExactlyInAnyOrder(Coordinate.from("e6"), Coordinate.from("c2"), Coordinate.from("f5"), Coordinate.from("b3"),
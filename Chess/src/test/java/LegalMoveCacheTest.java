@@ -0,0 +1,60 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class LegalMoveCacheTest {
+  LegalMoveCache cache;
+
+  @Before
+  public void setup() {
+    cache = new LegalMoveCache(2);
+  }
+
+  @Test
+  public void repeatedPositionsAreServedFromTheCache() {
+    LegalMoves first = cache.get(new Board());
+    LegalMoves second = cache.get(new Board());
+
+    assertSame(first, second);
+    assertEquals(20, first.getMoves().size());
+    assertTrue(first.allows(Position.square(4, 1), Position.square(4, 3)));
+    assertFalse(first.allows(Position.square(4, 1), Position.square(4, 4)));
+    assertEquals(1, cache.getStats().hitCount());
+    assertEquals(1, cache.getStats().missCount());
+  }
+
+  @Test
+  public void leastRecentlyUsedPositionIsEvicted() {
+    Board start = new Board();
+    Board afterE4 = Board.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+    Board afterD4 = Board.fromFen("rnbqkbnr/pppppppp/8/8/3P4/8/PPP1PPPP/RNBQKBNR b KQkq d3 0 1");
+
+    cache.get(start);
+    cache.get(afterE4);
+    cache.get(start);
+    cache.get(afterD4);
+    cache.get(start);
+    cache.get(afterE4);
+
+    assertEquals(2, cache.size());
+    assertEquals(2, cache.getStats().evictionCount());
+    assertEquals(2, cache.getStats().hitCount());
+    assertEquals(4, cache.getStats().missCount());
+  }
+
+  @Test
+  public void terminalPositionsAreFlagged() {
+    LegalMoves mate = cache.get(Board.fromFen("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3"));
+    LegalMoves stalemate = cache.get(Board.fromFen("k7/8/1Q6/8/8/8/8/7K b - - 0 1"));
+
+    assertTrue(mate.isCheck());
+    assertTrue(mate.isCheckmate());
+    assertFalse(mate.isStalemate());
+    assertFalse(stalemate.isCheck());
+    assertTrue(stalemate.isStalemate());
+  }
+}
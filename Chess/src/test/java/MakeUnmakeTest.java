@@ -0,0 +1,120 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertFalse;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pieces.King;
+import pieces.Knight;
+import pieces.Pawn;
+import pieces.Piece;
+import pieces.PieceColor;
+import pieces.PieceType;
+import pieces.Rook;
+
+public class MakeUnmakeTest {
+  Board board;
+
+  @Before
+  public void setup() {
+    board = new Board();
+  }
+
+  @Test
+  public void unmakeRestoresEveryMoveFromTheStartingPosition() {
+    String before = board.serialize();
+    int[] moves = new int[Move.MAX_MOVES];
+    int[] replies = new int[Move.MAX_MOVES];
+    int count = MoveGenerator.generateLegalMoves(board, moves);
+    for (int i = 0; i < count; i++) {
+      board.makeMove(moves[i]);
+      int replyCount = MoveGenerator.generateLegalMoves(board, replies);
+      for (int j = 0; j < replyCount; j++) {
+        board.makeMove(replies[j]);
+        board.unmakeMove();
+      }
+      board.unmakeMove();
+      assertEquals("Position after undoing " + Move.toString(moves[i]), before, board.serialize());
+    }
+  }
+
+  @Test
+  public void unmakeRestoresEnPassantCapture() {
+    Map<Coordinate, Piece> pieces = new HashMap<>();
+    Pawn whitePawn = Pawn.WHITE;
+    Pawn blackPawn = Pawn.BLACK;
+    pieces.put(Coordinate.from("e5"), whitePawn);
+    pieces.put(Coordinate.from("f5"), blackPawn);
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("e8"), King.BLACK);
+    board.clearAndSetPieces(pieces);
+    board.setEnPassantTarget(Coordinate.from("f6"));
+
+    board.makeMove(Move.encode(square("e5"), square("f6"), Move.CAPTURE | Move.EN_PASSANT));
+    assertNull(board.getPieceAt(Coordinate.from("f5")));
+    assertNull(board.getEnPassantTarget());
+
+    board.unmakeMove();
+    assertSame(blackPawn, board.getPieceAt(Coordinate.from("f5")));
+    assertSame(whitePawn, board.getPieceAt(Coordinate.from("e5")));
+    assertNull(board.getPieceAt(Coordinate.from("f6")));
+    assertEquals(Coordinate.from("f6"), board.getEnPassantTarget());
+  }
+
+  @Test
+  public void unmakeRestoresCastlingRookAndRights() {
+    Map<Coordinate, Piece> pieces = new HashMap<>();
+    King king = King.WHITE;
+    Rook rook = Rook.WHITE;
+    pieces.put(Coordinate.from("e1"), king);
+    pieces.put(Coordinate.from("h1"), rook);
+    pieces.put(Coordinate.from("e8"), King.BLACK);
+    board.clearAndSetPieces(pieces);
+
+    board.makeMove(Move.encode(square("e1"), square("g1"), Move.CASTLE));
+    assertSame(rook, board.getPieceAt(Coordinate.from("f1")));
+    assertEquals(0, board.getCastlingRights());
+
+    board.unmakeMove();
+    assertSame(king, board.getPieceAt(Coordinate.from("e1")));
+    assertSame(rook, board.getPieceAt(Coordinate.from("h1")));
+    assertNull(board.getPieceAt(Coordinate.from("f1")));
+    assertEquals(Board.WHITE_KINGSIDE_CASTLE, board.getCastlingRights());
+  }
+
+  @Test
+  public void unmakeRestoresPromotedPawnAndCapturedPiece() {
+    Map<Coordinate, Piece> pieces = new HashMap<>();
+    Pawn pawn = Pawn.WHITE;
+    Knight knight = Knight.BLACK;
+    pieces.put(Coordinate.from("g7"), pawn);
+    pieces.put(Coordinate.from("h8"), knight);
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("a8"), King.BLACK);
+    board.clearAndSetPieces(pieces);
+
+    board.makeMove(Move.encode(square("g7"), square("h8"), Move.CAPTURE, PieceType.KNIGHT));
+    assertTrue(board.getPieceAt(Coordinate.from("h8")) instanceof Knight);
+    assertEquals(PieceColor.WHITE, board.getPieceAt(Coordinate.from("h8")).getColor());
+
+    board.unmakeMove();
+    assertSame(pawn, board.getPieceAt(Coordinate.from("g7")));
+    assertSame(knight, board.getPieceAt(Coordinate.from("h8")));
+    assertEquals(PieceColor.WHITE, board.getCurrentTurn());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void unmakeWithoutMoveFails() {
+    board.unmakeMove();
+  }
+
+  private static int square(String coordinate) {
+    return Position.toSquare(Coordinate.from(coordinate));
+  }
+}
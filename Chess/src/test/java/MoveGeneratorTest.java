@@ -0,0 +1,151 @@
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pieces.Bishop;
+import pieces.King;
+import pieces.Pawn;
+import pieces.Piece;
+import pieces.PieceColor;
+import pieces.PieceType;
+import pieces.Rook;
+
+public class MoveGeneratorTest {
+  Board board;
+  int[] moves;
+
+  @Before
+  public void setup() {
+    board = new Board();
+    moves = new int[Move.MAX_MOVES];
+  }
+
+  @Test
+  public void moveEncodingRoundTrips() {
+    int move = Move.encode(52, 60, Move.CAPTURE, PieceType.KNIGHT);
+    assertEquals(52, Move.from(move));
+    assertEquals(60, Move.to(move));
+    assertTrue(Move.isCapture(move));
+    assertTrue(Move.isPromotion(move));
+    assertEquals(PieceType.KNIGHT, Move.getPromotion(move));
+    assertEquals("e7e8n", Move.toString(move));
+  }
+
+  @Test
+  public void startingPositionHasTwentyMoves() {
+    assertEquals(20, MoveGenerator.generateLegalMoves(board, moves));
+  }
+
+  @Test
+  public void pawnReachingBackRankGeneratesEveryPromotion() {
+    Map<Coordinate, Piece> pieces = new HashMap<>();
+    pieces.put(Coordinate.from("b7"), Pawn.WHITE);
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("h8"), King.BLACK);
+    board.clearAndSetPieces(pieces);
+
+    assertThat(legalMoveStrings()).contains("b7b8q", "b7b8r", "b7b8b", "b7b8n");
+  }
+
+  @Test
+  public void enPassantCaptureIsGenerated() {
+    Map<Coordinate, Piece> pieces = new HashMap<>();
+    pieces.put(Coordinate.from("e5"), Pawn.WHITE);
+    pieces.put(Coordinate.from("d5"), Pawn.BLACK);
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("e8"), King.BLACK);
+    board.clearAndSetPieces(pieces);
+    board.setEnPassantTarget(Coordinate.from("d6"));
+
+    int count = MoveGenerator.generateLegalMoves(board, moves);
+    boolean found = false;
+    for (int i = 0; i < count; i++) {
+      if (Move.toString(moves[i]).equals("e5d6")) {
+        found = Move.isEnPassant(moves[i]);
+      }
+    }
+    assertTrue("e5xd6 en passant should be generated", found);
+  }
+
+  @Test
+  public void castlingIsGeneratedOnBothSides() {
+    Map<Coordinate, Piece> pieces = new HashMap<>();
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("a1"), Rook.WHITE);
+    pieces.put(Coordinate.from("h1"), Rook.WHITE);
+    pieces.put(Coordinate.from("e8"), King.BLACK);
+    board.clearAndSetPieces(pieces);
+
+    assertThat(legalMoveStrings()).contains("e1g1", "e1c1");
+  }
+
+  @Test
+  public void pinnedPieceCannotLeaveThePin() {
+    Map<Coordinate, Piece> pieces = new HashMap<>();
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("e2"), Bishop.WHITE);
+    pieces.put(Coordinate.from("e8"), Rook.BLACK);
+    pieces.put(Coordinate.from("a8"), King.BLACK);
+    board.clearAndSetPieces(pieces);
+
+    assertThat(legalMoveStrings()).noneMatch(move -> move.startsWith("e2"));
+  }
+
+  @Test
+  public void checkCanBeAnsweredByBlockingTheRay() {
+    board = Board.fromFen("6k1/8/8/8/8/3B4/5PPP/r5K1 w - - 0 1");
+
+    assertThat(legalMoveStrings()).containsExactlyInAnyOrder("d3b1", "d3f1");
+    assertFalse(board.hasNoLegalMoves());
+  }
+
+  @Test
+  public void doubleCheckCannotBeBlocked() {
+    board = Board.fromFen("k7/8/8/8/8/3B4/5nPP/4r2K w - - 0 1");
+
+    assertTrue(board.hasNoLegalMoves());
+  }
+
+  @Test
+  public void checkingPawnCanBeCapturedEnPassant() {
+    board = Board.fromFen("8/3B4/7R/k7/1Pp5/P7/8/K7 b - b3 0 1");
+
+    assertThat(legalMoveStrings()).containsExactly("c4b3");
+    assertFalse(board.hasNoLegalMoves());
+  }
+
+  @Test
+  public void earlyExitAgreesWithFullGeneration() {
+    Random random = new Random(19);
+    for (int game = 0; game < 20; game++) {
+      board = Board.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+      for (int ply = 0; ply < 100; ply++) {
+        int count = MoveGenerator.generateLegalMoves(board, moves);
+        assertEquals(board.toFen(), count == 0, board.hasNoLegalMoves());
+        if (count == 0) {
+          break;
+        }
+        board.makeMove(moves[random.nextInt(count)]);
+      }
+    }
+  }
+
+  private Set<String> legalMoveStrings() {
+    int count = MoveGenerator.generateLegalMoves(board, moves);
+    Set<String> result = new HashSet<>();
+    for (int i = 0; i < count; i++) {
+      result.add(Move.toString(moves[i]));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,94 @@
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class MovePickerTest {
+  MovePicker picker;
+  int[] noKillers;
+  int[] history;
+
+  @Before
+  public void setup() {
+    picker = new MovePicker();
+    noKillers = new int[] {Move.NONE, Move.NONE};
+    history = new int[64 * 64];
+  }
+
+  @Test
+  public void everyPseudoLegalMoveIsPickedOnce() {
+    for (Perft.ReferencePosition reference : Perft.ReferencePosition.values()) {
+      Board board = reference.toBoard();
+      List<Integer> generated = generated(board);
+      int hashMove = generated.get(generated.size() / 2);
+      int[] killers = {generated.get(generated.size() - 1), generated.get(0)};
+
+      picker.reset(board, hashMove, killers, history);
+
+      assertThat(picked()).as(reference.toString()).containsExactlyInAnyOrderElementsOf(generated);
+    }
+  }
+
+  @Test
+  public void hashMoveThenCapturesByVictimAndAttackerThenKillersThenHistory() {
+    // The knight can take the queen or the pawn, the queen only the pawn
+    Board board = Board.fromFen("4k3/8/3q4/1N6/3p4/8/3Q4/4K3 w - - 0 1");
+    int hashMove = move("d2d3");
+    int killer = move("e1f1");
+    int quietWithHistory = move("b5a3");
+    history[Move.from(quietWithHistory) * 64 + Move.to(quietWithHistory)] = 100;
+
+    picker.reset(board, hashMove, new int[] {killer, Move.NONE}, history);
+    List<String> picked = picked().stream().map(Move::toString).collect(Collectors.toList());
+
+    assertThat(picked).startsWith("d2d3", "b5d6", "b5d4", "d2d4", "e1f1", "b5a3");
+  }
+
+  @Test
+  public void movesFromOtherPositionsAreSkipped() {
+    Board board = new Board();
+    int notHere = move("e4e5");
+
+    picker.reset(board, notHere, new int[] {move("d2d5"), notHere}, history);
+
+    assertThat(picked()).doesNotContain(notHere).hasSize(20);
+  }
+
+  @Test
+  public void capturesOnlyPicksCapturesAndPromotions() {
+    Board board = Perft.ReferencePosition.PROMOTIONS.toBoard();
+
+    picker.resetCaptures(board);
+    List<Integer> picked = picked();
+
+    assertThat(picked).isNotEmpty().allMatch(MovePicker::isTactical);
+    assertThat(picked).containsExactlyInAnyOrderElementsOf(
+        generated(board).stream().filter(MovePicker::isTactical).collect(Collectors.toList()));
+  }
+
+  private List<Integer> picked() {
+    List<Integer> picked = new ArrayList<>();
+    for (int move = picker.next(); move != Move.NONE; move = picker.next()) {
+      picked.add(move);
+    }
+    return picked;
+  }
+
+  private static List<Integer> generated(Board board) {
+    int[] moves = new int[Move.MAX_MOVES];
+    int count = MoveGenerator.generatePseudoLegalMoves(board, board.getCurrentTurn(), moves);
+    List<Integer> generated = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      generated.add(moves[i]);
+    }
+    return generated;
+  }
+
+  private static int move(String move) {
+    return Move.encode(Position.toSquare(Coordinate.from(move)), Position.toSquare(Coordinate.from(move.substring(2))), 0);
+  }
+}
@@ -0,0 +1,80 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import pieces.PieceColor;
+
+public class ParallelSearchTest {
+  ParallelSearch search;
+
+  @Before
+  public void setup() {
+    search = new ParallelSearch(4, 8);
+  }
+
+  @After
+  public void tearDown() {
+    search.close();
+  }
+
+  @Test
+  public void findsMateWithHelpers() {
+    Board board = Board.fromFen("7k/R7/5K2/8/8/8/8/8 w - - 0 1");
+
+    SearchResult result = search.search(board, SearchLimits.ofDepth(5));
+
+    assertEquals("f6g6", Move.toString(result.getBestMove()));
+    assertEquals(Search.MATE_SCORE - 3, result.getScore());
+  }
+
+  @Test
+  public void searchedBoardIsLeftUntouched() {
+    Board board = Perft.ReferencePosition.KIWIPETE.toBoard();
+    String before = board.serialize();
+
+    SearchResult result = search.search(board, SearchLimits.ofDepth(4));
+
+    assertEquals(4, result.getDepth());
+    assertEquals(before, board.serialize());
+  }
+
+  @Test
+  public void nodeBudgetCoversAllWorkers() {
+    Board board = Perft.ReferencePosition.KIWIPETE.toBoard();
+
+    SearchResult result = search.search(board, SearchLimits.ofNodes(20_000));
+
+    assertTrue(String.valueOf(result.getNodes()), result.getNodes() <= 20_000);
+    assertTrue(result.getBestMove() != Move.NONE);
+  }
+
+  @Test
+  public void boardsInOneJvmDoNotShareKingState() {
+    Board first = Board.fromFen("4k3/8/8/8/8/8/8/r3K3 w - - 0 1");
+    Board second = Board.fromFen("k7/8/8/8/8/8/8/4K3 w - - 0 1");
+
+    assertTrue(first.isInCheck(PieceColor.WHITE));
+    assertFalse(second.isInCheck(PieceColor.WHITE));
+    assertFalse("Kings are found from each board's own pieces", second.isInCheck(PieceColor.BLACK));
+  }
+
+  @Test
+  public void copiedBoardIsIndependent() {
+    Board board = new Board();
+    Board copy = new Board(board);
+
+    copy.movePiece(Coordinate.from("e2"), Coordinate.from("e4"));
+
+    assertEquals(new Board().serialize(), board.serialize());
+    assertEquals(new Board().getZobristKey(), board.getZobristKey());
+    // Pieces are shared flyweights; only the squares they stand on are copied
+    assertSame(board.getPieceAt(Coordinate.from("e2")), copy.getPieceAt(Coordinate.from("e4")));
+    assertNull(copy.getPieceAt(Coordinate.from("e2")));
+  }
+}
@@ -0,0 +1,65 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pieces.PieceColor;
+import pieces.PieceType;
+
+public class PawnHashTableTest {
+  PawnHashTable table;
+
+  @Before
+  public void setup() {
+    table = new PawnHashTable(1024);
+  }
+
+  @Test
+  public void pieceMovesKeepThePawnKeyAndHitTheTable() {
+    Board board = new Board();
+    long pawnKey = board.getPosition().getPawnKey();
+    table.get(board.getPosition());
+
+    board.movePiece(Coordinate.from("g1"), Coordinate.from("f3"));
+    board.movePiece(Coordinate.from("b8"), Coordinate.from("c6"));
+    table.get(board.getPosition());
+
+    assertEquals(pawnKey, board.getPosition().getPawnKey());
+    assertEquals(1, table.getHits());
+    assertEquals(1, table.getMisses());
+    assertEquals(0.5, table.getHitRate(), 0.0);
+  }
+
+  @Test
+  public void enPassantAndPromotionChangeThePawnKeyAndUnmakeRestoresIt() {
+    Board board = Board.fromFen("4k3/1P6/8/3pP3/8/8/8/4K3 w - d6 0 1");
+    long start = board.getPosition().getPawnKey();
+
+    board.movePiece(Coordinate.from("e5"), Coordinate.from("d6"));
+    long afterEnPassant = board.getPosition().getPawnKey();
+    board.movePiece(Coordinate.from("e8"), Coordinate.from("d8"));
+    board.movePiece(Coordinate.from("b7"), Coordinate.from("b8"));
+
+    assertNotEquals(start, afterEnPassant);
+    assertEquals(Board.fromFen(board.toFen()).getPosition().getPawnKey(), board.getPosition().getPawnKey());
+    board.unmakeMove();
+    board.unmakeMove();
+    board.unmakeMove();
+    assertEquals(start, board.getPosition().getPawnKey());
+  }
+
+  @Test
+  public void cachedScoresMatchComputedScores() {
+    for (Perft.ReferencePosition reference : Perft.ReferencePosition.values()) {
+      Position position = reference.toBoard().getPosition();
+      int expected = Evaluator.pawnStructure(position.getBitboard(PieceColor.WHITE, PieceType.PAWN),
+          position.getBitboard(PieceColor.BLACK, PieceType.PAWN));
+
+      assertEquals(reference.toString(), expected, table.get(position));
+      assertEquals(reference.toString(), expected, table.get(position));
+    }
+    assertEquals(Perft.ReferencePosition.values().length, table.getMisses());
+    assertEquals(Perft.ReferencePosition.values().length, table.getHits());
+  }
+}
@@ -22,7 +22,7 @@ public class PawnTest {
 
   @Test
   public void itAllowsTwoMovesForUnmovedPawn() {
-    Pawn pawn = new Pawn(PieceColor.WHITE);
+    Pawn pawn = Pawn.WHITE;
     Set<Coordinate> possibleMoveCoordinates =  board.getPotentialMoves(pawn, Coordinate.from("d2"), Maps.newHashMap());
     assertThat(possibleMoveCoordinates.size()).isEqualTo(2);
     assertThat(possibleMoveCoordinates).containsExactlyInAnyOrder(Coordinate.from("d3"), Coordinate.from("d4"));
@@ -30,18 +30,16 @@ public class PawnTest {
 
   @Test
   public void itAllowsOneMoveForUMovedPawn() {
-    Pawn pawn = new Pawn(PieceColor.WHITE);
-    pawn.setHasMoved(true);
-    Set<Coordinate> possibleMoveCoordinates =  board.getPotentialMoves(pawn, Coordinate.from("d2"), Maps.newHashMap());
+    Pawn pawn = Pawn.WHITE;
+    Set<Coordinate> possibleMoveCoordinates =  board.getPotentialMoves(pawn, Coordinate.from("d3"), Maps.newHashMap());
     assertThat(possibleMoveCoordinates.size()).isEqualTo(1);
-    assertThat(possibleMoveCoordinates).containsExactlyInAnyOrder(Coordinate.from("d3"));
+    assertThat(possibleMoveCoordinates).containsExactlyInAnyOrder(Coordinate.from("d4"));
   }
 
   @Test
   public void itAllowsPawnToTake() {
-    Pawn pawn = new Pawn(PieceColor.WHITE);
-    pawn.setHasMoved(true);
-    Pawn opponentPawn = new Pawn(PieceColor.BLACK);
+    Pawn pawn = Pawn.WHITE;
+    Pawn opponentPawn = Pawn.BLACK;
     Map<Coordinate, Piece> currentBoardPosition = Maps.newHashMap();
     currentBoardPosition.put(Coordinate.from("d4"), pawn);
     currentBoardPosition.put(Coordinate.from("e5"), opponentPawn);
@@ -0,0 +1,71 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Depths are kept to a few hundred thousand nodes so the suite stays fast; run {@link Perft#main} for the full counts.
+ */
+public class PerftTest {
+
+  @Test
+  public void startingPosition() {
+    assertNodeCounts(Perft.ReferencePosition.STARTING, 4);
+  }
+
+  @Test
+  public void kiwipete() {
+    assertNodeCounts(Perft.ReferencePosition.KIWIPETE, 3);
+  }
+
+  @Test
+  public void endgameWithEnPassantPins() {
+    assertNodeCounts(Perft.ReferencePosition.ENDGAME, 4);
+  }
+
+  @Test
+  public void promotionsAndCastlingRights() {
+    assertNodeCounts(Perft.ReferencePosition.PROMOTIONS, 3);
+  }
+
+  @Test
+  public void talkchess() {
+    assertNodeCounts(Perft.ReferencePosition.TALKCHESS, 3);
+  }
+
+  @Test
+  public void middlegame() {
+    assertNodeCounts(Perft.ReferencePosition.MIDDLEGAME, 3);
+  }
+
+  @Test
+  public void divideSumsToPerftAndLeavesBoardUnchanged() {
+    Board board = Perft.ReferencePosition.KIWIPETE.toBoard();
+    String before = board.serialize();
+
+    Map<String, Long> split = Perft.divide(board, 2);
+
+    assertEquals(48, split.size());
+    assertEquals(Perft.ReferencePosition.KIWIPETE.getNodeCount(2), split.values().stream().mapToLong(Long::longValue).sum());
+    assertEquals(before, board.serialize());
+  }
+
+  @Test
+  public void divideRejectsDepthZero() {
+    try {
+      Perft.divide(new Board(), 0);
+      assertTrue("Divided at depth 0", false);
+    } catch (IllegalArgumentException e) {
+      assertEquals("Depth must be at least 1: 0", e.getMessage());
+    }
+    assertEquals(1, Perft.perft(new Board(), 0));
+  }
+
+  private static void assertNodeCounts(Perft.ReferencePosition reference, int maxDepth) {
+    for (int depth = 1; depth <= maxDepth; depth++) {
+      assertEquals(reference + " depth " + depth, reference.getNodeCount(depth), Perft.perft(reference.toBoard(), depth));
+    }
+  }
+}
@@ -0,0 +1,127 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+public class PgnTest {
+  private static final String OPERA_GAME = "[Event \"Paris\"]\n"
+      + "[Site \"Paris FRA\"]\n"
+      + "[Date \"1858.??.??\"]\n"
+      + "[Round \"?\"]\n"
+      + "[White \"Paul Morphy\"]\n"
+      + "[Black \"Duke Karl / Count Isouard\"]\n"
+      + "[Result \"1-0\"]\n"
+      + "\n"
+      + "1. e4 e5 2. Nf3 d6 3. d4 Bg4 {This is a weak move already.} 4. dxe5 Bxf3 5. Qxf3 dxe5\n"
+      + "6. Bc4 Nf6 7. Qb3 Qe7 8. Nc3 c6 9. Bg5 (9. Qxb7 Qb4+) 9... b5 $6 10. Nxb5 cxb5\n"
+      + "11. Bxb5+ Nbd7 12. O-O-O Rd8 13. Rxd7 Rxd7 14. Rd1 Qe6 15. Bxd7+ Nxd7 ; mate follows\n"
+      + "16. Qb8+! Nxb8 17. Rd8# 1-0\n"
+      + "\n";
+
+  @Test
+  public void gameIsReplayedSkippingCommentsVariationsAndAnnotations() throws IOException {
+    try (PgnReader reader = reader(OPERA_GAME)) {
+      Game game = reader.next();
+
+      assertEquals("Paul Morphy", game.getTags().get("White"));
+      assertEquals("Duke Karl / Count Isouard", game.getTags().get("Black"));
+      assertEquals("1-0", game.getResult());
+      assertEquals(33, game.getMoves().size());
+      assertEquals("1n1Rkb1r/p4ppp/4q3/4p1B1/4P3/8/PPP2PPP/2K5 b k - 0 1", game.replay().toFen());
+      assertFalse(reader.hasNext());
+    }
+  }
+
+  @Test
+  public void writtenGameMatchesTheSourceMovetext() throws IOException {
+    Game game = reader(OPERA_GAME).next();
+    StringWriter out = new StringWriter();
+
+    new PgnWriter(out).write(game);
+
+    assertTrue(out.toString().startsWith("[Event \"Paris\"]\n"));
+    assertTrue(out.toString().contains("11. Bxb5+ Nbd7 12. O-O-O Rd8 13. Rxd7 Rxd7"));
+    assertTrue(out.toString().endsWith("17. Rd8# 1-0\n\n"));
+    for (String line : out.toString().split("\n")) {
+      assertTrue(line, line.length() < 80);
+    }
+    assertEquals(game.getMoves(), reader(out.toString()).next().getMoves());
+  }
+
+  @Test
+  public void playedBoardIsRecordedFromItsStartingPosition() throws IOException {
+    Board board = Board.fromFen("8/P6k/8/8/8/8/8/K7 b - - 0 1");
+    board.movePiece(Coordinate.from("h7"), Coordinate.from("g7"));
+    board.movePiece(Coordinate.from("a7"), Coordinate.from("a8"));
+    String fenBefore = board.toFen();
+
+    Game game = Game.of(board);
+    StringWriter out = new StringWriter();
+    new PgnWriter(out).write(game);
+
+    assertEquals(fenBefore, board.toFen());
+    assertTrue(out.toString().contains("[FEN \"8/P6k/8/8/8/8/8/K7 b - - 0 1\"]\n"));
+    assertTrue(out.toString().contains("1... Kg7 2. a8=Q *"));
+    assertEquals(fenBefore, reader(out.toString()).next().replay().toFen());
+  }
+
+  @Test
+  public void sanDisambiguatesByFileThenRank() {
+    Board board = Board.fromFen("1k6/8/8/8/R6R/8/8/R3K3 w - - 0 1");
+    int[] moves = new int[Move.MAX_MOVES];
+
+    assertEquals("Rhd4", san(board, "h4", "d4"));
+    assertEquals("R1a2", san(board, "a1", "a2"));
+    assertEquals("Qh1e4", san(Board.fromFen("1k6/8/8/8/7Q/8/K7/4Q2Q w - - 0 1"), "h1", "e4"));
+    assertEquals(Move.encode(0, 8, 0), San.parse(board, "R1a2", 0, 4, moves));
+    assertEquals(Move.encode(4, 6, Move.CASTLE),
+        San.parse(Board.fromFen("4k3/8/8/8/8/8/8/4K2R w K - 0 1"), "0-0+", 0, 4, moves));
+  }
+
+  @Test
+  public void streamReadsManyGamesAcrossBufferBoundaries() throws IOException {
+    StringBuilder archive = new StringBuilder();
+    for (int i = 0; i < 500; i++) {
+      archive.append(OPERA_GAME);
+    }
+
+    try (Stream<Game> games = reader(archive.toString()).stream()) {
+      assertEquals(500, games.filter(game -> game.getMoves().size() == 33).count());
+    }
+  }
+
+  @Test
+  public void illegalMoveIsReportedWithItsLine() {
+    Iterator<Game> games = reader("[Event \"?\"]\n\n1. e4 e5\n2. Ke3 *\n");
+    try {
+      games.next();
+      assertTrue("Accepted an illegal move", false);
+    } catch (IllegalArgumentException e) {
+      assertTrue(e.getMessage(), e.getMessage().startsWith("Invalid PGN at line 4"));
+    }
+  }
+
+  private static String san(Board board, String from, String to) {
+    int[] moves = new int[Move.MAX_MOVES];
+    int count = MoveGenerator.generatePseudoLegalMoves(board, Position.toSquare(Coordinate.from(from)), moves, 0);
+    for (int i = 0; i < count; i++) {
+      if (Move.to(moves[i]) == Position.toSquare(Coordinate.from(to))) {
+        return San.append(board, moves[i], new StringBuilder(), new int[Move.MAX_MOVES]).toString();
+      }
+    }
+    throw new AssertionError("No move " + from + to);
+  }
+
+  private static PgnReader reader(String pgn) {
+    return new PgnReader(Channels.newChannel(new ByteArrayInputStream(pgn.getBytes(StandardCharsets.UTF_8))));
+  }
+}
@@ -0,0 +1,106 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.junit.Test;
+
+public class PositionCodecTest {
+
+  @Test
+  public void referencePositionsRoundTrip() {
+    for (Perft.ReferencePosition reference : Perft.ReferencePosition.values()) {
+      Board board = reference.toBoard();
+      ByteBuffer buffer = ByteBuffer.allocate(PositionCodec.BYTES);
+
+      PositionCodec.encode(board, buffer);
+      buffer.flip();
+      Board decoded = PositionCodec.decode(buffer);
+
+      assertEquals(board.toFen(), decoded.toFen());
+      assertEquals(board.getZobristKey(), decoded.getZobristKey());
+      assertEquals(PositionCodec.BYTES, buffer.position());
+    }
+  }
+
+  @Test
+  public void sideToMoveAndEnPassantSurvive() {
+    Board board = new Board();
+    board.movePiece(Coordinate.from("e2"), Coordinate.from("e4"));
+
+    Board decoded = roundTrip(board, ByteBuffer.allocate(PositionCodec.BYTES));
+
+    assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", decoded.toFen());
+  }
+
+  @Test
+  public void castlingRightsSurvivePartialLoss() {
+    Board board = Board.fromFen("r3k2r/8/8/8/8/8/8/R3K2R b Kq - 0 1");
+
+    Board decoded = roundTrip(board, ByteBuffer.allocate(PositionCodec.BYTES));
+
+    assertEquals("r3k2r/8/8/8/8/8/8/R3K2R b Kq - 0 1", decoded.toFen());
+  }
+
+  @Test
+  public void recordsArePackedBackToBackInEitherByteOrder() {
+    Board[] boards = {new Board(), Perft.ReferencePosition.KIWIPETE.toBoard(), Board.fromFen("8/8/8/8/8/8/8/K6k b - - 0 1")};
+    for (ByteOrder order : new ByteOrder[] {ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(PositionCodec.BYTES * boards.length).order(order);
+      for (Board board : boards) {
+        PositionCodec.encode(board, buffer);
+      }
+
+      for (int i = boards.length - 1; i >= 0; i--) {
+        assertEquals(boards[i].toFen(), PositionCodec.decode(buffer, i * PositionCodec.BYTES).toFen());
+      }
+    }
+  }
+
+  @Test
+  public void encodingDoesNotDependOnBufferByteOrder() {
+    Board board = Perft.ReferencePosition.KIWIPETE.toBoard();
+    ByteBuffer bigEndian = ByteBuffer.allocate(PositionCodec.BYTES);
+    ByteBuffer littleEndian = ByteBuffer.allocate(PositionCodec.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+    PositionCodec.encode(board, bigEndian, 0);
+    PositionCodec.encode(board, littleEndian, 0);
+
+    assertEquals(bigEndian.rewind(), littleEndian.rewind());
+  }
+
+  @Test
+  public void positionWithMoreThan32PiecesIsRejected() {
+    Board board = Board.fromFen("QQQQQQQQ/QQQQQQQQ/QQQQQQQQ/QQQQQQQQ/8/8/8/K6k w - - 0 1");
+    ByteBuffer buffer = ByteBuffer.allocate(PositionCodec.BYTES);
+
+    try {
+      PositionCodec.encode(board, buffer, 0);
+      assertTrue("Encoded 34 pieces", false);
+    } catch (IllegalArgumentException e) {
+      assertEquals("Position has more than 32 pieces", e.getMessage());
+    }
+    assertEquals(ByteBuffer.allocate(PositionCodec.BYTES), buffer);
+  }
+
+  @Test
+  public void blackToMoveWithoutABlackKingIsRejected() {
+    Board board = Board.fromFen("8/8/8/8/8/8/8/K6q b - - 0 1");
+    ByteBuffer buffer = ByteBuffer.allocate(PositionCodec.BYTES);
+
+    try {
+      PositionCodec.encode(board, buffer, 0);
+      assertTrue("Encoded black to move without a black king", false);
+    } catch (IllegalArgumentException e) {
+      assertEquals("Position has black to move but no black king", e.getMessage());
+    }
+    assertEquals(ByteBuffer.allocate(PositionCodec.BYTES), buffer);
+    assertEquals("8/8/8/8/8/8/8/K6q w - - 0 1", roundTrip(Board.fromFen("8/8/8/8/8/8/8/K6q w - - 0 1"), buffer).toFen());
+  }
+
+  private static Board roundTrip(Board board, ByteBuffer buffer) {
+    PositionCodec.encode(board, buffer, 0);
+    return PositionCodec.decode(buffer, 0);
+  }
+}
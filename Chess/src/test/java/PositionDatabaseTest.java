@@ -0,0 +1,203 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PositionDatabaseTest {
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  Path path;
+  PositionDatabase database;
+
+  @Before
+  public void setup() throws IOException {
+    path = folder.getRoot().toPath().resolve("positions.db");
+    database = PositionDatabase.open(path, 1000);
+  }
+
+  @After
+  public void teardown() throws IOException {
+    database.close();
+  }
+
+  @Test
+  public void storedAnalysisIsReadBack() {
+    Board board = Perft.ReferencePosition.KIWIPETE.toBoard();
+    int move = Move.encode(36, 53, Move.CAPTURE);
+
+    database.put(board, 45, move, 7);
+    AnalysedPosition analysed = database.get(board).get();
+
+    assertEquals(board.getZobristKey(), analysed.getZobristKey());
+    assertEquals(board.toFen(), analysed.getBoard().toFen());
+    assertEquals(45, analysed.getScore());
+    assertEquals(move, analysed.getBestMove());
+    assertEquals(7, analysed.getVisits());
+    assertFalse(database.get(new Board()).isPresent());
+    assertEquals(1024, database.capacity());
+  }
+
+  @Test
+  public void putReplacesTheEntryForTheSamePosition() {
+    Board board = new Board();
+    database.put(board, 10, Move.NONE, 1);
+    database.put(board, 20, Move.NONE, 2);
+
+    assertEquals(1, database.size());
+    assertEquals(20, database.get(board).get().getScore());
+    assertEquals(2, database.get(board).get().getVisits());
+  }
+
+  @Test
+  public void entriesSurviveReopeningAndCollisionsAreProbedPast() throws IOException {
+    List<Board> boards = positionsAfterTwoPlies();
+    for (int i = 0; i < boards.size(); i++) {
+      database.put(boards.get(i), i, Move.NONE, i);
+    }
+    database.close();
+
+    database = PositionDatabase.open(path, 1);
+    assertEquals("Capacity comes from the file", 1024, database.capacity());
+    assertEquals(boards.size(), database.size());
+    for (int i = 0; i < boards.size(); i++) {
+      AnalysedPosition analysed = database.get(boards.get(i)).get();
+      assertEquals(i, analysed.getScore());
+      assertEquals(boards.get(i).toFen(), analysed.getBoard().toFen());
+    }
+  }
+
+  @Test
+  public void fullTableRejectsNewPositions() throws IOException {
+    database.close();
+    database = PositionDatabase.open(folder.getRoot().toPath().resolve("small.db"), 4);
+    List<Board> boards = positionsAfterTwoPlies();
+    for (int i = 0; i < 3; i++) {
+      database.put(boards.get(i), 0, Move.NONE, 0);
+    }
+
+    try {
+      database.put(boards.get(3), 0, Move.NONE, 0);
+      assertTrue("Stored a fourth position in four slots", false);
+    } catch (IllegalStateException e) {
+      assertEquals(3, database.size());
+    }
+  }
+
+  @Test
+  public void otherFilesAreRejected() throws IOException {
+    Path other = folder.newFile("other.db").toPath();
+    Files.write(other, new byte[128]);
+
+    try {
+      PositionDatabase.open(other, 16).close();
+      assertTrue("Opened a file without a header", false);
+    } catch (IOException e) {
+      assertTrue(e.getMessage().contains("not a position database"));
+    }
+  }
+
+  @Test
+  public void readersNeverSeeHalfAnUpdate() throws Exception {
+    Board board = new Board();
+    database.put(board, 0, Move.NONE, 0);
+    AtomicBoolean done = new AtomicBoolean();
+    ExecutorService readers = Executors.newFixedThreadPool(2);
+    try {
+      List<Future<Long>> reads = new ArrayList<>();
+      for (int i = 0; i < 2; i++) {
+        reads.add(readers.submit(() -> {
+          long count = 0;
+          while (!done.get()) {
+            AnalysedPosition analysed = database.get(board).get();
+            assertEquals(analysed.getScore(), (int) analysed.getVisits());
+            assertEquals(analysed.getScore(), analysed.getBestMove());
+            count++;
+          }
+          return count;
+        }));
+      }
+      for (int i = 1; i <= 20_000; i++) {
+        database.put(board, i, i, i);
+      }
+      done.set(true);
+      for (Future<Long> read : reads) {
+        assertTrue(read.get() > 0);
+      }
+    } finally {
+      readers.shutdownNow();
+    }
+  }
+
+  @Test(timeout = 10_000)
+  public void slotLeftMidUpdateByACrashedWriterIsStillReadable() throws IOException {
+    Board board = new Board();
+    database.put(board, 25, Move.NONE, 3);
+    database.close();
+    // A writer that crashed mid-update used to leave an odd sequence number in the first word of its slot
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+      ByteBuffer odd = ByteBuffer.allocate(8);
+      for (int slot = 0; slot < 1024; slot++) {
+        channel.write(odd.clear().putLong(0, 7L), 64 + slot * 64L);
+      }
+    }
+
+    database = PositionDatabase.open(path, 1024);
+
+    assertEquals(25, database.get(board).get().getScore());
+    database.put(board, 26, Move.NONE, 4);
+    assertEquals(26, database.get(board).get().getScore());
+  }
+
+  @Test(timeout = 10_000)
+  public void positionTheCodecRejectsLeavesItsSlotReadable() {
+    Board overFull = Board.fromFen("QQQQQQQQ/QQQQQQQQ/QQQQQQQQ/QQQQQQQQ/8/8/8/K6k w - - 0 1");
+
+    try {
+      database.put(overFull, 10, Move.NONE, 1);
+      assertTrue("Stored 34 pieces", false);
+    } catch (IllegalArgumentException e) {
+      assertEquals("Position has more than 32 pieces", e.getMessage());
+    }
+
+    assertFalse(database.get(overFull).isPresent());
+    assertEquals(0, database.size());
+  }
+
+  private static List<Board> positionsAfterTwoPlies() {
+    List<Board> boards = new ArrayList<>();
+    Board board = new Board();
+    int[] moves = new int[Move.MAX_MOVES];
+    int[] replies = new int[Move.MAX_MOVES];
+    int count = MoveGenerator.generateLegalMoves(board, moves);
+    for (int i = 0; i < count; i++) {
+      board.makeMove(moves[i]);
+      int replyCount = MoveGenerator.generateLegalMoves(board, replies);
+      for (int j = 0; j < replyCount; j++) {
+        board.makeMove(replies[j]);
+        boards.add(new Board(board));
+        board.unmakeMove();
+      }
+      board.unmakeMove();
+    }
+    return boards;
+  }
+}
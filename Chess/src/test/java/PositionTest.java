@@ -0,0 +1,75 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import pieces.King;
+import pieces.Pawn;
+import pieces.Piece;
+import pieces.PieceColor;
+import pieces.PieceType;
+
+public class PositionTest {
+  Position position;
+
+  @Before
+  public void setup() {
+    position = new Position();
+  }
+
+  @Test
+  public void squareIndexingMatchesCoordinates() {
+    assertEquals(0, Position.toSquare(Coordinate.from("a1")));
+    assertEquals(7, Position.toSquare(Coordinate.from("h1")));
+    assertEquals(28, Position.toSquare(Coordinate.from("e4")));
+    assertEquals(63, Position.toSquare(Coordinate.from("h8")));
+    assertEquals(Coordinate.from("e4"), Position.toCoordinate(28));
+  }
+
+  @Test
+  public void putAndRemoveKeepBitboardsInSync() {
+    Pawn pawn = Pawn.WHITE;
+    int e4 = Position.toSquare(Coordinate.from("e4"));
+    position.put(e4, pawn);
+
+    assertSame(pawn, position.get(e4));
+    assertEquals(1L << e4, position.getBitboard(PieceColor.WHITE, PieceType.PAWN));
+    assertEquals(1L << e4, position.getOccupancy(PieceColor.WHITE));
+    assertEquals(0L, position.getOccupancy(PieceColor.BLACK));
+    assertTrue(position.isOccupied(e4));
+
+    Piece removed = position.remove(e4);
+    assertSame(pawn, removed);
+    assertNull(position.get(e4));
+    assertEquals(0L, position.getOccupancy());
+    assertEquals(0L, position.getBitboard(PieceColor.WHITE, PieceType.PAWN));
+  }
+
+  @Test
+  public void putReplacesCapturedPiece() {
+    int d5 = Position.toSquare(Coordinate.from("d5"));
+    Pawn blackPawn = Pawn.BLACK;
+    position.put(d5, blackPawn);
+
+    Piece taken = position.put(d5, King.WHITE);
+    assertSame(blackPawn, taken);
+    assertEquals(0L, position.getOccupancy(PieceColor.BLACK));
+    assertEquals(d5, position.getKingSquare(PieceColor.WHITE));
+    assertEquals(-1, position.getKingSquare(PieceColor.BLACK));
+  }
+
+  @Test
+  public void copyIsIndependent() {
+    int e1 = Position.toSquare(Coordinate.from("e1"));
+    position.put(e1, King.WHITE);
+    Position copy = new Position(position);
+    copy.remove(e1);
+
+    assertTrue(position.isOccupied(e1));
+    assertFalse(copy.isOccupied(e1));
+  }
+}
@@ -24,18 +24,17 @@ public class PromotionTest {
   public void whitePawnPromotesToQueenOnRank8() {
     // Set up minimal board: white pawn on e7 about to promote, both kings present
     Map<Coordinate, Piece> pieces = new HashMap<>();
-    Pawn pawn = new Pawn(PieceColor.WHITE);
-    pawn.setHasMoved(true);
+    Pawn pawn = Pawn.WHITE;
     pieces.put(Coordinate.from("e7"), pawn);
-    pieces.put(Coordinate.from("e1"), new King(PieceColor.WHITE));
-    pieces.put(Coordinate.from("e8"), new King(PieceColor.BLACK));
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("e8"), King.BLACK);
 
     board.clearAndSetPieces(pieces);
     board.setCurrentTurn(PieceColor.WHITE);
 
     // Move pawn to e8 (but king is there, use a different file)
     // Actually, let's use a clear path
-    pieces.put(Coordinate.from("a8"), new King(PieceColor.BLACK));
+    pieces.put(Coordinate.from("a8"), King.BLACK);
     pieces.remove(Coordinate.from("e8"));
     board.clearAndSetPieces(pieces);
 
@@ -49,11 +48,10 @@ public class PromotionTest {
   @Test
   public void blackPawnPromotesToQueenOnRank1() {
     Map<Coordinate, Piece> pieces = new HashMap<>();
-    Pawn pawn = new Pawn(PieceColor.BLACK);
-    pawn.setHasMoved(true);
+    Pawn pawn = Pawn.BLACK;
     pieces.put(Coordinate.from("d2"), pawn);
-    pieces.put(Coordinate.from("e1"), new King(PieceColor.WHITE));
-    pieces.put(Coordinate.from("e8"), new King(PieceColor.BLACK));
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("e8"), King.BLACK);
 
     board.clearAndSetPieces(pieces);
     board.setCurrentTurn(PieceColor.BLACK);
@@ -68,11 +66,10 @@ public class PromotionTest {
   @Test
   public void promotedQueenRetainsSameColor() {
     Map<Coordinate, Piece> pieces = new HashMap<>();
-    Pawn pawn = new Pawn(PieceColor.WHITE);
-    pawn.setHasMoved(true);
+    Pawn pawn = Pawn.WHITE;
     pieces.put(Coordinate.from("c7"), pawn);
-    pieces.put(Coordinate.from("e1"), new King(PieceColor.WHITE));
-    pieces.put(Coordinate.from("e8"), new King(PieceColor.BLACK));
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("e8"), King.BLACK);
 
     board.clearAndSetPieces(pieces);
     board.setCurrentTurn(PieceColor.WHITE);
@@ -0,0 +1,85 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class ReplayPipelineTest {
+  private static final String SCHOLARS_MATE = "[Event \"?\"]\n[Result \"1-0\"]\n\n1. e4 e5 2. Qh5 Nc6 3. Bc4 Nf6 4. Qxf7# 1-0\n\n";
+  private static final String ILLEGAL = "[Event \"?\"]\n[Result \"*\"]\n\n1. e4 e5 2. Ke3 *\n\n";
+  private static final String DRAW = "[Event \"?\"]\n[Result \"1/2-1/2\"]\n\n1. Nf3 Nf6 2. Ng1 Ng8 1/2-1/2\n\n";
+
+  ForkJoinPool pool;
+
+  @Before
+  public void setup() {
+    pool = new ForkJoinPool(3);
+  }
+
+  @After
+  public void teardown() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  public void statisticsCoverEveryGameAcrossSmallChunks() throws IOException {
+    StringBuilder corpus = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      corpus.append(SCHOLARS_MATE).append(i % 10 == 0 ? ILLEGAL : DRAW);
+    }
+
+    ReplayStatistics statistics = new ReplayPipeline(pool, 100).run(channel(corpus.toString()));
+
+    assertEquals(380, statistics.getGames());
+    assertEquals(20, statistics.getInvalidGames());
+    assertEquals(ImmutableMap.of("1-0", 200L, "1/2-1/2", 180L), statistics.getResults());
+    assertEquals((200 * 7 + 180 * 4) / 380.0, statistics.getAveragePlies(), 1e-9);
+    assertEquals(corpus.length(), statistics.getBytes());
+    assertEquals(20, statistics.getErrors().size());
+  }
+
+  @Test
+  public void errorsNameTheirLineInTheWholeCorpus() throws IOException {
+    String corpus = SCHOLARS_MATE + SCHOLARS_MATE + ILLEGAL;
+
+    ReplayStatistics statistics = new ReplayPipeline(pool, 64).run(channel(corpus));
+
+    assertEquals(2, statistics.getGames());
+    assertTrue(statistics.getErrors().get(0), statistics.getErrors().get(0).startsWith("Invalid PGN at line 14:"));
+  }
+
+  @Test
+  public void bareMoveListsAreSplitIntoGames() throws IOException {
+    StringBuilder corpus = new StringBuilder();
+    for (int i = 0; i < 50; i++) {
+      corpus.append("1. e4 e5 2. Qh5 Nc6 3. Bc4 Nf6 4. Qxf7# 1-0\n");
+    }
+
+    ReplayStatistics statistics = new ReplayPipeline(pool, 128).run(channel(corpus.toString()));
+
+    assertEquals(50, statistics.getGames());
+    assertEquals(350, statistics.getPlies());
+  }
+
+  @Test
+  public void gameBoundariesSkipTagsAndMovetextOfTheSameGame() {
+    byte[] corpus = (SCHOLARS_MATE + DRAW).getBytes(StandardCharsets.US_ASCII);
+
+    assertEquals(SCHOLARS_MATE.length(), ReplayPipeline.lastGameStart(corpus, corpus.length));
+    assertEquals(0, ReplayPipeline.lastGameStart(corpus, SCHOLARS_MATE.length()));
+  }
+
+  private static ReadableByteChannel channel(String corpus) {
+    return Channels.newChannel(new ByteArrayInputStream(corpus.getBytes(StandardCharsets.US_ASCII)));
+  }
+}
@@ -39,14 +39,12 @@ public class SaveRestoreTest {
   public void roundTripPreservesPiecePositions() {
     // Set up a custom board, serialize, restore into a new board, verify pieces match
     Map<Coordinate, Piece> pieces = new HashMap<>();
-    King whiteKing = new King(PieceColor.WHITE);
-    whiteKing.setHasMoved(true);
+    King whiteKing = King.WHITE;
     pieces.put(Coordinate.from("g1"), whiteKing);
-    pieces.put(Coordinate.from("e8"), new King(PieceColor.BLACK));
-    Pawn pawn = new Pawn(PieceColor.WHITE);
-    pawn.setHasMoved(true);
+    pieces.put(Coordinate.from("e8"), King.BLACK);
+    Pawn pawn = Pawn.WHITE;
     pieces.put(Coordinate.from("d4"), pawn);
-    pieces.put(Coordinate.from("h1"), new Rook(PieceColor.WHITE));
+    pieces.put(Coordinate.from("h1"), Rook.WHITE);
 
     board.clearAndSetPieces(pieces);
     board.setCurrentTurn(PieceColor.WHITE);
@@ -58,15 +56,13 @@ public class SaveRestoreTest {
     Piece restoredKing = restored.getPieceAt(Coordinate.from("g1"));
     assertTrue("White king should be at g1", restoredKing instanceof King);
     assertEquals("White king color", PieceColor.WHITE, restoredKing.getColor());
-    assertTrue("White king hasMoved should be true", restoredKing.getHasMoved());
 
     Piece restoredPawn = restored.getPieceAt(Coordinate.from("d4"));
     assertTrue("White pawn should be at d4", restoredPawn instanceof Pawn);
-    assertTrue("White pawn hasMoved should be true", restoredPawn.getHasMoved());
 
     Piece restoredRook = restored.getPieceAt(Coordinate.from("h1"));
     assertTrue("White rook should be at h1", restoredRook instanceof Rook);
-    assertFalse("White rook hasMoved should be false", restoredRook.getHasMoved());
+    assertEquals("No castling rights with the king off e1", 0, restored.getCastlingRights());
 
     assertNull("Empty square should be null", restored.getPieceAt(Coordinate.from("a1")));
   }
@@ -74,8 +70,8 @@ public class SaveRestoreTest {
   @Test
   public void roundTripPreservesTurnColor() {
     Map<Coordinate, Piece> pieces = new HashMap<>();
-    pieces.put(Coordinate.from("e1"), new King(PieceColor.WHITE));
-    pieces.put(Coordinate.from("e8"), new King(PieceColor.BLACK));
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("e8"), King.BLACK);
 
     board.clearAndSetPieces(pieces);
     board.setCurrentTurn(PieceColor.BLACK);
@@ -84,8 +80,7 @@ public class SaveRestoreTest {
     Board restored = Board.deserialize(serialized);
 
     // Move a black piece to verify it's black's turn
-    Pawn blackPawn = new Pawn(PieceColor.BLACK);
-    blackPawn.setHasMoved(true);
+    Pawn blackPawn = Pawn.BLACK;
     // We can't directly check currentTurnPieceColor, but the serialize output should contain BLACK
     assertTrue("Serialized should contain turn:BLACK", serialized.contains("turn:BLACK"));
   }
@@ -93,8 +88,8 @@ public class SaveRestoreTest {
   @Test
   public void roundTripPreservesEnPassantTarget() {
     Map<Coordinate, Piece> pieces = new HashMap<>();
-    pieces.put(Coordinate.from("e1"), new King(PieceColor.WHITE));
-    pieces.put(Coordinate.from("e8"), new King(PieceColor.BLACK));
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("e8"), King.BLACK);
 
     board.clearAndSetPieces(pieces);
     board.setCurrentTurn(PieceColor.WHITE);
@@ -110,8 +105,8 @@ public class SaveRestoreTest {
   @Test
   public void roundTripWithNoEnPassantTarget() {
     Map<Coordinate, Piece> pieces = new HashMap<>();
-    pieces.put(Coordinate.from("e1"), new King(PieceColor.WHITE));
-    pieces.put(Coordinate.from("e8"), new King(PieceColor.BLACK));
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("e8"), King.BLACK);
 
     board.clearAndSetPieces(pieces);
     board.setCurrentTurn(PieceColor.WHITE);
@@ -126,13 +121,13 @@ public class SaveRestoreTest {
   @Test
   public void roundTripPreservesAllPieceTypes() {
     Map<Coordinate, Piece> pieces = new HashMap<>();
-    pieces.put(Coordinate.from("e1"), new King(PieceColor.WHITE));
-    pieces.put(Coordinate.from("d1"), new Queen(PieceColor.WHITE));
-    pieces.put(Coordinate.from("a1"), new Rook(PieceColor.WHITE));
-    pieces.put(Coordinate.from("c1"), new Bishop(PieceColor.WHITE));
-    pieces.put(Coordinate.from("b1"), new Knight(PieceColor.WHITE));
-    pieces.put(Coordinate.from("e2"), new Pawn(PieceColor.WHITE));
-    pieces.put(Coordinate.from("e8"), new King(PieceColor.BLACK));
+    pieces.put(Coordinate.from("e1"), King.WHITE);
+    pieces.put(Coordinate.from("d1"), Queen.WHITE);
+    pieces.put(Coordinate.from("a1"), Rook.WHITE);
+    pieces.put(Coordinate.from("c1"), Bishop.WHITE);
+    pieces.put(Coordinate.from("b1"), Knight.WHITE);
+    pieces.put(Coordinate.from("e2"), Pawn.WHITE);
+    pieces.put(Coordinate.from("e8"), King.BLACK);
 
     board.clearAndSetPieces(pieces);
     board.setCurrentTurn(PieceColor.WHITE);
@@ -0,0 +1,85 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class SearchTest {
+
+  @Test
+  public void findsBackRankMateInOne() {
+    Board board = Board.fromFen("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1");
+
+    SearchResult result = new Search(board).search(SearchLimits.ofDepth(3));
+
+    assertEquals("a1a8", Move.toString(result.getBestMove()));
+    assertEquals(Search.MATE_SCORE - 1, result.getScore());
+  }
+
+  @Test
+  public void findsMateInTwo() {
+    // No check works at once; the quiet 1. Kg6 leaves only Kg8, then 2. Ra8#
+    Board board = Board.fromFen("7k/R7/5K2/8/8/8/8/8 w - - 0 1");
+
+    SearchResult result = new Search(board).search(SearchLimits.ofDepth(5));
+
+    assertEquals("f6g6", Move.toString(result.getBestMove()));
+    assertTrue(Search.isMateScore(result.getScore()));
+    assertEquals(Search.MATE_SCORE - 3, result.getScore());
+    assertEquals(3, result.getPrincipalVariation().size());
+  }
+
+  @Test
+  public void winsHangingQueen() {
+    Board board = Board.fromFen("4k3/8/8/3q4/8/8/8/3RK3 w - - 0 1");
+
+    SearchResult result = new Search(board).search(SearchLimits.ofDepth(4));
+
+    assertEquals("d1d5", Move.toString(result.getBestMove()));
+    assertTrue(result.getScore() > 400);
+  }
+
+  @Test
+  public void searchLeavesBoardUnchanged() {
+    Board board = Perft.ReferencePosition.KIWIPETE.toBoard();
+    String before = board.serialize();
+    long key = board.getZobristKey();
+
+    new Search(board).search(SearchLimits.ofDepth(3));
+
+    assertEquals(before, board.serialize());
+    assertEquals(key, board.getZobristKey());
+  }
+
+  @Test
+  public void sharedTableCutsNodesOnRepeatedSearch() {
+    TranspositionTable table = new TranspositionTable(4);
+    Board board = Perft.ReferencePosition.MIDDLEGAME.toBoard();
+
+    SearchResult first = new Search(board, table).search(SearchLimits.ofDepth(4));
+    SearchResult second = new Search(board, table).search(SearchLimits.ofDepth(4));
+
+    assertEquals(first.getBestMove(), second.getBestMove());
+    assertTrue(second.getNodes() < first.getNodes() / 2);
+  }
+
+  @Test
+  public void nodeBudgetIsHard() {
+    Board board = Perft.ReferencePosition.KIWIPETE.toBoard();
+
+    SearchResult result = new Search(board).search(SearchLimits.ofNodes(5_000));
+
+    assertTrue(result.getNodes() <= 5_000);
+    assertTrue(result.getBestMove() != Move.NONE);
+    assertEquals(result.getBestMove(), (int) result.getPrincipalVariation().get(0));
+  }
+
+  @Test
+  public void noLegalMovesReturnsNoMove() {
+    Board stalemate = Board.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+
+    SearchResult result = new Search(stalemate).search(SearchLimits.ofDepth(3));
+
+    assertEquals(Move.NONE, result.getBestMove());
+    assertEquals(0, result.getScore());
+  }
+}
@@ -27,9 +27,9 @@ public class StalemateTest {
     // Classic stalemate position: Black king on a8, White queen on b6, White king on c1
     // After white moves queen to b6, black has no legal moves but is not in check
     Map<Coordinate, Piece> pieces = new HashMap<>();
-    pieces.put(Coordinate.from("a8"), new King(PieceColor.BLACK));
-    pieces.put(Coordinate.from("a6"), new Queen(PieceColor.WHITE));
-    pieces.put(Coordinate.from("c1"), new King(PieceColor.WHITE));
+    pieces.put(Coordinate.from("a8"), King.BLACK);
+    pieces.put(Coordinate.from("a6"), Queen.WHITE);
+    pieces.put(Coordinate.from("c1"), King.WHITE);
 
     board.clearAndSetPieces(pieces);
     board.setCurrentTurn(PieceColor.WHITE);
@@ -46,9 +46,9 @@ public class StalemateTest {
   public void noStalemateWhenOpponentHasLegalMoves() {
     // Normal position — not stalemate
     Map<Coordinate, Piece> pieces = new HashMap<>();
-    pieces.put(Coordinate.from("e8"), new King(PieceColor.BLACK));
-    pieces.put(Coordinate.from("e2"), new Pawn(PieceColor.WHITE));
-    pieces.put(Coordinate.from("e1"), new King(PieceColor.WHITE));
+    pieces.put(Coordinate.from("e8"), King.BLACK);
+    pieces.put(Coordinate.from("e2"), Pawn.WHITE);
+    pieces.put(Coordinate.from("e1"), King.WHITE);
 
     board.clearAndSetPieces(pieces);
     board.setCurrentTurn(PieceColor.WHITE);
@@ -63,10 +63,9 @@ public class StalemateTest {
     // Black king cornered, white queen + king deliver mate
     // White king on f6 protects g7, so queen on g7 is checkmate
     Map<Coordinate, Piece> pieces = new HashMap<>();
-    pieces.put(Coordinate.from("h8"), new King(PieceColor.BLACK));
-    pieces.put(Coordinate.from("g6"), new Queen(PieceColor.WHITE));
-    King whiteKing = new King(PieceColor.WHITE);
-    whiteKing.setHasMoved(true);
+    pieces.put(Coordinate.from("h8"), King.BLACK);
+    pieces.put(Coordinate.from("g6"), Queen.WHITE);
+    King whiteKing = King.WHITE;
     pieces.put(Coordinate.from("f6"), whiteKing);
 
     board.clearAndSetPieces(pieces);
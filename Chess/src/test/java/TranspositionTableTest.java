@@ -0,0 +1,101 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class TranspositionTableTest {
+  TranspositionTable table;
+
+  @Before
+  public void setup() {
+    table = new TranspositionTable(1);
+  }
+
+  @Test
+  public void storedEntryIsReadBack() {
+    int move = Move.encode(12, 28, Move.DOUBLE_PUSH);
+    table.store(0x1234_5678_9abc_def0L, move, -37, 6, TranspositionTable.LOWER_BOUND, 3);
+
+    long entry = table.probe(0x1234_5678_9abc_def0L);
+
+    assertEquals(move, TranspositionTable.move(entry));
+    assertEquals(-37, TranspositionTable.score(entry, 3));
+    assertEquals(6, TranspositionTable.depth(entry));
+    assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.bound(entry));
+    assertEquals("Same bucket, different key", 0, table.probe(0x1234_5678_9abc_def0L ^ (1L << 60)));
+  }
+
+  @Test
+  public void mateScoresAreRelativeToTheStoredPosition() {
+    // Mate in 3 plies from a position 4 plies from the root
+    table.store(42L, Move.NONE, Search.MATE_SCORE - 7, 5, TranspositionTable.EXACT, 4);
+
+    assertEquals("Reached 2 plies from the root, it is mate in 5 from there",
+        Search.MATE_SCORE - 5, TranspositionTable.score(table.probe(42L), 2));
+  }
+
+  @Test
+  public void entriesFromEarlierSearchesAreReplacedFirst() {
+    long bucketStride = table.capacity() / 4;
+    long[] keys = new long[5];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = 7 + i * bucketStride;
+    }
+    table.store(keys[0], Move.NONE, 0, 5, TranspositionTable.EXACT, 0);
+    table.newSearch();
+    for (int i = 1; i < 4; i++) {
+      table.store(keys[i], Move.NONE, 0, 1, TranspositionTable.EXACT, 0);
+    }
+
+    table.store(keys[4], Move.NONE, 0, 1, TranspositionTable.EXACT, 0);
+
+    assertEquals("Deeper but stale entry was evicted", 0, table.probe(keys[0]));
+    for (int i = 1; i < 5; i++) {
+      assertTrue(table.probe(keys[i]) != 0);
+    }
+  }
+
+  @Test
+  public void concurrentWritersNeverProduceMismatchedEntries() throws Exception {
+    // Every entry's score is derived from its key, so an accepted entry that disagrees with its key was torn
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    AtomicInteger mismatches = new AtomicInteger();
+    Future<?>[] futures = new Future<?>[4];
+    for (int t = 0; t < futures.length; t++) {
+      int offset = t;
+      futures[t] = executor.submit(() -> {
+        for (int i = 0; i < 200_000; i++) {
+          long written = keyFor(i * 4 + offset);
+          table.store(written, Move.NONE, scoreFor(written), 1, TranspositionTable.EXACT, 0);
+          long read = keyFor(i * 4 + (offset + 1) % 4);
+          long entry = table.probe(read);
+          if (entry != 0 && TranspositionTable.score(entry, 0) != scoreFor(read)) {
+            mismatches.incrementAndGet();
+          }
+        }
+      });
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.SECONDS);
+
+    assertEquals(0, mismatches.get());
+  }
+
+  private static long keyFor(int i) {
+    return i * 0x9E3779B97F4A7C15L;
+  }
+
+  private static int scoreFor(long key) {
+    return (int) (key >>> 40 & 0x3ff);
+  }
+}
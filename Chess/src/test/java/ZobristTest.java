@@ -0,0 +1,78 @@
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ZobristTest {
+  Board board;
+
+  @Before
+  public void setup() {
+    board = new Board();
+  }
+
+  @Test
+  public void knightsReturningHomeRestoreTheKey() {
+    long start = board.getZobristKey();
+    play("g1", "f3", "g8", "f6", "f3", "g1", "f6", "g8");
+
+    assertEquals(start, board.getZobristKey());
+  }
+
+  @Test
+  public void kingMovingAndReturningLosesCastlingRights() {
+    play("e2", "e4", "e7", "e5");
+    long beforeKingMove = board.getZobristKey();
+    play("e1", "e2", "e8", "e7", "e2", "e1", "e7", "e8");
+
+    assertNotEquals(beforeKingMove, board.getZobristKey());
+    assertEquals(fresh(board), board.getZobristKey());
+  }
+
+  @Test
+  public void sideToMoveAndEnPassantFileAreHashed() {
+    Board whiteToMove = Board.fromFen("4k3/8/8/8/4P3/8/8/4K3 w - - 0 1");
+    Board blackToMove = Board.fromFen("4k3/8/8/8/4P3/8/8/4K3 b - - 0 1");
+    Board withEnPassant = Board.fromFen("4k3/8/8/8/4P3/8/8/4K3 b - e3 0 1");
+
+    assertNotEquals(whiteToMove.getZobristKey(), blackToMove.getZobristKey());
+    assertNotEquals(blackToMove.getZobristKey(), withEnPassant.getZobristKey());
+  }
+
+  @Test
+  public void incrementalKeyMatchesRecomputedKeyThroughCastlingPromotionAndEnPassant() {
+    for (Perft.ReferencePosition reference : Perft.ReferencePosition.values()) {
+      Board referenceBoard = reference.toBoard();
+      long rootKey = referenceBoard.getZobristKey();
+      assertEquals(reference.toString(), fresh(referenceBoard), rootKey);
+      assertKeysMatch(referenceBoard, 3);
+      assertEquals(reference.toString(), rootKey, referenceBoard.getZobristKey());
+    }
+  }
+
+  private void assertKeysMatch(Board board, int depth) {
+    int[] moves = new int[Move.MAX_MOVES];
+    int count = MoveGenerator.generateLegalMoves(board, moves);
+    for (int i = 0; i < count; i++) {
+      long before = board.getZobristKey();
+      board.makeMove(moves[i]);
+      assertEquals("After " + Move.toString(moves[i]), fresh(board), board.getZobristKey());
+      if (depth > 1) {
+        assertKeysMatch(board, depth - 1);
+      }
+      board.unmakeMove();
+      assertEquals(before, board.getZobristKey());
+    }
+  }
+
+  private static long fresh(Board board) {
+    return Zobrist.compute(board.getPosition(), board.getCurrentTurn(), board.getCastlingRights(), board.getEnPassantSquare());
+  }
+
+  private void play(String... squares) {
+    for (int i = 0; i < squares.length; i += 2) {
+      board.movePiece(Coordinate.from(squares[i]), Coordinate.from(squares[i + 1]));
+    }
+  }
+}